@@ -0,0 +1,97 @@
+package com.skillhub.gateway.benchmark;
+
+import com.skillhub.gateway.jwks.JwksKeyCache;
+import com.skillhub.gateway.jwks.TestSigningKey;
+import com.skillhub.gateway.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gateway components wired by hand for the benchmarks, configured from the shipped
+ * {@code application.yml} so that they measure the rules and limits production runs with.
+ */
+public final class BenchmarkFixtures {
+
+    private static final List<PropertySource<?>> APPLICATION_YML = load();
+
+    // Stands in for auth-service's current signing key; the gateway's key cache is given its public half.
+    private static final TestSigningKey SIGNING_KEY = new TestSigningKey();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Binds a {@code @ConfigurationProperties} class from {@code application.yml}, falling back
+     * to its field defaults for anything the file leaves out.
+     */
+    public static <T> T bind(String prefix, Class<T> type) {
+        return new Binder(ConfigurationPropertySources.from(APPLICATION_YML))
+                .bindOrCreate(prefix, type);
+    }
+
+    public static String property(String name) {
+        return new Binder(ConfigurationPropertySources.from(APPLICATION_YML))
+                .bind(name, String.class)
+                .orElseThrow(() -> new IllegalStateException(name + " is not set in application.yml"));
+    }
+
+    public static JwtUtil jwtUtil(MeterRegistry meterRegistry) {
+        JwksKeyCache keyCache = new JwksKeyCache(meterRegistry);
+        trustSigningKey(keyCache);
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "");
+        ReflectionTestUtils.setField(jwtUtil, "keyCache", keyCache);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", Long.parseLong(property("jwt.cache.max-size")));
+        ReflectionTestUtils.setField(jwtUtil, "maxTokenLength", Integer.parseInt(property("jwt.max-length")));
+        ReflectionTestUtils.setField(jwtUtil, "denyCacheMaxSize", Long.parseLong(property("jwt.deny-cache.max-size")));
+        ReflectionTestUtils.setField(jwtUtil, "denyCacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    public static void trustSigningKey(JwksKeyCache keyCache) {
+        keyCache.apply(TestSigningKey.jwkSet(SIGNING_KEY));
+    }
+
+    /**
+     * An access token shaped like auth-service's, signed with the benchmark's ES256 key.
+     */
+    public static String token(String userId, String role, Duration validity) {
+        long now = System.currentTimeMillis();
+        return SIGNING_KEY.sign(Jwts.builder()
+                .subject(userId + "@example.com")
+                .id(UUID.randomUUID().toString())
+                .claim("userId", userId)
+                .claim("role", role)
+                .claim("roles", List.of(role))
+                .claim("status", "ACTIVE")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + validity.toMillis())));
+    }
+
+    public static String token(String userId, String role) {
+        return token(userId, role, Duration.ofHours(1));
+    }
+
+    private static List<PropertySource<?>> load() {
+        try {
+            return new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
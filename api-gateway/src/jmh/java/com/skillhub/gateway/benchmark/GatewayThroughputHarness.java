@@ -0,0 +1,238 @@
+package com.skillhub.gateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skillhub.gateway.ApiGatewayApplication;
+import com.skillhub.gateway.jwks.JwksKeyCache;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end throughput of the whole gateway: the application is started in-process with its
+ * shipped configuration, {@code auth-service} and {@code user-profile-service} resolve to a stub
+ * downstream that answers immediately, and a reactive client keeps {@code --concurrency} requests
+ * in flight for {@code --duration} after a {@code --warmup}. The result is written as JSON to
+ * {@code target/benchmarks/throughput-<scenario>-<commit>.json}.
+ *
+ * <p>Scenarios: {@code authenticated} (GET a profile with a valid bearer token, through JWT
+ * verification, load balancing and hedging) and {@code public} (POST to the public login route).
+ * Rate limiting, the revocation and JWKS pollers and DEBUG logging are switched off because a
+ * single client would otherwise measure them instead of the request path (the benchmark's signing
+ * key is handed to the key cache directly); any other argument of the form
+ * {@code --property=value} is passed to the gateway, so they can be switched back on.
+ */
+public final class GatewayThroughputHarness {
+
+    private static final byte[] STUB_BODY = ("{\"id\":\"42\",\"userId\":\"user-1\",\"headline\":\"Backend engineer\","
+            + "\"skills\":[\"java\",\"spring\",\"mongodb\"],\"location\":\"Tunis\"}").getBytes();
+
+    private final Options options;
+
+    private GatewayThroughputHarness(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        Map<String, Object> result = new GatewayThroughputHarness(options).run();
+
+        Path file = BenchmarkResults.file("throughput-" + options.scenario);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+        System.out.printf("%s: %.0f req/s, p99 %d us, %d errors -> %s%n", options.scenario,
+                result.get("throughputPerSecond"), ((Map<?, ?>) result.get("latencyMicros")).get("p99"),
+                result.get("errors"), file.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private Map<String, Object> run() {
+        DisposableServer stub = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendByteArray(Mono.just(STUB_BODY))
+                        .then())
+                .bindNow();
+        ConfigurableApplicationContext gateway = startGateway(stub.port());
+        ConnectionProvider connections = ConnectionProvider.builder("throughput-harness")
+                .maxConnections(options.concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try {
+            int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .build();
+            BenchmarkFixtures.trustSigningKey(gateway.getBean(JwksKeyCache.class));
+            String token = BenchmarkFixtures.token("user-1", "USER",
+                    options.warmup.plus(options.duration).plus(Duration.ofMinutes(5)));
+
+            drive(client, token, options.warmup);
+            Phase measured = drive(client, token, options.duration);
+            return result(measured);
+        } finally {
+            connections.disposeLater().block(Duration.ofSeconds(10));
+            gateway.close();
+            stub.disposeNow();
+        }
+    }
+
+    private ConfigurableApplicationContext startGateway(int stubPort) {
+        String stubUri = "http://localhost:" + stubPort;
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("server.port", "0");
+        overrides.put("eureka.client.enabled", "false");
+        overrides.put("spring.cloud.discovery.client.simple.instances.auth-service[0].uri", stubUri);
+        overrides.put("spring.cloud.discovery.client.simple.instances.user-profile-service[0].uri", stubUri);
+        overrides.put("gateway.rate-limit.enabled", "false");
+        overrides.put("gateway.revocation.enabled", "false");
+        overrides.put("gateway.jwks.enabled", "false");
+        overrides.put("logging.level.org.springframework.cloud.gateway", "INFO");
+        overrides.put("logging.level.org.springframework.security", "INFO");
+        overrides.put("logging.level.ACCESS", "WARN");
+
+        // Passed as command-line arguments so they win over application.yml, unless given explicitly.
+        List<String> args = new ArrayList<>();
+        overrides.forEach((name, value) -> {
+            if (options.gatewayArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+                args.add("--" + name + "=" + value);
+            }
+        });
+        args.addAll(options.gatewayArgs);
+        return new SpringApplicationBuilder(ApiGatewayApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private Phase drive(WebClient client, String token, Duration duration) {
+        Phase phase = new Phase();
+        long deadline = System.nanoTime() + duration.toNanos();
+        phase.startNanos = System.nanoTime();
+        Flux.range(0, options.concurrency)
+                .flatMap(worker -> Mono.defer(() -> send(client, token, phase))
+                        .repeat(() -> System.nanoTime() < deadline), options.concurrency)
+                .blockLast();
+        phase.endNanos = System.nanoTime();
+        return phase;
+    }
+
+    private Mono<Void> send(WebClient client, String token, Phase phase) {
+        long start = System.nanoTime();
+        WebClient.RequestHeadersSpec<?> request = "public".equals(options.scenario)
+                ? client.method(HttpMethod.POST).uri("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue("{\"email\":\"user-1@example.com\",\"password\":\"secret\"}")
+                : client.get().uri("/api/profiles/user/42")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .doOnNext(status -> phase.record(status, System.nanoTime() - start))
+                .onErrorResume(e -> {
+                    phase.errors.increment();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Map<String, Object> result(Phase phase) {
+        Histogram latencies = phase.latencies.getIntervalHistogram();
+        double seconds = (phase.endNanos - phase.startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        long requests = latencies.getTotalCount();
+
+        Map<String, Object> latencyMicros = new LinkedHashMap<>();
+        latencyMicros.put("mean", Math.round(latencies.getMean()));
+        latencyMicros.put("p50", latencies.getValueAtPercentile(50));
+        latencyMicros.put("p90", latencies.getValueAtPercentile(90));
+        latencyMicros.put("p99", latencies.getValueAtPercentile(99));
+        latencyMicros.put("p999", latencies.getValueAtPercentile(99.9));
+        latencyMicros.put("max", latencies.getMaxValue());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", "gateway-throughput");
+        result.put("scenario", options.scenario);
+        result.put("commit", BenchmarkResults.commit());
+        result.put("timestamp", Instant.now().toString());
+        result.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("concurrency", options.concurrency);
+        result.put("warmupSeconds", options.warmup.toSeconds());
+        result.put("durationSeconds", seconds);
+        result.put("requests", requests);
+        result.put("errors", phase.errors.sum());
+        result.put("non2xx", phase.non2xx.sum());
+        result.put("throughputPerSecond", requests / seconds);
+        result.put("latencyMicros", latencyMicros);
+        result.put("gatewayArgs", options.gatewayArgs);
+        return result;
+    }
+
+    private static final class Phase {
+
+        // Microseconds, up to one minute at three significant digits.
+        private final Recorder latencies = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder non2xx = new LongAdder();
+        private long startNanos;
+        private long endNanos;
+
+        void record(int status, long durationNanos) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), TimeUnit.MINUTES.toMicros(1)));
+            if (status < 200 || status >= 300) {
+                non2xx.increment();
+            }
+        }
+    }
+
+    private record Options(String scenario, int concurrency, Duration warmup, Duration duration,
+                           List<String> gatewayArgs) {
+
+        static Options parse(String[] args) {
+            String scenario = "authenticated";
+            int concurrency = 64;
+            Duration warmup = Duration.ofSeconds(30);
+            Duration duration = Duration.ofSeconds(30);
+            List<String> gatewayArgs = new ArrayList<>();
+            for (String arg : args) {
+                String value = arg.substring(arg.indexOf('=') + 1);
+                if (arg.startsWith("--scenario=")) {
+                    scenario = value;
+                } else if (arg.startsWith("--concurrency=")) {
+                    concurrency = Integer.parseInt(value);
+                } else if (arg.startsWith("--warmup=")) {
+                    warmup = Duration.ofSeconds(Long.parseLong(value));
+                } else if (arg.startsWith("--duration=")) {
+                    duration = Duration.ofSeconds(Long.parseLong(value));
+                } else {
+                    gatewayArgs.add(arg);
+                }
+            }
+            if (!scenario.equals("authenticated") && !scenario.equals("public")) {
+                throw new IllegalArgumentException("--scenario must be authenticated or public, not " + scenario);
+            }
+            return new Options(scenario, concurrency, warmup, duration, gatewayArgs);
+        }
+    }
+}
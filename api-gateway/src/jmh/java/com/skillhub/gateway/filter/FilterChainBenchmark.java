@@ -0,0 +1,130 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.benchmark.BenchmarkFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.i18n.LocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestLoggingFilter} followed by {@link JwtAuthenticationFilter}, completing against a
+ * chain that returns immediately, so the score is the gateway's own per-request cost in front of
+ * routing. Each invocation includes building the exchange, which is also measured on its own as
+ * {@code exchangeOnly} so it can be subtracted. Codecs and the session manager are shared across
+ * exchanges as the server adapter shares them; {@code MockServerWebExchange} would rebuild the
+ * codec configuration for every request and dominate the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    private static final GatewayFilterChain COMPLETE = exchange -> Mono.empty();
+
+    private final ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+    private final WebSessionManager sessionManager = new DefaultWebSessionManager();
+    private final LocaleContextResolver localeResolver = new AcceptHeaderLocaleContextResolver();
+
+    @Param({"public", "authenticated", "invalid_token"})
+    public String scenario;
+
+    private RequestLoggingFilter requestLoggingFilter;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private GatewayFilterChain chain;
+    private Route route;
+    private HttpMethod method;
+    private String path;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        var gatewayMetrics = FilterFixtures.gatewayMetrics(meterRegistry);
+        requestLoggingFilter = FilterFixtures.requestLoggingFilter(meterRegistry, gatewayMetrics);
+        jwtAuthenticationFilter = FilterFixtures.jwtAuthenticationFilter(meterRegistry, gatewayMetrics);
+        chain = exchange -> jwtAuthenticationFilter.filter(exchange, COMPLETE);
+
+        String token = BenchmarkFixtures.token("user-1", "USER");
+        switch (scenario) {
+            case "public" -> {
+                route = route("auth-service");
+                method = HttpMethod.POST;
+                path = "/api/auth/login";
+                authorization = null;
+            }
+            case "authenticated" -> {
+                route = route("user-profile-service");
+                method = HttpMethod.GET;
+                path = "/api/profiles/user/42";
+                authorization = "Bearer " + token;
+            }
+            case "invalid_token" -> {
+                route = route("user-profile-service");
+                method = HttpMethod.GET;
+                path = "/api/profiles/user/42";
+                authorization = "Bearer " + token.substring(0, token.length() - 2) + "AA";
+            }
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        }
+    }
+
+    @Benchmark
+    public ServerWebExchange exchangeOnly() {
+        return exchange();
+    }
+
+    @Benchmark
+    public ServerWebExchange requestLoggingAndJwtAuthentication() {
+        ServerWebExchange exchange = exchange();
+        requestLoggingFilter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private ServerWebExchange exchange() {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.method(method, path)
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 51234))
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .header(HttpHeaders.USER_AGENT, "jmh");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        ServerWebExchange exchange = new DefaultServerWebExchange(request.build(), new MockServerHttpResponse(),
+                sessionManager, codecConfigurer, localeResolver);
+        // Set by route matching before any global filter runs.
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("lb://" + id).predicate(exchange -> true).build();
+    }
+}
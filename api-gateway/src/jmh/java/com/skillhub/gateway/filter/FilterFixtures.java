@@ -0,0 +1,59 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.benchmark.BenchmarkFixtures;
+import com.skillhub.gateway.config.AccessLogProperties;
+import com.skillhub.gateway.config.AccessPolicyProperties;
+import com.skillhub.gateway.config.ClientIpProperties;
+import com.skillhub.gateway.config.RevocationProperties;
+import com.skillhub.gateway.logging.AccessLogWriter;
+import com.skillhub.gateway.metrics.GatewayMetrics;
+import com.skillhub.gateway.policy.RouteAccessPolicy;
+import com.skillhub.gateway.revocation.RevocationReplica;
+import com.skillhub.gateway.util.ClientIpResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * The first two global filters wired the way the application context wires them. The access-log
+ * writer thread is not started: the request path only ever pays for the ring-buffer offer, and
+ * once the buffer is full records are counted as dropped instead.
+ */
+final class FilterFixtures {
+
+    private FilterFixtures() {
+    }
+
+    static RouteAccessPolicy accessPolicy() {
+        RouteAccessPolicy accessPolicy = new RouteAccessPolicy();
+        ReflectionTestUtils.setField(accessPolicy, "properties",
+                BenchmarkFixtures.bind("gateway.access-policy", AccessPolicyProperties.class));
+        ReflectionTestUtils.invokeMethod(accessPolicy, "init");
+        return accessPolicy;
+    }
+
+    static JwtAuthenticationFilter jwtAuthenticationFilter(MeterRegistry meterRegistry, GatewayMetrics gatewayMetrics) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", BenchmarkFixtures.jwtUtil(meterRegistry));
+        ReflectionTestUtils.setField(filter, "accessPolicy", accessPolicy());
+        ReflectionTestUtils.setField(filter, "revocationReplica", new RevocationReplica(
+                BenchmarkFixtures.bind("gateway.revocation", RevocationProperties.class), meterRegistry));
+        ReflectionTestUtils.setField(filter, "gatewayMetrics", gatewayMetrics);
+        return filter;
+    }
+
+    static RequestLoggingFilter requestLoggingFilter(MeterRegistry meterRegistry, GatewayMetrics gatewayMetrics) {
+        AccessLogProperties accessLogProperties = BenchmarkFixtures.bind("gateway.access-log", AccessLogProperties.class);
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        ReflectionTestUtils.setField(filter, "properties", accessLogProperties);
+        ReflectionTestUtils.setField(filter, "accessLogWriter", new AccessLogWriter(accessLogProperties, meterRegistry));
+        ReflectionTestUtils.setField(filter, "gatewayMetrics", gatewayMetrics);
+        ReflectionTestUtils.setField(filter, "clientIpResolver",
+                new ClientIpResolver(BenchmarkFixtures.bind("gateway.client-ip", ClientIpProperties.class)));
+        return filter;
+    }
+
+    static GatewayMetrics gatewayMetrics(MeterRegistry meterRegistry) {
+        return new GatewayMetrics(meterRegistry,
+                Boolean.parseBoolean(BenchmarkFixtures.property("gateway.metrics.percentile-histogram")));
+    }
+}
@@ -0,0 +1,68 @@
+package com.skillhub.gateway.util;
+
+import com.skillhub.gateway.benchmark.BenchmarkFixtures;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification as the gateway sees it: the cached path taken by every request after a
+ * token's first, the full parse and HMAC check behind a cache miss, and the structural
+ * pre-check that turns away malformed tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String malformedToken;
+    private int maxTokenLength;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(new SimpleMeterRegistry());
+        token = BenchmarkFixtures.token("user-1", "USER");
+        // Same length and shape, but the last character is outside the base64url alphabet.
+        malformedToken = token.substring(0, token.length() - 1) + "+";
+        maxTokenLength = Integer.parseInt(BenchmarkFixtures.property("jwt.max-length"));
+        if (!jwtUtil.validateToken(token)) {
+            throw new IllegalStateException("Benchmark token does not verify");
+        }
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenMalformed() {
+        return jwtUtil.validateToken(malformedToken);
+    }
+
+    @Benchmark
+    public boolean isWellFormed() {
+        return JwtUtil.isWellFormed(token, maxTokenLength);
+    }
+}
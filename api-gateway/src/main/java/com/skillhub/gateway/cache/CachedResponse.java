@@ -0,0 +1,35 @@
+package com.skillhub.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * A fully buffered downstream response. {@code varyValues} holds the request header values the
+ * response was produced for, in the order of {@code varyHeaders}; a request only matches the entry
+ * when its own values for those headers are identical.
+ */
+public record CachedResponse(
+        int status,
+        HttpHeaders headers,
+        byte[] body,
+        String etag,
+        List<String> varyHeaders,
+        List<String> varyValues,
+        long storedAtNanos,
+        long ttlNanos
+) {
+
+    public boolean matches(HttpHeaders requestHeaders) {
+        for (int i = 0; i < varyHeaders.size(); i++) {
+            if (!varyValues.get(i).equals(ResponseCache.varyValue(requestHeaders, varyHeaders.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return Math.max(0, (nowNanos - storedAtNanos) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,273 @@
+package com.skillhub.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.skillhub.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store for cacheable downstream responses, bounded by total body bytes and expired per
+ * entry from the response's freshness lifetime. Also tracks in-flight misses so that concurrent
+ * requests for the same key wait for one downstream call instead of each making their own.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String RESULT_HIT = "hit";
+    public static final String RESULT_MISS = "miss";
+    public static final String RESULT_COALESCED = "coalesced";
+    public static final String RESULT_BYPASS = "bypass";
+
+    // Never replayed from the cache: hop-by-hop headers and anything recomputed per response.
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "date", "age", "x-cache");
+
+    // Rough per-entry overhead (key, headers, record) so tiny bodies still count against the bound.
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    @Autowired
+    private ResponseCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, CachedResponse> store;
+
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> lookups = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        store = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes().toBytes())
+                .weigher((String key, CachedResponse entry) -> entry.body().length + key.length() + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(new ExpireAfterFreshness())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, store, "gateway.responses");
+        Gauge.builder("gateway.response-cache.stored.bytes", store,
+                        cache -> cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Approximate bytes held by the gateway response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the fresh entry for {@code key} whose Vary headers match the request, or null.
+     */
+    public CachedResponse lookup(String key, HttpHeaders requestHeaders) {
+        CachedResponse entry = store.getIfPresent(key);
+        return entry != null && entry.matches(requestHeaders) ? entry : null;
+    }
+
+    public void put(String key, CachedResponse entry) {
+        store.put(key, entry);
+    }
+
+    /**
+     * Registers {@code flight} as the in-flight request for {@code key}. Returns {@code flight} when
+     * the caller leads and must go downstream, or the existing leader's sink to wait on.
+     */
+    public Sinks.One<CachedResponse> joinFlight(String key, Sinks.One<CachedResponse> flight) {
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, flight);
+        return existing != null ? existing : flight;
+    }
+
+    /**
+     * Publishes the leader's result to any waiters; a null entry tells them to go downstream themselves.
+     */
+    public void completeFlight(String key, Sinks.One<CachedResponse> flight, CachedResponse entry) {
+        inFlight.remove(key, flight);
+        if (entry != null) {
+            flight.tryEmitValue(entry);
+        } else {
+            flight.tryEmitEmpty();
+        }
+    }
+
+    public void recordLookup(String routeId, String result) {
+        lookups.computeIfAbsent(routeId + ':' + result, k -> Counter.builder("gateway.response-cache.requests")
+                        .description("Cacheable requests by how they were answered")
+                        .tag("route", routeId)
+                        .tag("result", result)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Builds an entry from a completed downstream response, or returns null when the response must
+     * not be stored (non-200, private/no-store/no-cache, Set-Cookie, Vary: *).
+     */
+    public CachedResponse toEntry(int status, HttpHeaders responseHeaders, HttpHeaders requestHeaders,
+                                  byte[] body, long nowNanos) {
+        if (status != 200 || responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        long ttlNanos = freshnessNanos(responseHeaders.get(HttpHeaders.CACHE_CONTROL), properties.getDefaultTtl());
+        if (ttlNanos <= 0) {
+            return null;
+        }
+        List<String> varyHeaders = varyHeaders(responseHeaders);
+        if (varyHeaders == null) {
+            return null;
+        }
+
+        List<String> varyValues = new ArrayList<>(varyHeaders.size());
+        for (String name : varyHeaders) {
+            varyValues.add(varyValue(requestHeaders, name));
+        }
+
+        HttpHeaders stored = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                stored.put(name, List.copyOf(values));
+            }
+        });
+        String etag = responseHeaders.getETag();
+        if (etag == null) {
+            etag = etag(body);
+            stored.setETag(etag);
+        }
+
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body, etag,
+                List.copyOf(varyHeaders), List.copyOf(varyValues), nowNanos, ttlNanos);
+    }
+
+    /**
+     * Freshness lifetime in nanoseconds from Cache-Control, preferring s-maxage over max-age and
+     * falling back to {@code defaultTtl}. Returns 0 when the response must not be stored.
+     */
+    public static long freshnessNanos(List<String> cacheControl, Duration defaultTtl) {
+        if (cacheControl == null || cacheControl.isEmpty()) {
+            return defaultTtl.toNanos();
+        }
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String header : cacheControl) {
+            for (String directive : header.split(",")) {
+                String d = directive.trim().toLowerCase(Locale.ROOT);
+                if (d.equals("no-store") || d.equals("private") || d.equals("no-cache")) {
+                    return 0;
+                } else if (d.startsWith("s-maxage=")) {
+                    sharedMaxAge = seconds(d.substring(9));
+                } else if (d.startsWith("max-age=")) {
+                    maxAge = seconds(d.substring(8));
+                }
+            }
+        }
+        long seconds = sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+        return seconds >= 0 ? Duration.ofSeconds(seconds).toNanos() : defaultTtl.toNanos();
+    }
+
+    /**
+     * True when the request's Cache-Control forbids answering it from (or storing it in) the cache.
+     */
+    public static boolean bypass(HttpHeaders requestHeaders) {
+        for (String header : requestHeaders.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            String value = header.toLowerCase(Locale.ROOT);
+            if (value.contains("no-store") || value.contains("no-cache")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Weak comparison of If-None-Match against the entry's validator, as required for GET.
+     */
+    public static boolean notModified(HttpHeaders requestHeaders, String etag) {
+        List<String> candidates = requestHeaders.getIfNoneMatch();
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : candidates) {
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String varyValue(HttpHeaders requestHeaders, String name) {
+        List<String> values = requestHeaders.get(name);
+        return values == null ? "" : String.join(",", values);
+    }
+
+    // Lower-cased header names from Vary, or null for "Vary: *" which can never be matched.
+    private static List<String> varyHeaders(HttpHeaders responseHeaders) {
+        List<String> names = new ArrayList<>();
+        for (String header : responseHeaders.getOrEmpty(HttpHeaders.VARY)) {
+            for (String name : header.split(",")) {
+                String n = name.trim().toLowerCase(Locale.ROOT);
+                if (n.equals("*")) {
+                    return null;
+                }
+                if (!n.isEmpty() && !names.contains(n)) {
+                    names.add(n);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String opaque(String etag) {
+        String value = etag.trim();
+        return value.startsWith("W/") ? value.substring(2) : value;
+    }
+
+    private static long seconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.trim().replace("\"", "")));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class ExpireAfterFreshness implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
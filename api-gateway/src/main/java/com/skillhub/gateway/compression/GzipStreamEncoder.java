@@ -0,0 +1,146 @@
+package com.skillhub.gateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip-encodes a response body one buffer at a time. Each input buffer is deflated, sync-flushed
+ * and released immediately, so memory use is bounded by the deflate window rather than the body
+ * size, and a client can decode everything the downstream service has sent so far (server-sent
+ * events keep arriving one by one). One instance per response: {@code encode} and {@code finish}
+ * follow the body's serialized signals, but a cancelled response may {@code close} from another
+ * thread, so all three share the instance lock.
+ */
+public final class GzipStreamEncoder {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch = new byte[8192];
+
+    private boolean headerWritten;
+    private boolean closed;
+    private long bytesIn;
+    private long bytesOut;
+    private long encodeNanos;
+
+    public GzipStreamEncoder(int level) {
+        this.deflater = new Deflater(level, true);
+    }
+
+    /**
+     * Deflates {@code input} (which is released) and returns its compressed form, flushed to a byte
+     * boundary. After {@link #close()} the input is dropped and an empty buffer is returned.
+     */
+    public synchronized DataBuffer encode(DataBuffer input, DataBufferFactory factory) {
+        long start = System.nanoTime();
+        DataBuffer out = null;
+        try {
+            if (closed) {
+                return factory.allocateBuffer(0);
+            }
+            out = factory.allocateBuffer(Math.max(64, input.readableByteCount() / 2));
+            writeHeaderOnce(out);
+            boolean hasInput = input.readableByteCount() > 0;
+            try (DataBuffer.ByteBufferIterator chunks = input.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    ByteBuffer chunk = chunks.next();
+                    bytesIn += chunk.remaining();
+                    crc.update(chunk.duplicate());
+                    deflater.setInput(chunk);
+                    while (!deflater.needsInput()) {
+                        drain(out, Deflater.NO_FLUSH);
+                    }
+                }
+            }
+            if (hasInput) {
+                // A full scratch buffer means the deflater may still hold output for this flush.
+                int n;
+                do {
+                    n = drain(out, Deflater.SYNC_FLUSH);
+                } while (n == scratch.length);
+            }
+            DataBuffer encoded = out;
+            out = null;
+            return encoded;
+        } finally {
+            if (out != null) {
+                DataBufferUtils.release(out);
+            }
+            DataBufferUtils.release(input);
+            encodeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Flushes the deflater and appends the gzip trailer (CRC-32 and input size, little-endian).
+     */
+    public synchronized DataBuffer finish(DataBufferFactory factory) {
+        if (closed) {
+            return factory.allocateBuffer(0);
+        }
+        long start = System.nanoTime();
+        DataBuffer out = factory.allocateBuffer(256);
+        writeHeaderOnce(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(out, Deflater.NO_FLUSH);
+        }
+        writeIntLE(out, (int) crc.getValue());
+        writeIntLE(out, (int) bytesIn);
+        bytesOut += 8;
+        encodeNanos += System.nanoTime() - start;
+        return out;
+    }
+
+    /**
+     * Frees the deflater's native memory. Safe to call more than once; only the first call returns true.
+     */
+    public synchronized boolean close() {
+        if (closed) {
+            return false;
+        }
+        closed = true;
+        deflater.end();
+        return true;
+    }
+
+    public synchronized long getBytesIn() {
+        return bytesIn;
+    }
+
+    public synchronized long getBytesOut() {
+        return bytesOut;
+    }
+
+    public synchronized long getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    private int drain(DataBuffer out, int flush) {
+        int n = deflater.deflate(scratch, 0, scratch.length, flush);
+        if (n > 0) {
+            out.write(scratch, 0, n);
+            bytesOut += n;
+        }
+        return n;
+    }
+
+    private void writeHeaderOnce(DataBuffer out) {
+        if (!headerWritten) {
+            out.write(HEADER);
+            bytesOut += HEADER.length;
+            headerWritten = true;
+        }
+    }
+
+    private static void writeIntLE(DataBuffer out, int value) {
+        out.write(new byte[] {(byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)});
+    }
+}
@@ -0,0 +1,23 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    // Ring buffer slots (power of two). Records are dropped, never waited for, when it is full.
+    private int bufferSize = 8192;
+
+    // Fraction of successful (< 400), fast requests that are logged. Errors and slow requests always are.
+    private double successSampleRate = 1.0;
+
+    private Duration slowThreshold = Duration.ofSeconds(1);
+}
@@ -0,0 +1,22 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requests that may pass the gateway without a JWT, keyed by the id of the route that must match them.
+ * Each rule is {@code "<METHOD> <path pattern>"}, where METHOD may be {@code *} for any method
+ * and the pattern supports {@code *} (one segment) and a trailing {@code **} (any remainder).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.access-policy")
+public class AccessPolicyProperties {
+
+    private Map<String, List<String>> publicRoutes = new LinkedHashMap<>();
+}
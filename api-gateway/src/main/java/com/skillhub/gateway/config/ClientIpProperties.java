@@ -0,0 +1,18 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.client-ip")
+public class ClientIpProperties {
+
+    // Addresses or CIDR blocks of the load balancers in front of the gateway. X-Forwarded-For is only
+    // read when the connection comes from one of them; empty means the header is never trusted.
+    private List<String> trustedProxies = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    // Responses with a smaller Content-Length are sent as-is; bodies of unknown length are always compressed.
+    private DataSize minResponseSize = DataSize.ofKilobytes(1);
+
+    // Deflate level 1 (fastest) to 9 (smallest).
+    private int level = 5;
+
+    // Content types worth compressing; wildcards such as text/* are allowed.
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json", "application/*+json", "application/xml", "application/javascript",
+            "text/*", "image/svg+xml"));
+}
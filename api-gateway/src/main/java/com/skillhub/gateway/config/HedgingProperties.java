@@ -0,0 +1,77 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hedging and retries for idempotent GETs on opted-in {@code lb://} routes. Both draw on one
+ * retry budget per route, so extra attempts stay a bounded fraction of real traffic even when
+ * every instance is failing.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+
+    // Keyed by route id; routes not listed are forwarded once, as before.
+    private Map<String, Policy> routes = new LinkedHashMap<>();
+
+    private Budget budget = new Budget();
+
+    @Data
+    public static class Policy {
+
+        // Client paths the policy applies to, in access-policy syntax without the method; empty means every GET.
+        private List<String> paths = new ArrayList<>();
+
+        // Send a second attempt to another instance if the first has not answered within the hedge delay.
+        private boolean hedge = true;
+
+        // Fixed hedge delay, also used until the route has latency data when delay-percentile is set.
+        private Duration delay = Duration.ofMillis(100);
+
+        // Use this observed downstream percentile (0.5, 0.95, 0.99 or 0.999) as the delay instead.
+        private Double delayPercentile;
+
+        // Floor for the observed delay, so a very fast route does not hedge nearly every request.
+        private Duration minDelay = Duration.ofMillis(5);
+
+        // Retries after a connection error, timeout or 5xx, each on a freshly chosen instance.
+        private int retries = 2;
+
+        private Duration backoff = Duration.ofMillis(25);
+
+        private Duration maxBackoff = Duration.ofMillis(250);
+
+        // Fraction of each backoff that is randomized.
+        private double jitter = 0.5;
+
+        private Duration attemptTimeout = Duration.ofSeconds(5);
+
+        // Responses are buffered to pick the winner; larger bodies fail the attempt with 502.
+        private DataSize maxResponseSize = DataSize.ofKilobytes(512);
+    }
+
+    @Data
+    public static class Budget {
+
+        // Every forwarded request deposits this many tokens; each hedge or retry withdraws one.
+        private double ratio = 0.1;
+
+        // Tokens added per second regardless of traffic, so low-volume routes can still retry.
+        private double minPerSecond = 5;
+
+        // The deposited balance never exceeds this.
+        private double maxTokens = 100;
+    }
+}
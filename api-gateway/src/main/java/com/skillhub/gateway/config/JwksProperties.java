@@ -0,0 +1,24 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.jwks")
+public class JwksProperties {
+
+    private boolean enabled = true;
+
+    // Resolved through the load balancer, so the host is the auth-service's service id.
+    private String uri = "http://auth-service/.well-known/jwks.json";
+
+    // Regular refresh; must stay below auth-service's jwt.signing.publish-ahead so new keys arrive before use.
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    // Earliest re-fetch after a token names an unknown kid, and the retry delay while the endpoint is down.
+    private Duration minRefreshInterval = Duration.ofSeconds(30);
+}
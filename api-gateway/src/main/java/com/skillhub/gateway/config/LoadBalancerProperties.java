@@ -0,0 +1,49 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Instance selection for {@code lb://} routes: power-of-two-choices over a peak EWMA of observed
+ * latency, weighted by in-flight requests, with outlier ejection and slow-start.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    // When false, Spring Cloud's round-robin balancer is used.
+    private boolean enabled = true;
+
+    // Time constant of the latency EWMA; idle instances also decay toward zero at this rate so they get probed again.
+    private Duration decay = Duration.ofSeconds(10);
+
+    // Assumed latency of an instance with no samples when its service has no other measured instances.
+    private Duration initialLatency = Duration.ofMillis(50);
+
+    // Instances that register after the service was first seen ramp up their share over this period.
+    private Duration slowStart = Duration.ofSeconds(30);
+
+    // Share weight a slow-starting instance begins with.
+    private double slowStartMinWeight = 0.1;
+
+    private Outlier outlier = new Outlier();
+
+    @Data
+    public static class Outlier {
+
+        // Consecutive failures (connection errors or 5xx) that eject an instance.
+        private int consecutiveFailures = 5;
+
+        // Multiplied by how many times in a row the instance has been ejected.
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        // Never eject more than this share of a service's instances.
+        private int maxEjectionPercent = 50;
+    }
+}
@@ -0,0 +1,37 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked clients per route; least recently used buckets are dropped first.
+    private long maxBuckets = 100_000;
+
+    // Buckets untouched for this long are evicted (never before they would have refilled completely).
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Limit defaultLimit = new Limit();
+
+    private Map<String, Limit> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+
+        // Burst size: requests a client may send at once after being idle.
+        private int capacity = 100;
+
+        // Sustained rate at which the bucket refills.
+        private double refillPerSecond = 50;
+    }
+}
@@ -0,0 +1,35 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fallback responses returned when a route's circuit breaker is open or its bulkhead is full.
+ * Breaker and bulkhead thresholds themselves live under {@code resilience4j.*}, keyed by route id.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    // Responses with these statuses or higher count as failures for the breaker.
+    private int failureStatusThreshold = 500;
+
+    private Fallback defaultFallback = new Fallback();
+
+    private Map<String, Fallback> fallbacks = new LinkedHashMap<>();
+
+    @Data
+    public static class Fallback {
+
+        private int status = 503;
+
+        private String message = "Service temporarily unavailable. Please try again shortly.";
+    }
+}
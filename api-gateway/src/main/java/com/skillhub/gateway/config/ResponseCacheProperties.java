@@ -0,0 +1,33 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Route ids whose anonymous GET responses may be cached.
+    private List<String> routes = new ArrayList<>();
+
+    // Total body bytes kept in memory across all entries.
+    private DataSize maxBytes = DataSize.ofMegabytes(64);
+
+    // Larger responses are streamed through without being cached.
+    private DataSize maxEntryBytes = DataSize.ofMegabytes(1);
+
+    // Used when the downstream response has no max-age / s-maxage.
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    // How long concurrent identical misses wait for the in-flight request before going downstream themselves.
+    private Duration coalesceTimeout = Duration.ofSeconds(5);
+}
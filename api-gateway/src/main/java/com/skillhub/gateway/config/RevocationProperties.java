@@ -0,0 +1,31 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.revocation")
+public class RevocationProperties {
+
+    private boolean enabled = true;
+
+    // Resolved through the load balancer, so the host is the auth-service's service id.
+    private String feedUri = "http://auth-service/internal/revocations";
+
+    // Must match internal.api-key on auth-service.
+    private String apiKey = "";
+
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    // Each poll re-reads this much of the feed, covering entries committed slightly out of order.
+    private Duration overlap = Duration.ofSeconds(5);
+
+    // Bloom filter sizing; a false positive only costs an exact-set lookup.
+    private int expectedEntries = 10000;
+
+    private double falsePositiveRate = 0.01;
+}
@@ -2,9 +2,13 @@ package com.skillhub.gateway.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
 
 @Configuration
 @EnableWebFluxSecurity
@@ -16,7 +20,16 @@ public class SecurityConfig {
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
                 .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
-                .authorizeExchange(exchanges -> exchanges.anyExchange().permitAll())
+                .authorizeExchange(exchanges -> exchanges
+                        // Reloads configuration; only operators on the gateway host may trigger it.
+                        .pathMatchers("/actuator/refresh").access((authentication, context) -> Mono.just(
+                                new AuthorizationDecision(isLoopback(context.getExchange().getRequest().getRemoteAddress()))))
+                        .anyExchange().permitAll())
                 .build();
     }
-}
\ No newline at end of file
+
+    private static boolean isLoopback(InetSocketAddress remoteAddress) {
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                && remoteAddress.getAddress().isLoopbackAddress();
+    }
+}
@@ -0,0 +1,23 @@
+package com.skillhub.gateway.config;
+
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Replaces Boot's parent-based sampler. An incoming trace id is still continued, but the
+     * sampling decision is made here at {@code management.tracing.sampling.probability} unless
+     * {@link TracingProperties#isHonorIncomingSampled()} is set; downstream services follow the
+     * decision the gateway forwards.
+     */
+    @Bean
+    public Sampler otelSampler(TracingProperties properties,
+                               @Value("${management.tracing.sampling.probability:0.1}") double probability) {
+        Sampler ratio = Sampler.traceIdRatioBased(probability);
+        return properties.isHonorIncomingSampled() ? Sampler.parentBased(ratio) : ratio;
+    }
+}
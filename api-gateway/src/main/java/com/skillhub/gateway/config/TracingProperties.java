@@ -0,0 +1,14 @@
+package com.skillhub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.tracing")
+public class TracingProperties {
+
+    // Keep the sampled flag of an incoming traceparent. Off by default so that clients cannot force tracing of every request.
+    private boolean honorIncomingSampled = false;
+}
@@ -0,0 +1,229 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.compression.GzipStreamEncoder;
+import com.skillhub.gateway.config.CompressionProperties;
+import com.skillhub.gateway.metrics.GatewayMetrics;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gzip-compresses response bodies for clients that accept it. The decision is made when the
+ * body is written, from the response's content type, length and existing encoding; the body is
+ * then encoded buffer by buffer as it streams from the downstream service. Runs ahead of the
+ * response cache so that cached entries stay uncompressed and hits are compressed on the way out.
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    static final String GZIP = "gzip";
+
+    @Autowired
+    private CompressionProperties properties;
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    private List<MimeType> compressibleTypes;
+
+    @PostConstruct
+    void init() {
+        compressibleTypes = properties.getMimeTypes().stream().map(MimeType::valueOf).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        boolean acceptsGzip = acceptsGzip(exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        CompressingResponse response =
+                new CompressingResponse(exchange.getResponse(), acceptsGzip, route != null ? route.getId() : null);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    /**
+     * True when Accept-Encoding lists gzip (or *) without q=0.
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        boolean wildcard = false;
+        for (String header : acceptEncoding) {
+            for (String token : header.split(",")) {
+                String[] parts = token.trim().toLowerCase(Locale.ROOT).split(";");
+                String coding = parts[0].trim();
+                boolean allowed = parts.length < 2 || !isZeroQuality(parts[1]);
+                if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                    return allowed;
+                }
+                if (coding.equals("*")) {
+                    wildcard = allowed;
+                }
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String p = parameter.trim();
+        if (!p.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(p.substring(2)) == 0.0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean compressible(HttpHeaders headers, HttpStatusCode status) {
+        if (status != null && (status.value() == 204 || status.value() == 304 || status.value() == 206)) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey(HttpHeaders.CONTENT_RANGE)) {
+            return false;
+        }
+        for (String cacheControl : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            if (cacheControl.toLowerCase(Locale.ROOT).contains("no-transform")) {
+                return false;
+            }
+        }
+        long length = headers.getContentLength();
+        if (length >= 0 && length < properties.getMinResponseSize().toBytes()) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        for (MimeType type : compressibleTypes) {
+            if (type.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final boolean acceptsGzip;
+        private final String routeId;
+
+        CompressingResponse(ServerHttpResponse delegate, boolean acceptsGzip, String routeId) {
+            super(delegate);
+            this.acceptsGzip = acceptsGzip;
+            this.routeId = routeId;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            GzipStreamEncoder encoder = startEncoding();
+            if (encoder == null) {
+                return super.writeWith(body);
+            }
+            DataBufferFactory factory = bufferFactory();
+            Flux<DataBuffer> encoded = Flux.<DataBuffer>from(body)
+                    .map(buffer -> encoder.encode(buffer, factory))
+                    .concatWith(Mono.fromSupplier(() -> encoder.finish(factory)))
+                    .filter(CompressionFilter::releaseIfEmpty)
+                    .doFinally(signal -> complete(encoder));
+            return super.writeWith(encoded);
+        }
+
+        /**
+         * Streaming media types (server-sent events, NDJSON) are written this way, one flush per
+         * inner publisher. Every encoded buffer is already sync-flushed, so each event still reaches
+         * the client as soon as it arrives.
+         */
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            GzipStreamEncoder encoder = startEncoding();
+            if (encoder == null) {
+                return super.writeAndFlushWith(body);
+            }
+            DataBufferFactory factory = bufferFactory();
+            Flux<Publisher<DataBuffer>> encoded = Flux.<Publisher<? extends DataBuffer>>from(body)
+                    .<Publisher<DataBuffer>>map(chunk -> Flux.<DataBuffer>from(chunk)
+                            .map(buffer -> encoder.encode(buffer, factory))
+                            .filter(CompressionFilter::releaseIfEmpty))
+                    // The outer stream completes before its last inner publisher is written, so the
+                    // trailer closes the encoder itself; the outer stream only does on error or cancel.
+                    .concatWith(Mono.just(Mono.fromSupplier(() -> encoder.finish(factory))
+                            .doFinally(signal -> complete(encoder))))
+                    .doFinally(signal -> {
+                        if (signal != SignalType.ON_COMPLETE) {
+                            complete(encoder);
+                        }
+                    });
+            return super.writeAndFlushWith(encoded);
+        }
+
+        /**
+         * Sets the gzip headers and returns an encoder, or null when the body is sent as it is.
+         */
+        private GzipStreamEncoder startEncoding() {
+            HttpHeaders headers = getHeaders();
+            if (!compressible(headers, getStatusCode())) {
+                return null;
+            }
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (!acceptsGzip) {
+                return null;
+            }
+
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            // The encoded bytes differ from the identity representation, so only a weak validator still holds.
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+            return new GzipStreamEncoder(properties.getLevel());
+        }
+
+        private void complete(GzipStreamEncoder encoder) {
+            if (encoder.close()) {
+                gatewayMetrics.recordCompression(routeId, GZIP,
+                        encoder.getBytesIn(), encoder.getBytesOut(), encoder.getEncodeNanos());
+            }
+        }
+    }
+
+    private static boolean releaseIfEmpty(DataBuffer buffer) {
+        if (buffer.readableByteCount() > 0) {
+            return true;
+        }
+        DataBufferUtils.release(buffer);
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+}
@@ -0,0 +1,48 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.metrics.GatewayMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times only the downstream hop: runs immediately before the routing filter, so the recorded
+ * duration excludes gateway filters (JWT, rate limiting, load-balancer choice) and ends when the
+ * downstream response headers arrive.
+ */
+@Component
+public class DownstreamMetricsFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+                    int status = signal == SignalType.ON_ERROR ? 500 : statusCode != null ? statusCode.value() : 0;
+                    gatewayMetrics.recordDownstream(route.getId(), status, System.nanoTime() - startNanos);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
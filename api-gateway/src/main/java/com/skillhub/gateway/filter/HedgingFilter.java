@@ -0,0 +1,479 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.config.HedgingProperties;
+import com.skillhub.gateway.hedging.RetryBudget;
+import com.skillhub.gateway.loadbalancer.InstanceStats;
+import com.skillhub.gateway.loadbalancer.InstanceStatsRegistry;
+import com.skillhub.gateway.metrics.GatewayMetrics;
+import com.skillhub.gateway.policy.CompiledAccessPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.DelegatingServiceInstance;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Forwards GETs on opted-in {@code lb://} routes itself instead of handing them to the
+ * load-balancer and routing filters. If the first attempt has not answered within the hedge
+ * delay, it sends a second one to a different instance; if the first attempt fails before then,
+ * the second one is sent at once. The first complete response wins and the loser is cancelled.
+ * Connection errors, timeouts and 5xx responses are retried on a freshly chosen instance after a
+ * jittered exponential backoff. Every hedge and retry draws on the route's {@link RetryBudget}.
+ *
+ * <p>Attempts honour what the routing filter would: the route's {@code response-timeout} and
+ * {@code connect-timeout} metadata (or the gateway-wide HTTP client settings), the request and
+ * response header filters, and {@code PreserveHostHeader}.
+ *
+ * <p>Responses are buffered before one is chosen, so this suits small JSON reads, not downloads.
+ * Each attempt still feeds the load-balancer statistics and the downstream latency timer.
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private HedgingProperties properties;
+
+    @Autowired
+    private LoadBalancerClientFactory clientFactory;
+
+    @Autowired
+    private InstanceStatsRegistry statsRegistry;
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private HttpClient httpClient;
+
+    @Autowired
+    private HttpClientProperties httpClientProperties;
+
+    private final Map<String, RouteState> routes = new ConcurrentHashMap<>();
+    private final Map<String, WebClient> clients = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        properties.getRoutes().forEach((routeId, policy) -> routes.put(routeId, new RouteState(routeId,
+                policy.getPaths().isEmpty() ? null
+                        : CompiledAccessPolicy.compile(policy.getPaths().stream().map(path -> "GET " + path).toList()))));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (!properties.isEnabled() || route == null || url == null || !"lb".equals(url.getScheme())
+                || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        HedgingProperties.Policy policy = properties.getRoutes().get(route.getId());
+        RouteState state = routes.get(route.getId());
+        if (policy == null || state == null
+                || (state.paths != null && !state.paths.matches(HttpMethod.GET, clientPath(exchange)))) {
+            return chain.filter(exchange);
+        }
+
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        state.budget.deposit();
+        state.requests.increment();
+
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        if (!Boolean.TRUE.equals(exchange.getAttribute(ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE))) {
+            headers.remove(HttpHeaders.HOST);
+        }
+        Forward forward = new Forward(exchange, route.getId(), url, headers, policy, state,
+                client(policy, connectTimeoutMillis(route)), attemptTimeout(policy, route));
+
+        return (policy.isHedge() ? hedged(forward) : attempt(forward, null))
+                .retryWhen(retry(forward))
+                .onErrorResume(RetryableStatusException.class, e -> Mono.just(e.attempt))
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Downstream did not respond in time", e))
+                .onErrorMap(DataBufferLimitException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Downstream response too large to hedge", e))
+                .flatMap(attempt -> write(forward, attempt));
+    }
+
+    /**
+     * Races the first attempt against a second one sent after the route's hedge delay, or as soon
+     * as the first attempt fails with a retryable error, whichever comes first. The second attempt
+     * is skipped when the first answers in time or the retry budget is empty; a failure that is
+     * not worth retrying ends both.
+     */
+    private Mono<Attempt> hedged(Forward forward) {
+        AtomicReference<ServiceInstance> primaryInstance = new AtomicReference<>();
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<Attempt> primary = attempt(forward, primaryInstance)
+                .doOnError(failure -> {
+                    if (retryable(failure)) {
+                        primaryFailed.tryEmitEmpty();
+                    } else {
+                        primaryFailed.tryEmitError(failure);
+                    }
+                });
+        Mono<Attempt> hedge = Mono.firstWithSignal(
+                        Mono.delay(forward.state.hedgeDelay(forward.policy)).thenReturn(false),
+                        primaryFailed.asMono().thenReturn(true))
+                .flatMap(afterFailure -> {
+                    if (!forward.state.budget.tryWithdraw()) {
+                        forward.state.exhausted(afterFailure ? "retry" : "hedge").increment();
+                        return Mono.empty();
+                    }
+                    Mono<Attempt> second = attempt(forward, new AtomicReference<>(primaryInstance.get()));
+                    if (afterFailure) {
+                        forward.state.retries.increment();
+                        return second;
+                    }
+                    forward.state.hedges.increment();
+                    return second.map(Attempt::asHedge);
+                });
+        return Mono.firstWithValue(primary, hedge)
+                .doOnNext(attempt -> {
+                    if (attempt.hedge) {
+                        forward.state.hedgeWins.increment();
+                    }
+                })
+                .onErrorMap(NoSuchElementException.class, HedgingFilter::primaryFailure);
+    }
+
+    /**
+     * One request to one instance. On entry {@code instance} may hold an instance to avoid (the
+     * one the hedge races against); on exit it holds the instance that was chosen.
+     */
+    private Mono<Attempt> attempt(Forward forward, AtomicReference<ServiceInstance> instance) {
+        ServiceInstance avoid = instance != null ? instance.get() : null;
+        return choose(forward, avoid, 3)
+                .flatMap(chosen -> {
+                    if (instance != null) {
+                        instance.set(chosen);
+                    }
+                    return send(forward, chosen);
+                });
+    }
+
+    private Mono<ServiceInstance> choose(Forward forward, ServiceInstance avoid, int tries) {
+        String serviceId = forward.url.getHost();
+        ReactorServiceInstanceLoadBalancer loadBalancer =
+                clientFactory.getInstance(serviceId, ReactorServiceInstanceLoadBalancer.class);
+        if (loadBalancer == null) {
+            return Mono.error(NotFoundException.create(false, "No loadbalancer available for " + serviceId));
+        }
+        DefaultRequest<RequestDataContext> request =
+                new DefaultRequest<>(new RequestDataContext(new RequestData(forward.exchange.getRequest())));
+        return loadBalancer.choose(request)
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(false, "Unable to find instance for " + serviceId)))
+                .flatMap(chosen -> tries > 1 && avoid != null && sameInstance(chosen, avoid)
+                        ? choose(forward, avoid, tries - 1)
+                        : Mono.just(chosen));
+    }
+
+    private Mono<Attempt> send(Forward forward, ServiceInstance instance) {
+        InstanceStats stats = statsRegistry.find(instance.getServiceId(), InstanceStatsRegistry.instanceKey(instance));
+        URI target = LoadBalancerUriTools.reconstructURI(
+                new DelegatingServiceInstance(instance, instance.isSecure() ? "https" : "http"), forward.url);
+        AtomicReference<ResponseEntity<byte[]>> received = new AtomicReference<>();
+
+        return Mono.defer(() -> {
+                    long startNanos = System.nanoTime();
+                    if (stats != null) {
+                        statsRegistry.started(stats);
+                    }
+                    Mono<ResponseEntity<byte[]>> exchange = forward.client.get()
+                            .uri(target)
+                            .headers(h -> h.addAll(forward.headers))
+                            .exchangeToMono(response -> response.toEntity(byte[].class));
+                    return (forward.timeout != null ? exchange.timeout(forward.timeout) : exchange)
+                            .doOnNext(received::set)
+                            .doFinally(signal -> {
+                                if (signal == SignalType.CANCEL) {
+                                    if (stats != null) {
+                                        statsRegistry.abandoned(stats);
+                                    }
+                                    return;
+                                }
+                                ResponseEntity<byte[]> entity = received.get();
+                                int status = entity != null ? entity.getStatusCode().value() : 502;
+                                long elapsed = System.nanoTime() - startNanos;
+                                if (stats != null) {
+                                    statsRegistry.completed(stats, elapsed, status >= 500);
+                                }
+                                gatewayMetrics.recordDownstream(forward.routeId, status, elapsed);
+                            });
+                })
+                .flatMap(entity -> {
+                    Attempt attempt = new Attempt(entity, false);
+                    return entity.getStatusCode().is5xxServerError()
+                            ? Mono.error(new RetryableStatusException(attempt))
+                            : Mono.just(attempt);
+                });
+    }
+
+    private Retry retry(Forward forward) {
+        HedgingProperties.Policy policy = forward.policy;
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            if (!retryable(failure) || signal.totalRetries() >= policy.getRetries()) {
+                return Mono.error(failure);
+            }
+            if (!forward.state.budget.tryWithdraw()) {
+                forward.state.exhausted("retry").increment();
+                return Mono.error(failure);
+            }
+            forward.state.retries.increment();
+            return Mono.delay(backoff(policy, signal.totalRetries()));
+        }));
+    }
+
+    static Duration backoff(HedgingProperties.Policy policy, long retry) {
+        long base = policy.getBackoff().toNanos();
+        long max = policy.getMaxBackoff().toNanos();
+        long delay = Math.min(max, base << Math.min(retry, 20));
+        double jitter = Math.max(0, Math.min(1, policy.getJitter()));
+        double factor = 1 - jitter + ThreadLocalRandom.current().nextDouble() * 2 * jitter;
+        return Duration.ofNanos(Math.min(max, (long) (delay * factor)));
+    }
+
+    private static boolean retryable(Throwable failure) {
+        return !(failure instanceof NotFoundException) && !(failure instanceof DataBufferLimitException);
+    }
+
+    private Mono<Void> write(Forward forward, Attempt attempt) {
+        ServerHttpResponse response = forward.exchange.getResponse();
+        ResponseEntity<byte[]> entity = attempt.entity;
+        response.setStatusCode(entity.getStatusCode());
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of), entity.getHeaders(),
+                forward.exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(filtered);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+
+        byte[] body = entity.getBody();
+        if (body == null || body.length == 0) {
+            response.getHeaders().setContentLength(0);
+            return response.setComplete();
+        }
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private WebClient client(HedgingProperties.Policy policy, Integer connectTimeoutMillis) {
+        int maxBytes = (int) Math.min(Integer.MAX_VALUE, policy.getMaxResponseSize().toBytes());
+        // Shares the gateway's HTTP client and pool; unlike the default connector it leaves
+        // Content-Encoding alone, so compressed responses pass through as they would when routed.
+        return clients.computeIfAbsent(maxBytes + "/" + connectTimeoutMillis, key -> webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(connectTimeoutMillis != null
+                        ? httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                        : httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxBytes))
+                .build());
+    }
+
+    /**
+     * The hedging policy's attempt timeout, capped by the response timeout the routing filter
+     * would apply: the route's {@code response-timeout} metadata in milliseconds (negative turns it
+     * off), else {@code spring.cloud.gateway.httpclient.response-timeout}. Null means no timeout.
+     */
+    private Duration attemptTimeout(HedgingProperties.Policy policy, Route route) {
+        Long routeMillis = metadataLong(route, RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        Duration response = routeMillis != null
+                ? (routeMillis >= 0 ? Duration.ofMillis(routeMillis) : null)
+                : httpClientProperties.getResponseTimeout();
+        Duration attempt = policy.getAttemptTimeout();
+        if (attempt == null) {
+            return response;
+        }
+        return response == null || attempt.compareTo(response) <= 0 ? attempt : response;
+    }
+
+    private static Integer connectTimeoutMillis(Route route) {
+        Long millis = metadataLong(route, RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+        return millis != null ? Math.toIntExact(millis) : null;
+    }
+
+    // Route metadata bound from properties arrives as strings, from the Java DSL as numbers.
+    private static Long metadataLong(Route route, String key) {
+        Object value = route.getMetadata().get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value != null ? Long.valueOf(value.toString().trim()) : null;
+    }
+
+    /**
+     * The path the client sent, before route filters such as RewritePath changed it.
+     */
+    private static String clientPath(ServerWebExchange exchange) {
+        Set<URI> originals = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originals != null && !originals.isEmpty()) {
+            return originals.iterator().next().getRawPath();
+        }
+        return exchange.getRequest().getPath().value();
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getPort() == b.getPort() && a.getHost().equals(b.getHost());
+    }
+
+    /**
+     * {@code Mono.firstWithValue} reports "no value" when every attempt failed; surface the first
+     * attempt's own failure instead, so a 5xx can still be retried or returned as is.
+     */
+    private static Throwable primaryFailure(NoSuchElementException e) {
+        if (e.getCause() == null) {
+            return e;
+        }
+        for (Throwable failure : Exceptions.unwrapMultiple(e.getCause())) {
+            if (failure != null && !(failure instanceof NoSuchElementException)) {
+                return failure;
+            }
+        }
+        return e;
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    private record Forward(ServerWebExchange exchange, String routeId, URI url, HttpHeaders headers,
+                           HedgingProperties.Policy policy, RouteState state, WebClient client, Duration timeout) {
+    }
+
+    private record Attempt(ResponseEntity<byte[]> entity, boolean hedge) {
+
+        Attempt asHedge() {
+            return new Attempt(entity, true);
+        }
+    }
+
+    /**
+     * A 5xx response: retried like a transport error, and returned to the client unchanged if
+     * no retry succeeds.
+     */
+    private static final class RetryableStatusException extends RuntimeException {
+
+        private final Attempt attempt;
+
+        RetryableStatusException(Attempt attempt) {
+            super("Downstream responded " + attempt.entity.getStatusCode().value(), null, false, false);
+            this.attempt = attempt;
+        }
+    }
+
+    private final class RouteState {
+
+        private final RetryBudget budget = new RetryBudget(properties.getBudget());
+        private final Counter requests;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+        private final Counter retries;
+        private final Map<String, Counter> exhausted = new ConcurrentHashMap<>();
+        private final String routeId;
+        private final CompiledAccessPolicy paths;
+
+        private volatile long hedgeDelayNanos = -1;
+        private volatile long hedgeDelayComputedAt;
+
+        RouteState(String routeId, CompiledAccessPolicy paths) {
+            this.routeId = routeId;
+            this.paths = paths;
+            this.requests = counter("gateway.hedging.requests", "GETs forwarded under a hedging policy");
+            this.hedges = counter("gateway.hedging.hedges", "Hedge requests sent to a second instance");
+            this.hedgeWins = counter("gateway.hedging.hedge.wins", "Hedge requests that answered before the original");
+            this.retries = counter("gateway.hedging.retries", "Attempts retried after a failure");
+            Gauge.builder("gateway.hedging.budget.balance", budget, RetryBudget::balance)
+                    .description("Hedges and retries the route can still afford")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        Counter exhausted(String kind) {
+            return exhausted.computeIfAbsent(kind, k -> Counter.builder("gateway.hedging.budget.exhausted")
+                    .description("Hedges or retries skipped because the retry budget was empty")
+                    .tags("route", routeId, "attempt", kind)
+                    .register(meterRegistry));
+        }
+
+        /**
+         * The fixed delay, or the observed percentile refreshed at most once a second.
+         */
+        Duration hedgeDelay(HedgingProperties.Policy policy) {
+            if (policy.getDelayPercentile() == null) {
+                return policy.getDelay();
+            }
+            long now = System.nanoTime();
+            if (hedgeDelayNanos < 0 || now - hedgeDelayComputedAt > TimeUnit.SECONDS.toNanos(1)) {
+                long observed = gatewayMetrics.downstreamPercentile(routeId, policy.getDelayPercentile());
+                hedgeDelayNanos = observed > 0
+                        ? Math.max(observed, policy.getMinDelay().toNanos())
+                        : policy.getDelay().toNanos();
+                hedgeDelayComputedAt = now;
+            }
+            return Duration.ofNanos(hedgeDelayNanos);
+        }
+
+        private Counter counter(String name, String description) {
+            return Counter.builder(name).description(description).tag("route", routeId).register(meterRegistry);
+        }
+    }
+}
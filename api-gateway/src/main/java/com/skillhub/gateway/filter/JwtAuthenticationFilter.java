@@ -1,94 +1,138 @@
 package com.skillhub.gateway.filter;
 
+import com.skillhub.gateway.metrics.GatewayMetrics;
+import com.skillhub.gateway.policy.RouteAccessPolicy;
+import com.skillhub.gateway.revocation.RevocationReplica;
 import com.skillhub.gateway.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    // Error bodies are fixed, so they are serialized once; the access log already records path and status.
+    private static final byte[] MISSING_TOKEN_BODY = errorBody("Missing or invalid Authorization header");
+    private static final byte[] INVALID_TOKEN_BODY = errorBody("Invalid or expired token");
+    private static final byte[] REVOKED_TOKEN_BODY = errorBody("Token has been revoked");
+
+    // Exchange attribute holding the user id of a verified token; unlike X-User-Id it cannot be sent by clients.
+    public static final String AUTHENTICATED_USER_ATTR = JwtAuthenticationFilter.class.getName() + ".userId";
+
+    // Exchange attribute describing how the request was authenticated, used to tag latency metrics.
+    public static final String AUTH_OUTCOME_ATTR = JwtAuthenticationFilter.class.getName() + ".outcome";
+
+    public static final String OUTCOME_PUBLIC = "public";
+    public static final String OUTCOME_AUTHENTICATED = "authenticated";
+    public static final String OUTCOME_MISSING_TOKEN = "missing_token";
+    public static final String OUTCOME_INVALID_TOKEN = "invalid_token";
+    public static final String OUTCOME_REVOKED_TOKEN = "revoked_token";
+
     @Autowired
     private JwtUtil jwtUtil;
 
-    private static final List<String> PUBLIC_ENDPOINTS = List.of(
-            "/api/auth/login",
-            "/api/auth/register",
-            "/api/auth/verify-email",
-            "/api/auth/forgot-password",
-            "/api/auth/reset-password",
-            "/actuator/health"
-    );
+    @Autowired
+    private RouteAccessPolicy accessPolicy;
+
+    @Autowired
+    private RevocationReplica revocationReplica;
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
 
-        if (isPublicEndpoint(path, exchange)) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (isPublicEndpoint(route != null ? route.getId() : null, request.getMethod(), path)) {
+            exchange.getAttributes().put(AUTH_OUTCOME_ATTR, OUTCOME_PUBLIC);
             return chain.filter(exchange);
         }
 
         String authHeader = request.getHeaders().getFirst("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return onError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
+            exchange.getAttributes().put(AUTH_OUTCOME_ATTR, OUTCOME_MISSING_TOKEN);
+            return onError(exchange, MISSING_TOKEN_BODY, "Bearer");
         }
 
+        long verifyStart = System.nanoTime();
         String token = jwtUtil.extractTokenFromHeader(authHeader);
-
-        if (token == null || !jwtUtil.validateToken(token)) {
-            return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
+        Claims claims = jwtUtil.verify(token);
+        String userId = claims != null ? claims.get("userId", String.class) : null;
+        String outcome;
+        if (claims == null) {
+            outcome = OUTCOME_INVALID_TOKEN;
+        } else if (revocationReplica.isRevoked(userId, claims.getId(), claims.getIssuedAt())) {
+            outcome = OUTCOME_REVOKED_TOKEN;
+        } else {
+            outcome = OUTCOME_AUTHENTICATED;
         }
+        gatewayMetrics.recordAuth(outcome, System.nanoTime() - verifyStart);
+        exchange.getAttributes().put(AUTH_OUTCOME_ATTR, outcome);
 
-        try {
-            String userId = jwtUtil.extractUserId(token);
-            String role = jwtUtil.extractRole(token);
+        if (claims == null) {
+            return onError(exchange, INVALID_TOKEN_BODY, "Bearer error=\"invalid_token\"");
+        }
+        if (OUTCOME_REVOKED_TOKEN.equals(outcome)) {
+            return onError(exchange, REVOKED_TOKEN_BODY, "Bearer error=\"invalid_token\", error_description=\"revoked\"");
+        }
 
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Id", userId)
-                    .header("X-User-Role", role)
-                    .build();
+        exchange.getAttributes().put(AUTHENTICATED_USER_ATTR, userId);
 
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+        ServerHttpRequest modifiedRequest = request.mutate()
+                .header("X-User-Id", userId)
+                .header("X-User-Role", claims.get("role", String.class))
+                .build();
 
-        } catch (Exception e) {
-            return onError(exchange, "Token validation failed: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
-        }
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
 
-    private boolean isPublicEndpoint(String path, ServerWebExchange exchange) {
-        if (PUBLIC_ENDPOINTS.contains(path)) {
-            return true;
-        }
+    boolean isPublicEndpoint(String routeId, HttpMethod method, String path) {
+        return accessPolicy.isPublic(routeId, method, path);
+    }
 
-        if (path.startsWith("/api/courses") || path.startsWith("/api/jobs")) {
-            String method = exchange.getRequest().getMethod().toString();
-            return "GET".equals(method);
+    private Mono<Void> onError(ServerWebExchange exchange, byte[] body, String challenge) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, challenge);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rejected {} {}: {}", exchange.getRequest().getMethod(),
+                    exchange.getRequest().getURI().getPath(), challenge);
         }
-
-        return false;
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-        System.err.println("Authentication Error: " + message + " - Path: " +
-                exchange.getRequest().getURI().getPath());
-        return response.setComplete();
+    private static byte[] errorBody(String message) {
+        return ("{\"status\":401,\"error\":\"Unauthorized\",\"message\":\"" + message + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
     }
 
     @Override
     public int getOrder() {
-        return Ordered.HIGHEST_PRECEDENCE;
+        return Ordered.HIGHEST_PRECEDENCE + 1;
     }
 }
\ No newline at end of file
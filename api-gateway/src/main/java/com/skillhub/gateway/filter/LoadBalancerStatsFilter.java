@@ -0,0 +1,61 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.loadbalancer.InstanceStats;
+import com.skillhub.gateway.loadbalancer.InstanceStatsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Feeds the latency-aware load balancer: counts the request as in flight on the chosen instance
+ * and, when the downstream response headers arrive, records its latency and whether it failed
+ * (connection error or 5xx). Like {@link DownstreamMetricsFilter}, it runs just before routing so
+ * the sample covers only the downstream hop.
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private InstanceStatsRegistry registry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = chosen.getServer();
+        InstanceStats stats = registry.find(instance.getServiceId(), InstanceStatsRegistry.instanceKey(instance));
+        if (stats == null) {
+            return chain.filter(exchange);
+        }
+
+        registry.started(stats);
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        registry.abandoned(stats);
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failure = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    registry.completed(stats, System.nanoTime() - startNanos, failure);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 2;
+    }
+}
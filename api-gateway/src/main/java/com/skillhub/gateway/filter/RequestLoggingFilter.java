@@ -1,100 +1,127 @@
 package com.skillhub.gateway.filter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.skillhub.gateway.config.AccessLogProperties;
+import com.skillhub.gateway.logging.AccessLogRecord;
+import com.skillhub.gateway.logging.AccessLogWriter;
+import com.skillhub.gateway.metrics.GatewayMetrics;
+import com.skillhub.gateway.util.ClientIpResolver;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
-
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Emits one structured access-log record and one latency sample per exchange. Runs first so that
+ * requests rejected by later filters (401, 429, fallbacks) are logged and timed too.
+ *
+ * <p>The record carries the ids of the request's server span, which Micrometer Tracing opens (or
+ * continues from an incoming {@code traceparent}) before any gateway filter runs; the routing
+ * filter forwards {@code traceparent} for its client span. The trace id doubles as
+ * {@code X-Correlation-ID} for callers that still read it.
+ */
 @Component
 public class RequestLoggingFilter implements GlobalFilter, Ordered {
 
-    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
-
-    private static final DateTimeFormatter formatter =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
-
-    @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-
-        ServerHttpRequest request = exchange.getRequest();
-
-        String correlationId = UUID.randomUUID().toString();
+    static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
 
-        ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Correlation-ID", correlationId)
-                .build();
+    @Autowired
+    private AccessLogProperties properties;
 
-        String method = request.getMethod().toString();
-        String path = request.getURI().getPath();
-        String ipAddress = getClientIp(request);
-        String userId = request.getHeaders().getFirst("X-User-Id");
+    @Autowired
+    private AccessLogWriter accessLogWriter;
 
-        long startTime = System.currentTimeMillis();
-        String timestamp = LocalDateTime.now().format(formatter);
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
 
-        logger.info("═══════════════════════════════════════════════════════════");
-        logger.info("[{}] [CORRELATION: {}] ➡️  INCOMING REQUEST", timestamp, correlationId);
-        logger.info("   Method: {}", method);
-        logger.info("   Path: {}", path);
-        logger.info("   User ID: {}", userId != null ? userId : "Anonymous");
-        logger.info("   IP Address: {}", ipAddress);
-        logger.info("───────────────────────────────────────────────────────────");
+    @Autowired
+    private ClientIpResolver clientIpResolver;
 
-        return chain.filter(exchange.mutate().request(modifiedRequest).build())
-                .then(Mono.fromRunnable(() -> {
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startNanos = System.nanoTime();
+        TraceContext trace = currentTrace(exchange);
+
+        ServerWebExchange forwarded = exchange;
+        if (trace != null) {
+            forwarded = exchange.mutate()
+                    .request(exchange.getRequest().mutate()
+                            .headers(headers -> headers.set(CORRELATION_ID_HEADER, trace.traceId()))
+                            .build())
+                    .build();
+        }
 
-                    ServerHttpResponse response = exchange.getResponse();
+        return chain.filter(forwarded)
+                .doFinally(signal -> complete(exchange, trace, startNanos, signal));
+    }
 
-                    long duration = System.currentTimeMillis() - startTime;
+    /**
+     * The trace context of the exchange's server span, or null when tracing is off.
+     */
+    static TraceContext currentTrace(ServerWebExchange exchange) {
+        TracingObservationHandler.TracingContext tracing = ServerRequestObservationContext
+                .findCurrent(exchange.getAttributes())
+                .map(context -> context.<TracingObservationHandler.TracingContext>get(
+                        TracingObservationHandler.TracingContext.class))
+                .orElse(null);
+        Span span = tracing != null ? tracing.getSpan() : null;
+        return span != null ? span.context() : null;
+    }
 
-                    int statusCode = response.getStatusCode() != null
-                            ? response.getStatusCode().value()
-                            : 0;
+    private void complete(ServerWebExchange exchange, TraceContext trace, long startNanos, SignalType signal) {
+        long durationNanos = System.nanoTime() - startNanos;
 
-                    String responseTimestamp = LocalDateTime.now().format(formatter);
-                    logger.info("[{}] [CORRELATION: {}] ⬅️  RESPONSE", responseTimestamp, correlationId);
-                    logger.info("   Status: {} {}", statusCode, getStatusDescription(statusCode));
-                    logger.info("   Duration: {}ms", duration);
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = signal == SignalType.ON_ERROR ? 500 : statusCode != null ? statusCode.value() : 0;
 
-                    if (duration > 1000) {
-                        logger.warn("⚠️  SLOW REQUEST DETECTED - {} ms for {} {}",
-                                duration, method, path);
-                    }
+        gatewayMetrics.recordRequest(route != null ? route.getId() : null, request.getMethod().name(), status,
+                exchange.getAttribute(JwtAuthenticationFilter.AUTH_OUTCOME_ATTR), durationNanos);
 
-                    logger.info("═══════════════════════════════════════════════════════════\n");
-                }));
-    }
+        if (!properties.isEnabled()) {
+            return;
+        }
 
-    private String getClientIp(ServerHttpRequest request) {
-        String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
-        if (forwardedFor != null && !forwardedFor.isEmpty()) {
-            return forwardedFor.split(",")[0].trim();
+        boolean slow = durationNanos >= properties.getSlowThreshold().toNanos();
+        if (status < 400 && !slow && !sampled(properties.getSuccessSampleRate())) {
+            return;
         }
-        return request.getRemoteAddress() != null
-                ? request.getRemoteAddress().getAddress().getHostAddress()
-                : "Unknown";
+
+        accessLogWriter.submit(new AccessLogRecord(
+                System.currentTimeMillis(),
+                trace != null ? trace.traceId() : null,
+                trace != null ? trace.spanId() : null,
+                request.getMethod().name(),
+                request.getURI().getRawPath(),
+                route != null ? route.getId() : null,
+                status,
+                durationNanos,
+                clientIpResolver.resolve(request),
+                exchange.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER_ATTR),
+                slow
+        ));
     }
 
-    private String getStatusDescription(int statusCode) {
-        if (statusCode >= 200 && statusCode < 300) return "SUCCESS";
-        if (statusCode >= 300 && statusCode < 400) return "REDIRECT";
-        if (statusCode >= 400 && statusCode < 500) return "CLIENT ERROR";
-        if (statusCode >= 500) return "SERVER ERROR";
-        return "UNKNOWN";
+    private static boolean sampled(double rate) {
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
     }
 
     @Override
     public int getOrder() {
-        return Ordered.HIGHEST_PRECEDENCE + 1;
+        return Ordered.HIGHEST_PRECEDENCE;
     }
 }
@@ -0,0 +1,188 @@
+package com.skillhub.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillhub.gateway.config.ResilienceProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Isolates every route behind its own Resilience4j bulkhead and circuit breaker, both named
+ * after the route id. Failures are 5xx responses and transport errors; slow calls are judged
+ * by the breaker's slow-call threshold on the time until the response is committed, so a long
+ * streamed body does not count against the route. The bulkhead permit is held until the body
+ * has been written. Open breakers and full bulkheads are answered locally
+ * with the route's configured fallback, so a struggling service cannot hold gateway resources.
+ */
+@Component
+public class ResilienceFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceFilter.class);
+
+    @Autowired
+    private ResilienceProperties properties;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, byte[]> fallbackBodies = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::publishTransitions);
+        circuitBreakerRegistry.getEventPublisher()
+                .onEntryAdded(event -> publishTransitions(event.getAddedEntry()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(routeId);
+        if (!bulkhead.tryAcquirePermission()) {
+            return reject(exchange, routeId, "bulkhead_full");
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(routeId);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            return reject(exchange, routeId, "circuit_open");
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        // Judge the call when the response is committed: for streamed bodies (file downloads) the
+        // rest of the exchange measures the client's bandwidth, not the downstream's health.
+        exchange.getResponse().beforeCommit(() -> {
+            recordOutcome(exchange, circuitBreaker, start, recorded);
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> recordOutcome(exchange, circuitBreaker, start, recorded))
+                .doOnError(error -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                                circuitBreaker.getTimestampUnit(), error);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        circuitBreaker.releasePermission();
+                    }
+                })
+                .doFinally(signal -> bulkhead.onComplete());
+    }
+
+    private void recordOutcome(ServerWebExchange exchange, CircuitBreaker circuitBreaker, long start, AtomicBoolean recorded) {
+        if (!recorded.compareAndSet(false, true)) {
+            return;
+        }
+        long duration = circuitBreaker.getCurrentTimestamp() - start;
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && status.value() >= properties.getFailureStatusThreshold()) {
+            circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                    new DownstreamFailureException(status.value()));
+        } else {
+            circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+        }
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String reason) {
+        rejections.computeIfAbsent(routeId + ':' + reason, key -> Counter.builder("gateway.resilience.rejected")
+                        .description("Requests answered with a fallback because a route was isolated")
+                        .tag("route", routeId)
+                        .tag("reason", reason)
+                        .register(meterRegistry))
+                .increment();
+
+        ResilienceProperties.Fallback fallback =
+                properties.getFallbacks().getOrDefault(routeId, properties.getDefaultFallback());
+        byte[] body = fallbackBodies.computeIfAbsent(routeId, id -> fallbackBody(id, fallback));
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(fallback.getStatus()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+
+    private byte[] fallbackBody(String routeId, ResilienceProperties.Fallback fallback) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", fallback.getStatus());
+        HttpStatus status = HttpStatus.resolve(fallback.getStatus());
+        body.put("error", status != null ? status.getReasonPhrase() : "Error");
+        body.put("message", fallback.getMessage());
+        body.put("route", routeId);
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize fallback for route " + routeId, e);
+        }
+    }
+
+    private void publishTransitions(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            logger.warn("Circuit breaker '{}' changed state: {} -> {}",
+                    event.getCircuitBreakerName(), transition.getFromState(), transition.getToState());
+            meterRegistry.counter("gateway.circuitbreaker.transitions",
+                            "route", event.getCircuitBreakerName(),
+                            "from", transition.getFromState().name(),
+                            "to", transition.getToState().name())
+                    .increment();
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 5;
+    }
+
+    static final class DownstreamFailureException extends RuntimeException {
+
+        DownstreamFailureException(int status) {
+            super("Downstream responded with status " + status, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.skillhub.gateway.filter;
+
+import com.skillhub.gateway.cache.CachedResponse;
+import com.skillhub.gateway.cache.ResponseCache;
+import com.skillhub.gateway.config.ResponseCacheProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Serves anonymous GETs on the configured routes from {@link ResponseCache}. Concurrent misses for
+ * the same URL are coalesced behind a single downstream call; the response is streamed to the leader
+ * while a bounded copy is taken for the cache. Hits answer If-None-Match with 304. Streaming
+ * responses (written with writeAndFlushWith) are never captured.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    @Autowired
+    private ResponseCacheProperties properties;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled()
+                || route == null
+                || request.getMethod() != HttpMethod.GET
+                || !properties.getRoutes().contains(route.getId())
+                || !JwtAuthenticationFilter.OUTCOME_PUBLIC.equals(exchange.getAttribute(JwtAuthenticationFilter.AUTH_OUTCOME_ATTR))
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        if (ResponseCache.bypass(request.getHeaders())) {
+            responseCache.recordLookup(routeId, ResponseCache.RESULT_BYPASS);
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(routeId, request);
+        CachedResponse cached = responseCache.lookup(key, request.getHeaders());
+        if (cached != null) {
+            responseCache.recordLookup(routeId, ResponseCache.RESULT_HIT);
+            return serve(exchange, cached);
+        }
+
+        Sinks.One<CachedResponse> flight = Sinks.one();
+        Sinks.One<CachedResponse> leader = responseCache.joinFlight(key, flight);
+        if (leader != flight) {
+            return leader.asMono()
+                    .timeout(properties.getCoalesceTimeout(), Mono.empty())
+                    .filter(entry -> entry.matches(request.getHeaders()))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(entry -> {
+                        if (entry.isPresent()) {
+                            responseCache.recordLookup(routeId, ResponseCache.RESULT_COALESCED);
+                            return serve(exchange, entry.get());
+                        }
+                        responseCache.recordLookup(routeId, ResponseCache.RESULT_MISS);
+                        return chain.filter(exchange);
+                    });
+        }
+
+        responseCache.recordLookup(routeId, ResponseCache.RESULT_MISS);
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), request.getHeaders());
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doOnSuccess(ignored -> {
+                    CachedResponse entry = capturing.entry;
+                    if (entry != null) {
+                        responseCache.put(key, entry);
+                    }
+                })
+                .doFinally(signal -> responseCache.completeFlight(key, flight, capturing.entry));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse entry) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+
+        if (ResponseCache.notModified(exchange.getRequest().getHeaders(), entry.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.setETag(entry.etag());
+            copyIfPresent(entry.headers(), headers, HttpHeaders.CACHE_CONTROL);
+            copyIfPresent(entry.headers(), headers, HttpHeaders.VARY);
+            headers.set(CACHE_STATUS_HEADER, "HIT");
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(entry.status()));
+        headers.putAll(entry.headers());
+        headers.setContentLength(entry.body().length);
+        headers.set(HttpHeaders.AGE, Long.toString(entry.ageSeconds(System.nanoTime())));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(entry.body())));
+    }
+
+    private static void copyIfPresent(HttpHeaders from, HttpHeaders to, String name) {
+        if (from.containsKey(name)) {
+            to.put(name, from.get(name));
+        }
+    }
+
+    private static String cacheKey(String routeId, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        return query == null ? routeId + ' ' + path : routeId + ' ' + path + '?' + query;
+    }
+
+    /**
+     * Passes the downstream body through unchanged while copying it, up to the per-entry limit,
+     * so the leader pays no buffering latency.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders requestHeaders;
+
+        // Set once the body has been fully written and turned out to be storable.
+        private volatile CachedResponse entry;
+
+        CapturingResponse(ServerHttpResponse delegate, HttpHeaders requestHeaders) {
+            super(delegate);
+            this.requestHeaders = requestHeaders;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            // Snapshot before commit: the gateway's security headers (Cache-Control: no-store among them)
+            // are added on commit and describe this response, not what the downstream allows us to store.
+            HttpHeaders downstreamHeaders = new HttpHeaders();
+            downstreamHeaders.putAll(getHeaders());
+            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+            HttpStatusCode status = getStatusCode();
+            long contentLength = getHeaders().getContentLength();
+            long maxBytes = properties.getMaxEntryBytes().toBytes();
+            if (status == null || status.value() != 200 || contentLength > maxBytes) {
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+            boolean[] overflow = {false};
+
+            Flux<? extends DataBuffer> captured = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (overflow[0]) {
+                            return;
+                        }
+                        int length = buffer.readableByteCount();
+                        if (copy.size() + length > maxBytes) {
+                            overflow[0] = true;
+                            return;
+                        }
+                        ByteBuffer bytes = ByteBuffer.allocate(length);
+                        buffer.toByteBuffer(buffer.readPosition(), bytes, 0, length);
+                        copy.write(bytes.array(), 0, length);
+                    })
+                    .doOnComplete(() -> {
+                        if (!overflow[0]) {
+                            entry = responseCache.toEntry(status.value(), downstreamHeaders, requestHeaders,
+                                    copy.toByteArray(), System.nanoTime());
+                        }
+                    });
+            return super.writeWith(captured);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 4;
+    }
+}
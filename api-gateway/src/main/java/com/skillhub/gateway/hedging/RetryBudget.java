@@ -0,0 +1,73 @@
+package com.skillhub.gateway.hedging;
+
+import com.skillhub.gateway.config.HedgingProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps hedges and retries at a fraction of real traffic: each original request
+ * deposits {@code ratio} tokens, each extra attempt withdraws a whole one, and a small
+ * time-based trickle lets quiet routes retry at all. When a service fails outright the balance
+ * drains within a few requests, so retries add at most {@code ratio} extra load instead of
+ * multiplying it.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerNano;
+    private final double maxTokens;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this.
+    private double balance;
+    private long lastRefillNanos;
+
+    public RetryBudget(HedgingProperties.Budget budget) {
+        this(budget, System::nanoTime);
+    }
+
+    RetryBudget(HedgingProperties.Budget budget, LongSupplier nanoClock) {
+        if (budget.getRatio() < 0 || budget.getMinPerSecond() < 0 || budget.getMaxTokens() < 1) {
+            throw new IllegalArgumentException("Retry budget needs ratio >= 0, min-per-second >= 0 and max-tokens >= 1");
+        }
+        this.ratio = budget.getRatio();
+        this.minPerNano = budget.getMinPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.maxTokens = budget.getMaxTokens();
+        this.nanoClock = nanoClock;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        // Start with one second's trickle rather than empty, so a freshly started gateway can retry.
+        this.balance = Math.min(maxTokens, budget.getMinPerSecond());
+    }
+
+    public synchronized void deposit() {
+        refill();
+        balance = Math.min(maxTokens, balance + ratio);
+    }
+
+    /**
+     * Takes one token for a hedge or retry; false when the budget is exhausted.
+     */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    public synchronized double balance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            balance = Math.min(maxTokens, balance + elapsed * minPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
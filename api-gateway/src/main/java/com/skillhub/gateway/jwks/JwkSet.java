@@ -0,0 +1,13 @@
+package com.skillhub.gateway.jwks;
+
+import java.util.List;
+
+/**
+ * auth-service's {@code /.well-known/jwks.json}. Only EC P-256 signing keys are used; other
+ * members and key types are ignored.
+ */
+public record JwkSet(List<Jwk> keys) {
+
+    public record Jwk(String kty, String crv, String kid, String use, String alg, String x, String y) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.skillhub.gateway.jwks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * auth-service's token verification keys by {@code kid}, replaced as a whole by
+ * {@link JwksPoller}. Lookups never fetch: a miss only asks the poller to refresh early.
+ */
+@Component
+public class JwksKeyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyCache.class);
+
+    private static final ECParameterSpec P256 = p256();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastSyncMillis;
+    private volatile boolean refreshRequested;
+
+    public JwksKeyCache(MeterRegistry meterRegistry) {
+        Gauge.builder("gateway.jwks.keys", this, cache -> cache.keys.size())
+                .description("Token verification keys held by the gateway")
+                .register(meterRegistry);
+        Gauge.builder("gateway.jwks.staleness", this,
+                        cache -> cache.lastSyncMillis == 0 ? Double.NaN
+                                : (System.currentTimeMillis() - cache.lastSyncMillis) / 1000.0)
+                .description("Seconds since the key set was last fetched from auth-service")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The ES256 verification key named {@code kid}, or null if it is not in the current set.
+     */
+    public PublicKey find(String kid) {
+        PublicKey key = kid != null ? keys.get(kid) : null;
+        if (key == null) {
+            refreshRequested = true;
+        }
+        return key;
+    }
+
+    public void apply(JwkSet jwkSet) {
+        Map<String, PublicKey> parsed = new HashMap<>();
+        if (jwkSet.keys() != null) {
+            for (JwkSet.Jwk jwk : jwkSet.keys()) {
+                if (!"EC".equals(jwk.kty()) || !"P-256".equals(jwk.crv()) || jwk.kid() == null
+                        || (jwk.use() != null && !"sig".equals(jwk.use()))) {
+                    continue;
+                }
+                try {
+                    parsed.put(jwk.kid(), toPublicKey(jwk));
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    logger.warn("Ignoring unusable JWK {}: {}", jwk.kid(), e.toString());
+                }
+            }
+        }
+        replace(parsed);
+    }
+
+    public void replace(Map<String, PublicKey> newKeys) {
+        if (!newKeys.keySet().equals(keys.keySet())) {
+            logger.info("Token verification keys are now {}", newKeys.keySet());
+        }
+        keys = Map.copyOf(newKeys);
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * True, once, after a lookup missed since the last call.
+     */
+    boolean takeRefreshRequest() {
+        if (!refreshRequested) {
+            return false;
+        }
+        refreshRequested = false;
+        return true;
+    }
+
+    private static PublicKey toPublicKey(JwkSet.Jwk jwk) throws GeneralSecurityException {
+        ECPoint point = new ECPoint(coordinate(jwk.x()), coordinate(jwk.y()));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, P256));
+    }
+
+    private static BigInteger coordinate(String value) {
+        byte[] bytes = Base64.getUrlDecoder().decode(value);
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException("P-256 coordinates are 32 bytes, not " + bytes.length);
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 is not available", e);
+        }
+    }
+}
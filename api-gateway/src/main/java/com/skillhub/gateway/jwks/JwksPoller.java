@@ -0,0 +1,109 @@
+package com.skillhub.gateway.jwks;
+
+import com.skillhub.gateway.config.JwksProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * Keeps {@link JwksKeyCache} current by fetching auth-service's JWKS in the background: every
+ * {@code refresh-interval}, and early (at most once per {@code min-refresh-interval}) when a
+ * token named an unknown kid. A failed fetch keeps the last good key set and is retried at the
+ * shorter interval.
+ */
+@Component
+public class JwksPoller implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksPoller.class);
+
+    private final JwksProperties properties;
+    private final JwksKeyCache keyCache;
+    private final WebClient webClient;
+    private final Counter failures;
+
+    private volatile Disposable subscription;
+    private volatile boolean healthy = true;
+    private volatile long lastSuccessMillis;
+
+    public JwksPoller(JwksProperties properties, JwksKeyCache keyCache,
+                      WebClient.Builder webClientBuilder,
+                      ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.keyCache = keyCache;
+        this.webClient = webClientBuilder.filter(loadBalancer).build();
+        this.failures = Counter.builder("gateway.jwks.fetch.failures")
+                .description("JWKS fetches that failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Off the parallel scheduler: the first fetch creates the load balancer's child context, which blocks.
+        subscription = Flux.interval(Duration.ZERO, properties.getMinRefreshInterval(), Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .filter(tick -> isDue())
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    private boolean isDue() {
+        boolean missed = keyCache.takeRefreshRequest();
+        return lastSuccessMillis == 0
+                || missed
+                || System.currentTimeMillis() - lastSuccessMillis >= properties.getRefreshInterval().toMillis();
+    }
+
+    Mono<Void> poll() {
+        return webClient.get()
+                .uri(properties.getUri())
+                .retrieve()
+                .bodyToMono(JwkSet.class)
+                .timeout(properties.getMinRefreshInterval())
+                .doOnNext(jwkSet -> {
+                    keyCache.apply(jwkSet);
+                    lastSuccessMillis = System.currentTimeMillis();
+                    if (!healthy) {
+                        logger.info("JWKS endpoint reachable again");
+                        healthy = true;
+                    }
+                })
+                .then()
+                .onErrorResume(error -> {
+                    failures.increment();
+                    if (healthy) {
+                        logger.warn("Cannot fetch JWKS from {}: {}", properties.getUri(), error.toString());
+                        healthy = false;
+                    }
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,14 @@
+package com.skillhub.gateway.jwks;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * A token names a {@code kid} that is not in the cached key set. Unlike a bad signature this may
+ * resolve itself once the key set is refreshed, so such tokens are not deny-cached.
+ */
+public class UnknownSigningKeyException extends JwtException {
+
+    public UnknownSigningKeyException(String kid) {
+        super("Unknown signing key: " + kid);
+    }
+}
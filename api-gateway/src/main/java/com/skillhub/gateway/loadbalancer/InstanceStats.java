@@ -0,0 +1,138 @@
+package com.skillhub.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Observed behaviour of one service instance. Latency is a peak EWMA: a sample above the current
+ * value replaces it immediately, lower samples pull it down with time constant {@code decayNanos},
+ * and without samples it decays toward zero so that an instance that was slow once gets probed
+ * again instead of being starved forever.
+ */
+public class InstanceStats {
+
+    private final String serviceId;
+    private final String instanceId;
+    private final long registeredNanos;
+    private final boolean slowStart;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder selections = new LongAdder();
+
+    // Guarded by this.
+    private double ewmaNanos;
+    private boolean sampled;
+    private long lastSampleNanos;
+    private int consecutiveFailures;
+    private int ejections;
+
+    private volatile long ejectedUntilNanos;
+
+    InstanceStats(String serviceId, String instanceId, long nowNanos, double initialLatencyNanos, boolean slowStart) {
+        this.serviceId = serviceId;
+        this.instanceId = instanceId;
+        this.registeredNanos = nowNanos;
+        this.slowStart = slowStart;
+        this.ewmaNanos = initialLatencyNanos;
+        this.lastSampleNanos = nowNanos;
+        this.ejectedUntilNanos = nowNanos;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getSelections() {
+        return selections.sum();
+    }
+
+    void selected() {
+        selections.increment();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records a finished request. Returns true when this failure tipped the instance into ejection;
+     * the caller decides whether the ejection may actually happen (see {@link #eject}).
+     */
+    synchronized boolean completed(long latencyNanos, boolean failure, long nowNanos, long decayNanos,
+                                   int failureThreshold) {
+        inFlight.decrementAndGet();
+        double current = decayed(nowNanos, decayNanos);
+        if (!sampled || latencyNanos > current) {
+            // The seed is only a guess, so the first real sample replaces it outright.
+            sampled = true;
+            ewmaNanos = latencyNanos;
+        } else {
+            double w = Math.exp(-(double) Math.max(0, nowNanos - lastSampleNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * w + latencyNanos * (1 - w);
+        }
+        lastSampleNanos = nowNanos;
+
+        if (!failure) {
+            consecutiveFailures = 0;
+            if (!isEjected(nowNanos)) {
+                ejections = 0;
+            }
+            return false;
+        }
+        return ++consecutiveFailures >= failureThreshold && !isEjected(nowNanos);
+    }
+
+    /**
+     * A request that was cancelled before a response: releases its in-flight slot without a sample.
+     */
+    void abandoned() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void eject(long nowNanos, long baseNanos, long maxNanos) {
+        ejections++;
+        ejectedUntilNanos = nowNanos + Math.min(maxNanos, baseNanos * ejections);
+        consecutiveFailures = 0;
+    }
+
+    public boolean isEjected(long nowNanos) {
+        return nowNanos - ejectedUntilNanos < 0;
+    }
+
+    /**
+     * Lower is better: expected latency times queue depth, divided by the slow-start weight.
+     */
+    public double score(long nowNanos, long decayNanos, long slowStartNanos, double minWeight) {
+        double latency;
+        synchronized (this) {
+            latency = decayed(nowNanos, decayNanos);
+        }
+        double cost = Math.max(latency, 1.0) * (inFlight.get() + 1);
+        return cost / weight(nowNanos, slowStartNanos, minWeight);
+    }
+
+    public synchronized double latencyNanos(long nowNanos, long decayNanos) {
+        return decayed(nowNanos, decayNanos);
+    }
+
+    double weight(long nowNanos, long slowStartNanos, double minWeight) {
+        if (!slowStart || slowStartNanos <= 0) {
+            return 1.0;
+        }
+        double progress = (double) (nowNanos - registeredNanos) / slowStartNanos;
+        return progress >= 1.0 ? 1.0 : Math.max(minWeight, progress);
+    }
+
+    private double decayed(long nowNanos, long decayNanos) {
+        long idle = nowNanos - lastSampleNanos;
+        return idle <= 0 ? ewmaNanos : ewmaNanos * Math.exp(-(double) idle / decayNanos);
+    }
+}
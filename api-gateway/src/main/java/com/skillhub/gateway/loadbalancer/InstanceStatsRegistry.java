@@ -0,0 +1,208 @@
+package com.skillhub.gateway.loadbalancer;
+
+import com.skillhub.gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-instance statistics shared by every service's load balancer and the filter that feeds them.
+ * Instances are added when discovery first reports them and dropped (with their meters) when they
+ * disappear from the list. Exposes, per service and instance:
+ *
+ * <ul>
+ *   <li>{@code gateway.loadbalancer.selections}: times the instance was chosen</li>
+ *   <li>{@code gateway.loadbalancer.score}: current selection cost (lower wins)</li>
+ *   <li>{@code gateway.loadbalancer.latency}: decayed latency EWMA in seconds</li>
+ *   <li>{@code gateway.loadbalancer.in-flight}: requests currently forwarded to it</li>
+ *   <li>{@code gateway.loadbalancer.ejections}: outlier ejections</li>
+ * </ul>
+ */
+@Component
+public class InstanceStatsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceStatsRegistry.class);
+
+    private final LoadBalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Map<String, Tracked>> services = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InstanceStatsRegistry(LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    InstanceStatsRegistry(LoadBalancerProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    public static String instanceKey(ServiceInstance instance) {
+        return instance.getHost() + ':' + instance.getPort();
+    }
+
+    long now() {
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Stats for the given instances, in the same order, registering any that are new. The first
+     * list seen for a service is its established set; instances appearing later slow-start.
+     */
+    List<InstanceStats> statsFor(String service, List<ServiceInstance> instances) {
+        String serviceId = service.toLowerCase(Locale.ROOT);
+        boolean firstSight = !services.containsKey(serviceId);
+        Map<String, Tracked> known = services.computeIfAbsent(serviceId, id -> new ConcurrentHashMap<>());
+
+        List<InstanceStats> stats = new ArrayList<>(instances.size());
+        boolean added = false;
+        for (ServiceInstance instance : instances) {
+            String key = instanceKey(instance);
+            Tracked tracked = known.get(key);
+            if (tracked == null) {
+                tracked = known.computeIfAbsent(key, k -> register(serviceId, k, known, !firstSight));
+                added = true;
+            }
+            stats.add(tracked.stats);
+        }
+        if (added || known.size() > instances.size()) {
+            forgetMissing(serviceId, known, instances);
+        }
+        return stats;
+    }
+
+    /**
+     * Stats of an instance the balancer has already seen. Service ids are compared ignoring case:
+     * the balancer sees the {@code lb://} host while Eureka reports upper-case application names.
+     */
+    public InstanceStats find(String serviceId, String instanceKey) {
+        Map<String, Tracked> known = services.get(serviceId.toLowerCase(Locale.ROOT));
+        Tracked tracked = known != null ? known.get(instanceKey) : null;
+        return tracked != null ? tracked.stats : null;
+    }
+
+    public List<InstanceStats> snapshot(String serviceId) {
+        Map<String, Tracked> known = services.get(serviceId.toLowerCase(Locale.ROOT));
+        if (known == null) {
+            return List.of();
+        }
+        return known.values().stream().map(tracked -> tracked.stats).toList();
+    }
+
+    public double score(InstanceStats stats) {
+        return score(stats, now());
+    }
+
+    double score(InstanceStats stats, long nowNanos) {
+        return stats.score(nowNanos, properties.getDecay().toNanos(), properties.getSlowStart().toNanos(),
+                properties.getSlowStartMinWeight());
+    }
+
+    public void started(InstanceStats stats) {
+        stats.started();
+    }
+
+    public void abandoned(InstanceStats stats) {
+        stats.abandoned();
+    }
+
+    public void completed(InstanceStats stats, long latencyNanos, boolean failure) {
+        long now = now();
+        LoadBalancerProperties.Outlier outlier = properties.getOutlier();
+        boolean tripped = stats.completed(latencyNanos, failure, now, properties.getDecay().toNanos(),
+                outlier.getConsecutiveFailures());
+        if (tripped && mayEject(stats.getServiceId(), now)) {
+            stats.eject(now, outlier.getBaseEjectionTime().toNanos(), outlier.getMaxEjectionTime().toNanos());
+            Map<String, Tracked> known = services.get(stats.getServiceId());
+            Tracked tracked = known != null ? known.get(stats.getInstanceId()) : null;
+            if (tracked != null) {
+                tracked.ejections.increment();
+            }
+            logger.warn("Ejected {} instance {} after {} consecutive failures",
+                    stats.getServiceId(), stats.getInstanceId(), outlier.getConsecutiveFailures());
+        }
+    }
+
+    private boolean mayEject(String serviceId, long nowNanos) {
+        Map<String, Tracked> known = services.get(serviceId);
+        if (known == null || known.size() < 2) {
+            return false;
+        }
+        long ejected = known.values().stream().filter(tracked -> tracked.stats.isEjected(nowNanos)).count();
+        return (ejected + 1) * 100 <= (long) known.size() * properties.getOutlier().getMaxEjectionPercent();
+    }
+
+    private Tracked register(String serviceId, String key, Map<String, Tracked> known, boolean slowStart) {
+        long now = now();
+        double seed = known.values().stream()
+                .mapToDouble(tracked -> tracked.stats.latencyNanos(now, properties.getDecay().toNanos()))
+                .average()
+                .orElse(properties.getInitialLatency().toNanos());
+        InstanceStats stats = new InstanceStats(serviceId, key, now, seed, slowStart);
+
+        Tags tags = Tags.of("service", serviceId, "instance", key);
+        List<Meter> meters = List.of(
+                FunctionCounter.builder("gateway.loadbalancer.selections", stats, InstanceStats::getSelections)
+                        .description("Times the load balancer chose this instance")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.score", stats, s -> score(s))
+                        .description("Current selection cost of this instance; the lower of two sampled instances wins")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.latency", stats,
+                                s -> s.latencyNanos(now(), properties.getDecay().toNanos()) / 1e9)
+                        .description("Peak EWMA of this instance's response latency")
+                        .baseUnit("seconds")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.in-flight", stats, InstanceStats::getInFlight)
+                        .description("Requests currently forwarded to this instance")
+                        .tags(tags)
+                        .register(meterRegistry));
+        Counter ejections = Counter.builder("gateway.loadbalancer.ejections")
+                .description("Times this instance was ejected as an outlier")
+                .tags(tags)
+                .register(meterRegistry);
+        return new Tracked(stats, meters, ejections);
+    }
+
+    private void forgetMissing(String serviceId, Map<String, Tracked> known, List<ServiceInstance> instances) {
+        Set<String> current = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            current.add(instanceKey(instance));
+        }
+        known.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().meters.forEach(meterRegistry::remove);
+            meterRegistry.remove(entry.getValue().ejections);
+            logger.debug("Instance {} of {} left discovery", entry.getKey(), serviceId);
+            return true;
+        });
+    }
+
+    private record Tracked(InstanceStats stats, List<Meter> meters, Counter ejections) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.skillhub.gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices: samples two distinct non-ejected instances at random and picks the one
+ * with the lower score from {@link InstanceStatsRegistry}. Looking up the stats is one pass over
+ * the instance list; sampling and comparing are constant work, redrawing when a draw lands on an
+ * ejected instance. Comparing only two avoids the herding onto a single "best" instance that a
+ * full minimum would cause when many requests decide on the same stale statistics.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final int MAX_DRAWS = 8;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceStatsRegistry registry;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    String serviceId, InstanceStatsRegistry registry) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.registry = registry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        List<InstanceStats> stats = registry.statsFor(serviceId, instances);
+        int index = pick(stats);
+        stats.get(index).selected();
+        return new DefaultResponse(instances.get(index));
+    }
+
+    private int pick(List<InstanceStats> stats) {
+        int size = stats.size();
+        if (size == 1) {
+            return 0;
+        }
+        long now = registry.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Ejection is capped at a share of the instances, so a few draws almost always find two.
+        int a = -1;
+        int b = -1;
+        for (int draw = 0; draw < MAX_DRAWS && b < 0; draw++) {
+            int i = random.nextInt(size);
+            if (i == a || stats.get(i).isEjected(now)) {
+                continue;
+            }
+            if (a < 0) {
+                a = i;
+            } else {
+                b = i;
+            }
+        }
+        if (b < 0) {
+            // Unlucky draws or almost everything ejected: walk the list once from a random offset.
+            int offset = random.nextInt(size);
+            for (int n = 0; n < size && b < 0; n++) {
+                int i = (offset + n) % size;
+                if (i == a || stats.get(i).isEjected(now)) {
+                    continue;
+                }
+                if (a < 0) {
+                    a = i;
+                } else {
+                    b = i;
+                }
+            }
+        }
+        if (a < 0) {
+            // Everything is ejected; serving from a suspect instance beats failing the request here.
+            return random.nextInt(size);
+        }
+        if (b < 0) {
+            return a;
+        }
+        return registry.score(stats.get(a), now) <= registry.score(stats.get(b), now) ? a : b;
+    }
+}
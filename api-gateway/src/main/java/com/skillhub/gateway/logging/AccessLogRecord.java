@@ -0,0 +1,19 @@
+package com.skillhub.gateway.logging;
+
+/**
+ * One exchange as captured on the event loop. Formatting happens later on the writer thread.
+ */
+public record AccessLogRecord(
+        long timestampMillis,
+        String traceId,
+        String spanId,
+        String method,
+        String path,
+        String routeId,
+        int status,
+        long durationNanos,
+        String clientIp,
+        String userId,
+        boolean slow
+) {
+}
@@ -0,0 +1,142 @@
+package com.skillhub.gateway.logging;
+
+import com.skillhub.gateway.config.AccessLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains access-log records from a ring buffer on a dedicated thread and writes each one as a
+ * single JSON line to the {@code ACCESS} logger. Producers on the event loop only pay for one
+ * lock-free offer; if the writer falls behind, records are counted and dropped.
+ */
+@Component
+public class AccessLogWriter implements SmartLifecycle {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RingBuffer<AccessLogRecord> buffer;
+    private final Counter dropped;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.buffer = new RingBuffer<>(properties.getBufferSize());
+        this.dropped = Counter.builder("gateway.accesslog.dropped")
+                .description("Access-log records dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("gateway.accesslog.buffered", buffer, RingBuffer::size)
+                .description("Access-log records waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /** Never blocks. Returns {@code false} (and counts a drop) if the buffer is full. */
+    public boolean submit(AccessLogRecord record) {
+        if (buffer.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        while (running || buffer.size() > 0) {
+            AccessLogRecord record = buffer.poll();
+            if (record == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                accessLogger.info(format(record));
+            } catch (RuntimeException e) {
+                // A broken appender must not kill the writer thread.
+            }
+        }
+    }
+
+    String format(AccessLogRecord record) {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.timestampMillis()), sb);
+        sb.append('"');
+        field(sb, "traceId", record.traceId());
+        field(sb, "spanId", record.spanId());
+        field(sb, "method", record.method());
+        field(sb, "path", record.path());
+        field(sb, "route", record.routeId());
+        sb.append(",\"status\":").append(record.status());
+        sb.append(",\"durationMs\":").append(TimeUnit.NANOSECONDS.toMicros(record.durationNanos()) / 1000.0);
+        field(sb, "clientIp", record.clientIp());
+        field(sb, "userId", record.userId());
+        if (record.slow()) {
+            sb.append(",\"slow\":true");
+        }
+        return sb.append('}').toString();
+    }
+
+    private static void field(StringBuilder sb, String name, String value) {
+        sb.append(",\"").append(name).append("\":");
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
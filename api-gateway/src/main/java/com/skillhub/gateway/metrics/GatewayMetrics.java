@@ -0,0 +1,128 @@
+package com.skillhub.gateway.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers for the gateway. Percentiles (p50/p95/p99/p99.9) are computed in-process from
+ * Micrometer's HdrHistogram-backed time windows; the optional percentile histogram additionally
+ * publishes buckets so Prometheus can aggregate across instances.
+ *
+ * <ul>
+ *   <li>{@code gateway.requests}: whole exchange, by route, method, status class and auth outcome</li>
+ *   <li>{@code gateway.auth.duration}: JWT verification only, by outcome</li>
+ *   <li>{@code gateway.downstream.duration}: from forwarding until downstream response headers, by route</li>
+ *   <li>{@code gateway.compression.*}: body bytes before and after encoding, and time spent in the encoder</li>
+ * </ul>
+ */
+@Component
+public class GatewayMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99, 0.999};
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MeterRegistry meterRegistry;
+    private final boolean percentileHistogram;
+
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> authTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> downstreamTimers = new ConcurrentHashMap<>();
+    private final Map<String, CompressionMeters> compressionMeters = new ConcurrentHashMap<>();
+
+    public GatewayMetrics(MeterRegistry meterRegistry,
+                          @Value("${gateway.metrics.percentile-histogram:false}") boolean percentileHistogram) {
+        this.meterRegistry = meterRegistry;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    public void recordRequest(String routeId, String method, int status, String authOutcome, long durationNanos) {
+        String route = routeId != null ? routeId : "none";
+        String statusClass = statusClass(status);
+        String outcome = authOutcome != null ? authOutcome : "none";
+
+        requestTimers.computeIfAbsent(route + '|' + method + '|' + statusClass + '|' + outcome,
+                        key -> timer("gateway.requests", "Gateway request latency",
+                                "route", route, "method", method, "status", statusClass, "auth", outcome))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAuth(String outcome, long durationNanos) {
+        authTimers.computeIfAbsent(outcome,
+                        key -> timer("gateway.auth.duration", "Time spent verifying the bearer token",
+                                "outcome", outcome))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDownstream(String routeId, int status, long durationNanos) {
+        String statusClass = statusClass(status);
+        downstreamTimers.computeIfAbsent(routeId + '|' + statusClass,
+                        key -> timer("gateway.downstream.duration", "Time until the downstream service responded",
+                                "route", routeId, "status", statusClass))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A published percentile (0.5, 0.95, 0.99 or 0.999) of the route's successful downstream
+     * latency, in nanoseconds, or -1 when the route has no 2xx samples in the current window.
+     */
+    public long downstreamPercentile(String routeId, double percentile) {
+        Timer timer = downstreamTimers.get(routeId + "|2xx");
+        if (timer == null) {
+            return -1;
+        }
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                double nanos = value.value(TimeUnit.NANOSECONDS);
+                return nanos > 0 ? (long) nanos : -1;
+            }
+        }
+        return -1;
+    }
+
+    public void recordCompression(String routeId, String encoding, long bytesIn, long bytesOut, long encodeNanos) {
+        String route = routeId != null ? routeId : "none";
+        CompressionMeters meters = compressionMeters.computeIfAbsent(route + '|' + encoding, key -> new CompressionMeters(
+                Counter.builder("gateway.compression.input.bytes")
+                        .description("Response bytes before compression")
+                        .baseUnit("bytes")
+                        .tags("route", route, "encoding", encoding)
+                        .register(meterRegistry),
+                Counter.builder("gateway.compression.output.bytes")
+                        .description("Response bytes after compression")
+                        .baseUnit("bytes")
+                        .tags("route", route, "encoding", encoding)
+                        .register(meterRegistry),
+                Timer.builder("gateway.compression.duration")
+                        .description("Time spent compressing one response body")
+                        .tags("route", route, "encoding", encoding)
+                        .register(meterRegistry)));
+        meters.input().increment(bytesIn);
+        meters.output().increment(bytesOut);
+        meters.duration().record(encodeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(meterRegistry);
+    }
+
+    private static String statusClass(int status) {
+        int index = status / 100 - 1;
+        return index >= 0 && index < STATUS_CLASSES.length ? STATUS_CLASSES[index] : "unknown";
+    }
+
+    private record CompressionMeters(Counter input, Counter output, Timer duration) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.skillhub.gateway.policy;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable path-segment trie per HTTP method. Lookups walk the request path in place
+ * (no splitting or substring allocation) and cost O(path segments).
+ */
+public final class CompiledAccessPolicy {
+
+    public static final CompiledAccessPolicy EMPTY = compile(List.of());
+
+    private static final String ANY_METHOD = "*";
+
+    private final Map<HttpMethod, Node> byMethod;
+    private final Node anyMethod;
+
+    private CompiledAccessPolicy(Map<HttpMethod, Node> byMethod, Node anyMethod) {
+        this.byMethod = byMethod;
+        this.anyMethod = anyMethod;
+    }
+
+    public static CompiledAccessPolicy compile(Collection<String> rules) {
+        Map<HttpMethod, Builder> builders = new HashMap<>();
+        Builder any = new Builder();
+
+        for (String rule : rules) {
+            String[] parts = rule.trim().split("\\s+");
+            if (parts.length != 2 || !parts[1].startsWith("/")) {
+                throw new IllegalArgumentException("Access rule must be '<METHOD> /path': " + rule);
+            }
+            Builder root = ANY_METHOD.equals(parts[0])
+                    ? any
+                    : builders.computeIfAbsent(HttpMethod.valueOf(parts[0].toUpperCase()), m -> new Builder());
+            root.add(parts[1], rule);
+        }
+
+        Map<HttpMethod, Node> byMethod = new HashMap<>();
+        builders.forEach((method, builder) -> byMethod.put(method, builder.build()));
+        return new CompiledAccessPolicy(byMethod, any.build());
+    }
+
+    public boolean isPublic(HttpMethod method, String path) {
+        return matches(method, path);
+    }
+
+    /**
+     * True when some rule covers the method and path. The trie is not specific to access rules,
+     * so other per-path opt-ins (such as hedging) compile their rules the same way.
+     */
+    public boolean matches(HttpMethod method, String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        if (match(anyMethod, path, 0)) {
+            return true;
+        }
+        Node root = method != null ? byMethod.get(method) : null;
+        return root != null && match(root, path, 0);
+    }
+
+    // slash is the index of the '/' that precedes the next segment, or path.length() at the end.
+    private static boolean match(Node node, String path, int slash) {
+        if (node.catchAll) {
+            return true;
+        }
+        if (slash >= path.length()) {
+            return node.terminal;
+        }
+
+        int start = slash + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        Node literal = node.child(path, start, end);
+        if (literal != null && match(literal, path, end)) {
+            return true;
+        }
+        return node.wildcard != null && end > start && match(node.wildcard, path, end);
+    }
+
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Node {
+
+        private final String[] keys;
+        private final Node[] children;
+        private final Node wildcard;
+        private final boolean terminal;
+        private final boolean catchAll;
+
+        private Node(String[] keys, Node[] children, Node wildcard, boolean terminal, boolean catchAll) {
+            this.keys = keys;
+            this.children = children;
+            this.wildcard = wildcard;
+            this.terminal = terminal;
+            this.catchAll = catchAll;
+        }
+
+        private Node child(String path, int start, int end) {
+            if (keys.length == 0) {
+                return null;
+            }
+            int length = end - start;
+            int mask = keys.length - 1;
+            for (int i = hash(path, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<String, Builder> literals = new HashMap<>();
+        private Builder wildcard;
+        private boolean terminal;
+        private boolean catchAll;
+
+        private void add(String pattern, String rule) {
+            String[] segments = pattern.substring(1).split("/", -1);
+            Builder node = this;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if ("**".equals(segment)) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' is only allowed as the last segment: " + rule);
+                    }
+                    node.catchAll = true;
+                    return;
+                }
+                if ("*".equals(segment)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Builder();
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new Builder());
+                }
+            }
+            node.terminal = true;
+        }
+
+        private Node build() {
+            int capacity = literals.isEmpty() ? 0 : Integer.highestOneBit(literals.size() * 2 - 1) << 1;
+            String[] keys = new String[capacity];
+            Node[] children = new Node[capacity];
+            int mask = capacity - 1;
+
+            literals.forEach((key, child) -> {
+                int i = hash(key, 0, key.length()) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                children[i] = child.build();
+            });
+
+            return new Node(keys, children, wildcard != null ? wildcard.build() : null, terminal, catchAll);
+        }
+    }
+}
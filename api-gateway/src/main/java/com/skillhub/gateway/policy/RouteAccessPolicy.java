@@ -0,0 +1,80 @@
+package com.skillhub.gateway.policy;
+
+import com.skillhub.gateway.config.AccessPolicyProperties;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds one compiled public-rule table per route id; a request is only checked against the rules of
+ * the route it matched. {@code POST /actuator/refresh} re-reads the configuration, and when a
+ * {@code gateway.access-policy} key changed the tables are recompiled and swapped atomically;
+ * in-flight lookups keep using the previous tables.
+ */
+@Component
+public class RouteAccessPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteAccessPolicy.class);
+
+    static final String PREFIX = "gateway.access-policy";
+
+    @Autowired
+    private AccessPolicyProperties properties;
+
+    @Autowired
+    private Environment environment;
+
+    private final AtomicReference<Map<String, CompiledAccessPolicy>> compiled = new AtomicReference<>(Map.of());
+
+    @PostConstruct
+    void init() {
+        reload(properties.getPublicRoutes());
+    }
+
+    /**
+     * Binds a fresh copy rather than reading the rebound properties bean: rebinding merges into the
+     * existing map, so a route group removed from the configuration would otherwise stay public.
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+            return;
+        }
+        AccessPolicyProperties current = Binder.get(environment)
+                .bindOrCreate(PREFIX, AccessPolicyProperties.class);
+        try {
+            reload(current.getPublicRoutes());
+        } catch (IllegalArgumentException e) {
+            logger.error("Access policy not reloaded, keeping the previous rules: {}", e.getMessage());
+        }
+    }
+
+    public void reload(Map<String, List<String>> publicRoutes) {
+        Map<String, CompiledAccessPolicy> byRoute = new HashMap<>();
+        int rules = 0;
+        for (Map.Entry<String, List<String>> route : publicRoutes.entrySet()) {
+            byRoute.put(route.getKey(), CompiledAccessPolicy.compile(route.getValue()));
+            rules += route.getValue().size();
+        }
+
+        compiled.set(Map.copyOf(byRoute));
+        logger.info("Access policy loaded: {} public rules across routes {}", rules, publicRoutes.keySet());
+    }
+
+    public boolean isPublic(String routeId, HttpMethod method, String path) {
+        CompiledAccessPolicy policy = routeId != null ? compiled.get().get(routeId) : null;
+        return policy != null && policy.isPublic(method, path);
+    }
+}
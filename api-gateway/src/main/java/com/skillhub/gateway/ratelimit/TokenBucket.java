@@ -0,0 +1,68 @@
+package com.skillhub.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skillhub.gateway.config.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for every client of one route, implemented as GCRA: each client is a single
+ * {@link AtomicLong} holding its theoretical arrival time, so acquiring a token is one CAS and
+ * never blocks. A client that is idle long enough has a full bucket, which is why evicting idle
+ * entries does not change behaviour.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucket(RateLimitProperties.Limit limit, long maxBuckets, Duration idleTimeout) {
+        if (limit.getCapacity() < 1 || limit.getRefillPerSecond() <= 0) {
+            throw new IllegalArgumentException("Rate limit needs capacity >= 1 and refill-per-second > 0");
+        }
+        this.capacity = limit.getCapacity();
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+
+        long fullRefillNanos = burstToleranceNanos;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Math.max(idleTimeout.toNanos(), fullRefillNanos), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Takes one token for the client.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        AtomicLong arrival = buckets.get(clientKey, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long allowedAt = next - burstToleranceNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long trackedClients() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,61 @@
+package com.skillhub.gateway.revocation;
+
+/**
+ * Immutable Bloom filter over strings, built once per replica snapshot. Uses double hashing of a
+ * 64-bit FNV-1a digest, so a lookup reads the key once and touches {@code k} words of the bit set.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    private BloomFilter(int bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.bits = new long[(bitCount + 63) >>> 6];
+    }
+
+    static BloomFilter create(Iterable<String> keys, int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        int m = (int) Math.max(64, Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        BloomFilter filter = new BloomFilter(m, k);
+        for (String key : keys) {
+            filter.add(key);
+        }
+        return filter;
+    }
+
+    boolean mightContain(String key) {
+        long hash = fnv1a64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String key) {
+        long hash = fnv1a64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int index = Math.floorMod(h1 + i * h2, bitCount);
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private static long fnv1a64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,14 @@
+package com.skillhub.gateway.revocation;
+
+import java.util.List;
+
+/**
+ * One page of auth-service's revocation feed; timestamps are epoch milliseconds. An entry either
+ * revokes all tokens of {@code userId} issued at or before {@code issuedBefore}, or the single
+ * token whose {@code jti} is {@code tokenId}.
+ */
+public record RevocationFeed(long serverTime, List<Entry> entries) {
+
+    public record Entry(String userId, String tokenId, Long issuedBefore, long expiresAt) {
+    }
+}
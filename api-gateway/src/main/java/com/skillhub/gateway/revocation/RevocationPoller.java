@@ -0,0 +1,108 @@
+package com.skillhub.gateway.revocation;
+
+import com.skillhub.gateway.config.RevocationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * Keeps {@link RevocationReplica} current by polling auth-service's incremental feed. A failed
+ * poll leaves the last good replica in place (fail-open) and is retried on the next tick; the
+ * staleness gauge shows how far behind the replica is. Without an API key every poll would be
+ * refused, so an enabled poller with none configured fails startup instead of failing open forever.
+ */
+@Component
+public class RevocationPoller implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationPoller.class);
+
+    static final String API_KEY_HEADER = "X-Internal-Api-Key";
+
+    private final RevocationProperties properties;
+    private final RevocationReplica replica;
+    private final WebClient webClient;
+    private final Counter failures;
+
+    private volatile Disposable subscription;
+    private volatile boolean healthy = true;
+
+    public RevocationPoller(RevocationProperties properties, RevocationReplica replica,
+                            WebClient.Builder webClientBuilder,
+                            ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                            MeterRegistry meterRegistry) {
+        if (properties.isEnabled() && !StringUtils.hasText(properties.getApiKey())) {
+            throw new IllegalStateException("gateway.revocation.api-key (INTERNAL_API_KEY) is empty, so auth-service "
+                    + "would refuse every revocation poll. Set it to auth-service's internal.api-key, "
+                    + "or set gateway.revocation.enabled=false.");
+        }
+        this.properties = properties;
+        this.replica = replica;
+        this.webClient = webClientBuilder.filter(loadBalancer).build();
+        this.failures = Counter.builder("gateway.revocation.poll.failures")
+                .description("Revocation feed polls that failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Off the parallel scheduler: the first poll creates the load balancer's child context, which blocks.
+        subscription = Flux.interval(Duration.ZERO, properties.getPollInterval(), Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    Mono<Void> poll() {
+        return webClient.get()
+                .uri(properties.getFeedUri() + "?since={since}", replica.nextSince())
+                .header(API_KEY_HEADER, properties.getApiKey())
+                .retrieve()
+                .bodyToMono(RevocationFeed.class)
+                .timeout(properties.getPollInterval())
+                .doOnNext(feed -> {
+                    replica.apply(feed, System.currentTimeMillis());
+                    if (!healthy) {
+                        logger.info("Revocation feed reachable again");
+                        healthy = true;
+                    }
+                })
+                .then()
+                .onErrorResume(error -> {
+                    failures.increment();
+                    if (healthy) {
+                        logger.warn("Cannot poll revocation feed {}: {}", properties.getFeedUri(), error.toString());
+                        healthy = false;
+                    }
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,139 @@
+package com.skillhub.gateway.revocation;
+
+import com.skillhub.gateway.config.RevocationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Local copy of auth-service's access-token revocations. Readers on the event loop see an
+ * immutable snapshot: a Bloom filter answers "definitely not revoked" for almost every request,
+ * and only filter hits consult the exact maps. The poller applies feed pages, which rebuilds the
+ * snapshot only when entries were added or expired.
+ */
+@Component
+public class RevocationReplica {
+
+    private final RevocationProperties properties;
+
+    // Exact state, owned by whichever thread calls apply(); readers never touch these.
+    private final Map<String, Long> userRevokedBefore = new HashMap<>();
+    private final Map<String, Long> userExpiresAt = new HashMap<>();
+    private final Map<String, Long> tokenExpiresAt = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long lastSyncMillis;
+    private long cursor;
+
+    public RevocationReplica(RevocationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("gateway.revocation.entries", this, replica -> replica.snapshot.size())
+                .description("Revocation entries held by the gateway replica")
+                .register(meterRegistry);
+        Gauge.builder("gateway.revocation.staleness", this,
+                        replica -> replica.lastSyncMillis == 0 ? Double.NaN
+                                : (System.currentTimeMillis() - replica.lastSyncMillis) / 1000.0)
+                .description("Seconds since the replica last synchronized with auth-service")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True when the token identified by these claims has been revoked. JWT {@code iat} has second
+     * precision, so a token issued in the same second as a user-wide revocation counts as revoked.
+     */
+    public boolean isRevoked(String userId, String tokenId, Date issuedAt) {
+        Snapshot current = snapshot;
+        if (current.isEmpty()) {
+            return false;
+        }
+        if (userId != null && current.users.mightContain(userId)) {
+            Long revokedBefore = current.userRevokedBefore.get(userId);
+            if (revokedBefore != null && (issuedAt == null || issuedAt.getTime() <= revokedBefore)) {
+                return true;
+            }
+        }
+        return tokenId != null
+                && current.tokens.mightContain(tokenId)
+                && current.revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Cursor for the next poll: the previous feed's server time minus the configured overlap,
+     * or 0 to request a full snapshot.
+     */
+    public synchronized long nextSince() {
+        return cursor == 0 ? 0 : Math.max(0, cursor - properties.getOverlap().toMillis());
+    }
+
+    public synchronized void apply(RevocationFeed feed, long nowMillis) {
+        boolean changed = false;
+        if (feed.entries() != null) {
+            for (RevocationFeed.Entry entry : feed.entries()) {
+                if (entry.expiresAt() <= nowMillis) {
+                    continue;
+                }
+                if (entry.tokenId() != null) {
+                    changed |= tokenExpiresAt.put(entry.tokenId(), entry.expiresAt()) == null;
+                }
+                if (entry.userId() != null && entry.issuedBefore() != null) {
+                    Long previous = userRevokedBefore.get(entry.userId());
+                    if (previous == null || previous < entry.issuedBefore()) {
+                        userRevokedBefore.put(entry.userId(), entry.issuedBefore());
+                        userExpiresAt.merge(entry.userId(), entry.expiresAt(), Math::max);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        changed |= prune(userExpiresAt, nowMillis, userRevokedBefore);
+        changed |= prune(tokenExpiresAt, nowMillis, null);
+
+        if (changed) {
+            snapshot = new Snapshot(
+                    BloomFilter.create(userRevokedBefore.keySet(), properties.getExpectedEntries(),
+                            properties.getFalsePositiveRate()),
+                    BloomFilter.create(tokenExpiresAt.keySet(), properties.getExpectedEntries(),
+                            properties.getFalsePositiveRate()),
+                    Map.copyOf(userRevokedBefore),
+                    Map.copyOf(tokenExpiresAt));
+        }
+        cursor = feed.serverTime();
+        lastSyncMillis = nowMillis;
+    }
+
+    private static boolean prune(Map<String, Long> expiries, long nowMillis, Map<String, Long> companion) {
+        boolean removed = false;
+        for (Iterator<Map.Entry<String, Long>> it = expiries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> entry = it.next();
+            if (entry.getValue() <= nowMillis) {
+                it.remove();
+                if (companion != null) {
+                    companion.remove(entry.getKey());
+                }
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private record Snapshot(BloomFilter users, BloomFilter tokens,
+                            Map<String, Long> userRevokedBefore, Map<String, Long> revokedTokens) {
+
+        static final Snapshot EMPTY = new Snapshot(null, null, Map.of(), Map.of());
+
+        boolean isEmpty() {
+            return userRevokedBefore.isEmpty() && revokedTokens.isEmpty();
+        }
+
+        int size() {
+            return userRevokedBefore.size() + revokedTokens.size();
+        }
+    }
+}
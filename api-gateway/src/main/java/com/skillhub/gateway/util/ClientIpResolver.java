@@ -0,0 +1,137 @@
+package com.skillhub.gateway.util;
+
+import com.skillhub.gateway.config.ClientIpProperties;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * The address of the client behind a request, used as the anonymous rate-limit key and in the access log.
+ *
+ * <p>The peer address is the client unless the peer is a trusted proxy. Then {@code X-Forwarded-For}
+ * is walked from the right, skipping the hops our own proxies appended, and the first untrusted hop
+ * is the client. Anything to its left was written by the client itself and is never used.
+ */
+@Component
+public class ClientIpResolver {
+
+    public static final String UNKNOWN = "Unknown";
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<Cidr> trustedProxies;
+
+    public ClientIpResolver(ClientIpProperties properties) {
+        this.trustedProxies = properties.getTrustedProxies().stream().map(Cidr::parse).toList();
+    }
+
+    public String resolve(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        InetAddress peer = remote != null ? remote.getAddress() : null;
+        if (peer == null) {
+            return UNKNOWN;
+        }
+        if (!isTrusted(peer)) {
+            return peer.getHostAddress();
+        }
+
+        List<String> headers = request.getHeaders().get(FORWARDED_FOR);
+        if (headers == null) {
+            return peer.getHostAddress();
+        }
+        String client = peer.getHostAddress();
+        for (int h = headers.size() - 1; h >= 0; h--) {
+            String header = headers.get(h);
+            int end = header.length();
+            while (end > 0) {
+                int comma = header.lastIndexOf(',', end - 1);
+                String hop = header.substring(comma + 1, end).trim();
+                end = comma;
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                InetAddress address = parseLiteral(hop);
+                if (address == null || !isTrusted(address)) {
+                    // Not one of our proxies: the closest hop we cannot vouch for is the client.
+                    return address != null ? address.getHostAddress() : hop;
+                }
+                client = address.getHostAddress();
+            }
+        }
+        // Every hop was a trusted proxy; the left-most one is the furthest we can see.
+        return client;
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an IP literal without ever resolving a host name, or returns null.
+     */
+    static InetAddress parseLiteral(String value) {
+        String literal = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+        if (literal.isEmpty()) {
+            return null;
+        }
+        if (literal.indexOf(':') < 0) {
+            // getByName would look up anything that is not a dotted IPv4 literal.
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                if (c != '.' && (c < '0' || c > '9')) {
+                    return null;
+                }
+            }
+        }
+        try {
+            return InetAddress.getByName(literal);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String value) {
+            int slash = value.indexOf('/');
+            InetAddress address = parseLiteral(slash < 0 ? value.trim() : value.substring(0, slash).trim());
+            if (address == null) {
+                throw new IllegalArgumentException("Trusted proxy must be an IP address or CIDR block: " + value);
+            }
+            int bits = address.getAddress().length * 8;
+            int prefixLength = slash < 0 ? bits : Integer.parseInt(value.substring(slash + 1).trim());
+            if (prefixLength < 0 || prefixLength > bits) {
+                throw new IllegalArgumentException("Invalid prefix length in trusted proxy: " + value);
+            }
+            return new Cidr(address.getAddress(), prefixLength);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+            int full = prefixLength / 8;
+            for (int i = 0; i < full; i++) {
+                if (bytes[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefixLength % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest);
+            return (bytes[full] & mask) == (network[full] & mask);
+        }
+    }
+}
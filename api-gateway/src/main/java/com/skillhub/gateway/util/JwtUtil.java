@@ -1,31 +1,254 @@
 package com.skillhub.gateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.skillhub.gateway.jwks.JwksKeyCache;
+import com.skillhub.gateway.jwks.UnknownSigningKeyException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
+    // ES256 against auth-service's published keys, HMAC only with a legacy secret; anything else
+    // (including "none") is rejected unparsed.
+    private static final String SIGNING_ALGORITHM = "ES256";
+    private static final Set<String> ACCEPTED_ALGORITHMS = Set.of(SIGNING_ALGORITHM, "HS256", "HS384", "HS512");
+
+    // The shortest signature (HS256) alone is 43 characters; anything much shorter cannot be one of our tokens.
+    private static final int MIN_TOKEN_LENGTH = 64;
+
+    // A JOSE header is a few dozen bytes; bound it so decoding stays trivial.
+    private static final int MAX_HEADER_LENGTH = 512;
+
+    // Legacy HMAC secret for tokens issued before auth-service signed with ES256; empty once they have expired.
+    @Value("${jwt.secret:}")
     private String secret;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.max-length:8192}")
+    private int maxTokenLength;
+
+    @Value("${jwt.deny-cache.max-size:10000}")
+    private long denyCacheMaxSize;
+
+    @Value("${jwt.deny-cache.ttl:60s}")
+    private Duration denyCacheTtl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwksKeyCache keyCache;
+
+    private JwtParser parser;
+
+    // Verified claims keyed by a SHA-256 digest of the token; each entry lives until the token's exp.
+    private Cache<String, Claims> claimsCache;
+
+    // Digests of tokens that recently failed verification, so replays are refused without crypto.
+    private Cache<String, Boolean> denyCache;
+
+    private Counter malformedRejections;
+    private Counter deniedRejections;
+    private Counter invalidRejections;
+    private Counter unknownKeyRejections;
+
+    @PostConstruct
+    void init() {
+        SecretKey legacyKey = secret.isEmpty() ? null : Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header, legacyKey);
+                    }
+                })
+                .build();
+
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ExpireAtTokenExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+
+        denyCache = Caffeine.newBuilder()
+                .maximumSize(denyCacheMaxSize)
+                .expireAfterWrite(denyCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, denyCache, "jwt.denied");
+
+        malformedRejections = rejectionCounter("malformed");
+        deniedRejections = rejectionCounter("denied");
+        invalidRejections = rejectionCounter("invalid");
+        unknownKeyRejections = rejectionCounter("unknown_key");
+    }
+
+    /**
+     * Returns the verified claims of a token, or {@code null} if the token is invalid, expired
+     * or lacks the {@code userId}/{@code role} claims. Malformed tokens are refused before any
+     * decoding of the payload, and tokens that failed verification recently are refused from the
+     * deny cache; the signature of a valid token is checked at most once until it expires.
+     * Tokens signed with a key the gateway has not fetched yet are refused but not deny-cached.
+     */
+    public Claims verify(String token) {
+        if (!isWellFormed(token, maxTokenLength)) {
+            malformedRejections.increment();
+            return null;
+        }
+
+        String digest = digest(token);
+        Claims cached = claimsCache.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        if (denyCache.getIfPresent(digest) != null) {
+            deniedRejections.increment();
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = verifySignatureAndClaims(token);
+        } catch (UnknownSigningKeyException e) {
+            unknownKeyRejections.increment();
+            return null;
+        }
+        if (claims == null) {
+            denyCache.put(digest, Boolean.TRUE);
+            invalidRejections.increment();
+            return null;
+        }
+
+        claimsCache.put(digest, claims);
+        return claims;
+    }
+
+    private Claims verifySignatureAndClaims(String token) {
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (UnknownSigningKeyException e) {
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration == null || !expiration.after(new Date())) {
+            return null;
+        }
+        if (claims.get("userId", String.class) == null || claims.get("role", String.class) == null) {
+            return null;
+        }
+        return claims;
+    }
+
+    private Key verificationKey(JwsHeader header, SecretKey legacyKey) {
+        String algorithm = header.getAlgorithm();
+        if (SIGNING_ALGORITHM.equals(algorithm)) {
+            Key key = keyCache.find(header.getKeyId());
+            if (key == null) {
+                throw new UnknownSigningKeyException(header.getKeyId());
+            }
+            return key;
+        }
+        if (legacyKey != null && algorithm != null && algorithm.startsWith("HS")) {
+            return legacyKey;
+        }
+        throw new UnsupportedJwtException("No verification key for " + algorithm + " tokens");
+    }
+
+    /**
+     * Structural check run before any cryptography: length bounds, exactly three non-empty
+     * base64url segments, and a decodable header naming an accepted {@code alg}.
+     */
+    static boolean isWellFormed(String token, int maxLength) {
+        if (token == null || token.length() < MIN_TOKEN_LENGTH || token.length() > maxLength) {
+            return false;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return false;
+                }
+            } else if (!isBase64Url(c)) {
+                return false;
+            }
+        }
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == token.length() - 1
+                || firstDot > MAX_HEADER_LENGTH) {
+            return false;
+        }
+
+        String header;
+        try {
+            header = new String(Base64.getUrlDecoder().decode(token.substring(0, firstDot)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        String alg = headerAlgorithm(header);
+        return alg != null && ACCEPTED_ALGORITHMS.contains(alg);
+    }
+
+    // Value of the "alg" member of a JOSE header, or null; a scan rather than a JSON parse.
+    private static String headerAlgorithm(String header) {
+        int key = header.indexOf("\"alg\"");
+        if (key < 0) {
+            return null;
+        }
+        int colon = header.indexOf(':', key + 5);
+        int open = colon < 0 ? -1 : header.indexOf('"', colon + 1);
+        int close = open < 0 ? -1 : header.indexOf('"', open + 1);
+        if (close < 0 || !header.substring(colon + 1, open).isBlank()) {
+            return null;
+        }
+        return header.substring(open + 1, close);
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String extractUserId(String token) {
@@ -45,17 +268,7 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            if (isTokenExpired(token)) {
-                return false;
-            }
-            String userId = claims.get("userId", String.class);
-            String role = claims.get("role", String.class);
-            return userId != null && role != null;
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     public String extractTokenFromHeader(String authHeader) {
@@ -64,4 +277,40 @@ public class JwtUtil {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("gateway.auth.rejected")
+                .description("Bearer tokens refused by the gateway, by where they were stopped")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ExpireAtTokenExpiration implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.skillhub.gateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    @Test
+    void freshnessPrefersSharedMaxAgeAndFallsBackToDefault() {
+        assertThat(ResponseCache.freshnessNanos(null, DEFAULT_TTL)).isEqualTo(DEFAULT_TTL.toNanos());
+        assertThat(ResponseCache.freshnessNanos(List.of("public"), DEFAULT_TTL)).isEqualTo(DEFAULT_TTL.toNanos());
+        assertThat(ResponseCache.freshnessNanos(List.of("public, max-age=60"), DEFAULT_TTL))
+                .isEqualTo(Duration.ofSeconds(60).toNanos());
+        assertThat(ResponseCache.freshnessNanos(List.of("max-age=60, s-maxage=5"), DEFAULT_TTL))
+                .isEqualTo(Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void privateNoStoreNoCacheAndZeroMaxAgeAreNotStored() {
+        assertThat(ResponseCache.freshnessNanos(List.of("private, max-age=60"), DEFAULT_TTL)).isZero();
+        assertThat(ResponseCache.freshnessNanos(List.of("no-store"), DEFAULT_TTL)).isZero();
+        assertThat(ResponseCache.freshnessNanos(List.of("No-Cache"), DEFAULT_TTL)).isZero();
+        assertThat(ResponseCache.freshnessNanos(List.of("max-age=0"), DEFAULT_TTL)).isZero();
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String etag = ResponseCache.etag("hello".getBytes());
+        HttpHeaders request = new HttpHeaders();
+        assertThat(ResponseCache.notModified(request, etag)).isFalse();
+
+        request.setIfNoneMatch(List.of("\"other\"", "W/" + etag));
+        assertThat(ResponseCache.notModified(request, etag)).isTrue();
+
+        request.setIfNoneMatch("*");
+        assertThat(ResponseCache.notModified(request, etag)).isTrue();
+    }
+
+    @Test
+    void entryMatchesOnlyRequestsWithTheSameVaryValues() {
+        CachedResponse entry = new CachedResponse(200, new HttpHeaders(), new byte[0], "\"x\"",
+                List.of("accept-language"), List.of("fr"), 0, DEFAULT_TTL.toNanos());
+
+        HttpHeaders french = new HttpHeaders();
+        french.set("Accept-Language", "fr");
+        HttpHeaders english = new HttpHeaders();
+        english.set("Accept-Language", "en");
+
+        assertThat(entry.matches(french)).isTrue();
+        assertThat(entry.matches(english)).isFalse();
+        assertThat(entry.matches(new HttpHeaders())).isFalse();
+    }
+}
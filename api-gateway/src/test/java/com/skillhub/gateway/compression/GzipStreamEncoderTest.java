@@ -0,0 +1,104 @@
+package com.skillhub.gateway.compression;
+
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipStreamEncoderTest {
+
+    private final DataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    void chunksDecodeToTheOriginalBody() throws IOException {
+        GzipStreamEncoder encoder = new GzipStreamEncoder(5);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        StringBuilder original = new StringBuilder();
+
+        for (int i = 0; i < 200; i++) {
+            String chunk = "{\"id\":" + i + ",\"title\":\"Senior Java Developer\",\"skills\":[\"java\",\"spring\"]},";
+            original.append(chunk);
+            drain(encoder.encode(factory.wrap(chunk.getBytes(StandardCharsets.UTF_8)), factory), compressed);
+        }
+        drain(encoder.finish(factory), compressed);
+        encoder.close();
+
+        assertThat(gunzip(compressed.toByteArray())).isEqualTo(original.toString());
+        assertThat(encoder.getBytesIn()).isEqualTo(original.length());
+        assertThat(encoder.getBytesOut()).isEqualTo(compressed.size()).isLessThan(original.length() / 4);
+    }
+
+    @Test
+    void emptyBodyIsStillAValidGzipStream() throws IOException {
+        GzipStreamEncoder encoder = new GzipStreamEncoder(5);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        drain(encoder.finish(factory), compressed);
+        encoder.close();
+
+        assertThat(gunzip(compressed.toByteArray())).isEmpty();
+    }
+
+    @Test
+    void eachChunkCanBeDecodedAsSoonAsItIsEncoded() throws DataFormatException {
+        GzipStreamEncoder encoder = new GzipStreamEncoder(5);
+        Inflater inflater = new Inflater(true);
+        byte[] decoded = new byte[1024];
+        boolean header = true;
+
+        for (int i = 0; i < 3; i++) {
+            String event = "data: {\"seq\":" + i + "}\n\n";
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            drain(encoder.encode(factory.wrap(event.getBytes(StandardCharsets.UTF_8)), factory), compressed);
+            byte[] bytes = compressed.toByteArray();
+            int offset = header ? 10 : 0;
+            header = false;
+
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            int n = inflater.inflate(decoded);
+            assertThat(new String(decoded, 0, n, StandardCharsets.UTF_8)).isEqualTo(event);
+        }
+        encoder.close();
+        inflater.end();
+    }
+
+    @Test
+    void encodeAfterCloseReleasesTheInputAndReturnsNothing() {
+        NettyDataBufferFactory nettyFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+        GzipStreamEncoder encoder = new GzipStreamEncoder(5);
+        assertThat(encoder.close()).isTrue();
+        assertThat(encoder.close()).isFalse();
+
+        NettyDataBuffer input = nettyFactory.wrap(Unpooled.copiedBuffer("late", StandardCharsets.UTF_8));
+        DataBuffer encoded = encoder.encode(input, nettyFactory);
+
+        assertThat(encoded.readableByteCount()).isZero();
+        assertThat(input.getNativeBuffer().refCnt()).isZero();
+        assertThat(encoder.finish(nettyFactory).readableByteCount()).isZero();
+    }
+
+    private static void drain(DataBuffer buffer, ByteArrayOutputStream out) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        out.writeBytes(bytes);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.skillhub.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks content negotiation and thresholds of the gateway's gzip filter against a stub downstream.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CompressionFilterIntegrationTest {
+
+    private static final String ITEM = "{\"title\":\"Backend engineer\",\"skills\":[\"java\",\"spring\",\"mongodb\"]},";
+
+    // Holds back the second server-sent event until the client has decoded the first.
+    private static final Sinks.Empty<Void> secondEvent = Sinks.empty();
+
+    private static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                String path = request.uri();
+                if (path.startsWith("/profiles/events")) {
+                    return response.header(HttpHeaders.CONTENT_TYPE, "text/event-stream")
+                            .sendString(Flux.concat(Mono.just("data: one\n\n"),
+                                    secondEvent.asMono().then(Mono.just("data: two\n\n")))).then();
+                }
+                if (path.startsWith("/profiles/small")) {
+                    return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.just("{}")).then();
+                }
+                if (path.startsWith("/profiles/png")) {
+                    return response.header(HttpHeaders.CONTENT_TYPE, "image/png")
+                            .sendString(Mono.just(ITEM.repeat(100))).then();
+                }
+                // Chunked, unknown length: several writes of one item each.
+                return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .sendString(Flux.range(0, 500).map(i -> ITEM)).then();
+            })
+            .bindNow();
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "profiles");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + stub.port());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/profiles/**");
+        registry.add("gateway.access-policy.public-routes.profiles[0]", () -> "GET /profiles/**");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        secondEvent.tryEmitEmpty();
+        stub.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void streamedJsonIsGzippedForClientsThatAcceptIt() throws IOException, InterruptedException {
+        Response response = get("/profiles/search", "br;q=1.0, gzip;q=0.8");
+
+        assertThat(response.headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gunzip(response.body)).isEqualTo(ITEM.repeat(500));
+        // Each of the stub's 500 writes is sync-flushed, costing a few bytes apiece on top of the deflate output.
+        assertThat(response.body.length).isLessThan(ITEM.length() * 500 / 5);
+
+        // Recorded when the encoded stream terminates, which can trail the client seeing the last byte.
+        Counter input = null;
+        for (int i = 0; i < 50 && input == null; i++) {
+            input = meterRegistry.find("gateway.compression.input.bytes").tag("route", "profiles").counter();
+            if (input == null) {
+                Thread.sleep(20);
+            }
+        }
+        assertThat(input).isNotNull();
+        assertThat(input.count()).isEqualTo(ITEM.length() * 500.0);
+    }
+
+    @Test
+    void eventStreamsAreGzippedOneEventAtATime() {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+        String firstEvent = client().get().uri("/profiles/events")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchangeToFlux(response -> {
+                    assertThat(response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+                            .isEqualTo("gzip");
+                    return response.bodyToFlux(DataBuffer.class);
+                })
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    received.writeBytes(bytes);
+                    return inflatePrefix(received.toByteArray());
+                })
+                .filter(decoded -> decoded.contains("data: one"))
+                .next()
+                .block(Duration.ofSeconds(5));
+        secondEvent.tryEmitEmpty();
+
+        assertThat(firstEvent).isEqualTo("data: one\n\n");
+    }
+
+    @Test
+    void identityIsSentWhenGzipIsNotAccepted() {
+        Response response = get("/profiles/search", "gzip;q=0, identity");
+
+        assertThat(response.headers.containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(response.headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(new String(response.body, StandardCharsets.UTF_8)).isEqualTo(ITEM.repeat(500));
+    }
+
+    @Test
+    void smallAndIncompressibleResponsesAreLeftAlone() {
+        assertThat(get("/profiles/small", "gzip").headers.containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(get("/profiles/png", "gzip").headers.containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void acceptEncodingNegotiation() {
+        assertThat(CompressionFilter.acceptsGzip(List.of("gzip, deflate, br"))).isTrue();
+        assertThat(CompressionFilter.acceptsGzip(List.of("*"))).isTrue();
+        assertThat(CompressionFilter.acceptsGzip(List.of("*;q=0.5, gzip;q=0"))).isFalse();
+        assertThat(CompressionFilter.acceptsGzip(List.of("br"))).isFalse();
+        assertThat(CompressionFilter.acceptsGzip(List.of())).isFalse();
+    }
+
+    private Response get(String path, String acceptEncoding) {
+        return client().get().uri(path)
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .map(body -> new Response(response.headers().asHttpHeaders(), body)))
+                .block();
+    }
+
+    private WebClient client() {
+        // The default connector enables transparent decompression, which would hide Content-Encoding.
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                .build();
+    }
+
+    /**
+     * Whatever the gzip stream received so far decodes to; GZIPInputStream would insist on the trailer.
+     */
+    private static String inflatePrefix(byte[] gzip) {
+        if (gzip.length <= 10) {
+            return "";
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(gzip, 10, gzip.length - 10);
+            byte[] decoded = new byte[4096];
+            int n = inflater.inflate(decoded);
+            return new String(decoded, 0, n, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private record Response(HttpHeaders headers, byte[] body) {
+    }
+}
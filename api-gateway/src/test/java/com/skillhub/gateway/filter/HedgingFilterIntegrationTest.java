@@ -0,0 +1,171 @@
+package com.skillhub.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives hedged and retried routes over pairs of in-process stub instances. Round-robin is used
+ * so that the slow and failing instances keep being chosen first.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HedgingFilterIntegrationTest {
+
+    private static final DisposableServer fast = stub(Duration.ZERO, 200, "fast");
+    private static final DisposableServer slow = stub(Duration.ofMillis(600), 200, "slow");
+    private static final DisposableServer healthy = stub(Duration.ZERO, 200, "healthy");
+    private static final DisposableServer failing = stub(Duration.ZERO, 503, "failing");
+
+    private static DisposableServer stub(Duration delay, int status, String name) {
+        return HttpServer.create()
+                .port(0)
+                .handle((request, response) -> Mono.delay(delay)
+                        .then(response.status(status).sendString(Mono.just(name)).then()))
+                .bindNow();
+    }
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("gateway.load-balancer.enabled", () -> "false");
+        registry.add("gateway.hedging.budget.min-per-second", () -> "100");
+
+        registry.add("spring.cloud.discovery.client.simple.instances.tail-service[0].uri", () -> uri(fast));
+        registry.add("spring.cloud.discovery.client.simple.instances.tail-service[1].uri", () -> uri(slow));
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "tail-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://tail-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/tail/**");
+        registry.add("gateway.access-policy.public-routes.tail-service[0]", () -> "* /tail/**");
+        registry.add("gateway.hedging.routes.tail-service.delay", () -> "50ms");
+        registry.add("gateway.hedging.routes.tail-service.retries", () -> "0");
+
+        registry.add("spring.cloud.discovery.client.simple.instances.flaky-service[0].uri", () -> uri(healthy));
+        registry.add("spring.cloud.discovery.client.simple.instances.flaky-service[1].uri", () -> uri(failing));
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "flaky-service");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> "lb://flaky-service");
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/flaky/**");
+        registry.add("gateway.access-policy.public-routes.flaky-service[0]", () -> "* /flaky/**");
+        registry.add("gateway.hedging.routes.flaky-service.hedge", () -> "false");
+        registry.add("gateway.hedging.routes.flaky-service.backoff", () -> "5ms");
+
+        // A hedge delay far above the failing instance's response time.
+        registry.add("spring.cloud.discovery.client.simple.instances.patient-service[0].uri", () -> uri(failing));
+        registry.add("spring.cloud.discovery.client.simple.instances.patient-service[1].uri", () -> uri(healthy));
+        registry.add("spring.cloud.gateway.routes[2].id", () -> "patient-service");
+        registry.add("spring.cloud.gateway.routes[2].uri", () -> "lb://patient-service");
+        registry.add("spring.cloud.gateway.routes[2].predicates[0]", () -> "Path=/patient/**");
+        registry.add("gateway.access-policy.public-routes.patient-service[0]", () -> "* /patient/**");
+        registry.add("gateway.hedging.routes.patient-service.delay", () -> "500ms");
+        registry.add("gateway.hedging.routes.patient-service.retries", () -> "0");
+
+        // Only instance is slow; the route's own response timeout is shorter than the hedging policy's.
+        registry.add("spring.cloud.discovery.client.simple.instances.timed-service[0].uri", () -> uri(slow));
+        registry.add("spring.cloud.gateway.routes[3].id", () -> "timed-service");
+        registry.add("spring.cloud.gateway.routes[3].uri", () -> "lb://timed-service");
+        registry.add("spring.cloud.gateway.routes[3].predicates[0]", () -> "Path=/timed/**");
+        registry.add("spring.cloud.gateway.routes[3].metadata.response-timeout", () -> "100");
+        registry.add("gateway.access-policy.public-routes.timed-service[0]", () -> "* /timed/**");
+        registry.add("gateway.hedging.routes.timed-service.hedge", () -> "false");
+        registry.add("gateway.hedging.routes.timed-service.retries", () -> "0");
+    }
+
+    private static String uri(DisposableServer server) {
+        return "http://localhost:" + server.port();
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        fast.disposeNow();
+        slow.disposeNow();
+        healthy.disposeNow();
+        failing.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void slowInstanceIsHedgedAndTheFasterResponseWins() {
+        for (int i = 0; i < 6; i++) {
+            long start = System.nanoTime();
+            ResponseEntity<String> response = get("/tail/profile");
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            assertThat(response.getBody()).isEqualTo("fast");
+            assertThat(elapsedMillis).isLessThan(450);
+        }
+
+        double hedges = count("gateway.hedging.hedges", "tail-service");
+        double wins = count("gateway.hedging.hedge.wins", "tail-service");
+        assertThat(wins).isGreaterThanOrEqualTo(3);
+        assertThat(hedges).isGreaterThanOrEqualTo(wins);
+    }
+
+    @Test
+    void failedAttemptsAreRetriedOnAnotherInstance() {
+        for (int i = 0; i < 6; i++) {
+            ResponseEntity<String> response = get("/flaky/profile");
+
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            assertThat(response.getBody()).isEqualTo("healthy");
+        }
+        assertThat(count("gateway.hedging.retries", "flaky-service")).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void aFailedFirstAttemptIsRetriedWithoutWaitingForTheHedgeDelay() {
+        // The route's first request also pays for creating its load balancer and connections.
+        get("/patient/profile");
+
+        for (int i = 0; i < 6; i++) {
+            long start = System.nanoTime();
+            ResponseEntity<String> response = get("/patient/profile");
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            assertThat(response.getBody()).isEqualTo("healthy");
+            assertThat(elapsedMillis).isLessThan(400);
+        }
+        assertThat(count("gateway.hedging.retries", "patient-service")).isGreaterThanOrEqualTo(3);
+        assertThat(count("gateway.hedging.hedges", "patient-service")).isZero();
+    }
+
+    @Test
+    void theRoutesResponseTimeoutAppliesToEachAttempt() {
+        long start = System.nanoTime();
+        ResponseEntity<String> response = get("/timed/profile");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(response.getStatusCode().value()).isEqualTo(504);
+        assertThat(elapsedMillis).isLessThan(450);
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return WebClient.create("http://localhost:" + port).get().uri(path)
+                .exchangeToMono(response -> response.toEntity(String.class))
+                .block();
+    }
+
+    private double count(String name, String route) {
+        return meterRegistry.get(name).tag("route", route).counter().count();
+    }
+}
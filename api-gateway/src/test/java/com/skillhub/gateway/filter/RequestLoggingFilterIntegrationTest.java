@@ -0,0 +1,83 @@
+package com.skillhub.gateway.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the trace context that reaches a stub downstream, which echoes the headers it received.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RequestLoggingFilterIntegrationTest {
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> response.sendString(Mono.just(
+                    request.requestHeaders().get(TRACEPARENT) + " "
+                            + request.requestHeaders().get(RequestLoggingFilter.CORRELATION_ID_HEADER))).then())
+            .bindNow();
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("management.tracing.sampling.probability", () -> "0");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "echo");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + stub.port());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/echo/**");
+        registry.add("gateway.access-policy.public-routes.echo[0]", () -> "* /echo/**");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void incomingTraceIsContinuedWithTheGatewayAsParent() {
+        String incoming = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+        String[] received = echo(incoming);
+        String[] forwarded = received[0].split("-");
+
+        assertThat(forwarded).hasSize(4);
+        assertThat(forwarded[1]).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(forwarded[2]).isNotEqualTo("00f067aa0ba902b7");
+        assertThat(forwarded[3]).as("the caller's sampled flag is not trusted by default").isEqualTo("00");
+        assertThat(received[1]).isEqualTo(forwarded[1]);
+    }
+
+    @Test
+    void requestsWithoutTraceStartANewOne() {
+        String[] first = echo(null)[0].split("-");
+        String[] second = echo("garbage")[0].split("-");
+
+        assertThat(first).hasSize(4);
+        assertThat(second).hasSize(4);
+        assertThat(first[1]).hasSize(32).isNotEqualTo(second[1]);
+    }
+
+    private String[] echo(String traceparent) {
+        return WebClient.create("http://localhost:" + port).get().uri("/echo/headers")
+                .headers(headers -> {
+                    if (traceparent != null) {
+                        headers.set(TRACEPARENT, traceparent);
+                    }
+                })
+                .retrieve().bodyToMono(String.class).block().split(" ");
+    }
+}
@@ -0,0 +1,170 @@
+package com.skillhub.gateway.filter;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the gateway against an in-process stub downstream to trip and recover route breakers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResilienceFilterIntegrationTest {
+
+    private static final AtomicBoolean failing = new AtomicBoolean();
+
+    private static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                if (request.uri().startsWith("/stream")) {
+                    // Headers and the first chunk at once, then the body trickles in over ~500ms.
+                    return response.sendString(Flux.concat(Mono.just("start"),
+                            Flux.interval(Duration.ofMillis(100)).take(5).map(i -> "chunk"))).then();
+                }
+                if (request.uri().startsWith("/slow")) {
+                    return Mono.delay(Duration.ofMillis(500)).then(response.sendString(Mono.just("slow")).then());
+                }
+                return failing.get()
+                        ? response.status(500).sendString(Mono.just("boom")).then()
+                        : response.sendString(Mono.just("ok")).then();
+            })
+            .bindNow();
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        String uri = "http://localhost:" + stub.port();
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "stub");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/stub/**");
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "slow");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> uri);
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/slow/**");
+        registry.add("spring.cloud.gateway.routes[2].id", () -> "stream");
+        registry.add("spring.cloud.gateway.routes[2].uri", () -> uri);
+        registry.add("spring.cloud.gateway.routes[2].predicates[0]", () -> "Path=/stream/**");
+        registry.add("gateway.access-policy.public-routes.stub[0]", () -> "* /stub/**");
+        registry.add("gateway.access-policy.public-routes.slow[0]", () -> "* /slow/**");
+        registry.add("gateway.access-policy.public-routes.stream[0]", () -> "* /stream/**");
+        registry.add("resilience4j.circuitbreaker.instances.stub.sliding-window-size", () -> "4");
+        registry.add("resilience4j.circuitbreaker.instances.stub.minimum-number-of-calls", () -> "4");
+        registry.add("resilience4j.circuitbreaker.instances.stub.wait-duration-in-open-state", () -> "300ms");
+        registry.add("resilience4j.circuitbreaker.instances.stub.permitted-number-of-calls-in-half-open-state", () -> "2");
+        registry.add("resilience4j.circuitbreaker.instances.stub.automatic-transition-from-open-to-half-open-enabled", () -> "false");
+        registry.add("resilience4j.bulkhead.instances.slow.max-concurrent-calls", () -> "1");
+        registry.add("resilience4j.circuitbreaker.instances.stream.slow-call-duration-threshold", () -> "300ms");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebClient.create("http://localhost:" + port);
+        failing.set(false);
+    }
+
+    @Test
+    void breakerOpensOnDownstreamErrorsAndRecoversThroughHalfOpen() throws InterruptedException {
+        failing.set(true);
+        for (int i = 0; i < 4; i++) {
+            assertThat(status("/stub/item")).isEqualTo(500);
+        }
+
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("stub");
+        awaitState(breaker, CircuitBreaker.State.OPEN);
+
+        String fallback = client.get().uri("/stub/item")
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode().value()).isEqualTo(503);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+        assertThat(fallback).contains("\"route\":\"stub\"");
+        assertThat(meterRegistry.get("gateway.resilience.rejected")
+                .tag("route", "stub").tag("reason", "circuit_open").counter().count()).isEqualTo(1.0);
+
+        failing.set(false);
+        Thread.sleep(400);
+        assertThat(status("/stub/item")).isEqualTo(200);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(status("/stub/item")).isEqualTo(200);
+        awaitState(breaker, CircuitBreaker.State.CLOSED);
+
+        assertThat(meterRegistry.get("gateway.circuitbreaker.transitions")
+                .tag("route", "stub").tag("to", "OPEN").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondConcurrencyLimit() {
+        List<Integer> statuses = Mono.zip(
+                        client.get().uri("/slow/a").exchangeToMono(r -> Mono.just(r.statusCode().value())),
+                        Mono.delay(Duration.ofMillis(100)).then(
+                                client.get().uri("/slow/b").exchangeToMono(r -> Mono.just(r.statusCode().value()))))
+                .map(tuple -> List.of(tuple.getT1(), tuple.getT2()))
+                .block();
+
+        assertThat(statuses).containsExactly(200, 503);
+    }
+
+    @Test
+    void streamedBodiesAreJudgedByTimeToFirstByte() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            String body = client.get().uri("/stream/file").retrieve().bodyToMono(String.class).block();
+            assertThat(body).startsWith("start").endsWith("chunk");
+        }
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker("stream").getMetrics();
+        for (int i = 0; i < 50 && metrics.getNumberOfBufferedCalls() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(2);
+        assertThat(metrics.getNumberOfSlowCalls()).isZero();
+    }
+
+    // The breaker records a call when the gateway's chain completes, which can trail the client's response.
+    private static void awaitState(CircuitBreaker breaker, CircuitBreaker.State state) throws InterruptedException {
+        for (int i = 0; i < 50 && breaker.getState() != state; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(breaker.getState()).isEqualTo(state);
+    }
+
+    private int status(String path) {
+        return client.get().uri(path)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block();
+    }
+}
@@ -0,0 +1,134 @@
+package com.skillhub.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the gateway's response cache against an in-process stub that counts downstream calls.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCacheFilterIntegrationTest {
+
+    private static final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    private static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                String path = request.uri();
+                calls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                if (path.startsWith("/catalog/private")) {
+                    return response.header(HttpHeaders.CACHE_CONTROL, "private").sendString(Mono.just("mine")).then();
+                }
+                if (path.startsWith("/catalog/slow")) {
+                    return Mono.delay(Duration.ofMillis(300))
+                            .then(response.sendString(Mono.just("slow-body")).then());
+                }
+                return response.header(HttpHeaders.CACHE_CONTROL, "public, max-age=60")
+                        .sendString(Mono.just("body of " + path)).then();
+            })
+            .bindNow();
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "catalog");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + stub.port());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/catalog/**");
+        registry.add("gateway.access-policy.public-routes.catalog[0]", () -> "GET /catalog/**");
+        registry.add("gateway.response-cache.routes[0]", () -> "catalog");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebClient client() {
+        return WebClient.create("http://localhost:" + port);
+    }
+
+    @Test
+    void secondRequestIsServedFromCacheAndRevalidatesWithEtag() {
+        Response first = get("/catalog/items?page=1", null);
+        Response second = get("/catalog/items?page=1", null);
+
+        assertThat(first.status).isEqualTo(200);
+        assertThat(first.headers.getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(second.headers.getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(second.body).isEqualTo(first.body).isEqualTo("body of /catalog/items?page=1");
+        assertThat(calls.get("/catalog/items?page=1")).hasValue(1);
+
+        String etag = second.headers.getETag();
+        assertThat(etag).isNotNull();
+        Response revalidated = get("/catalog/items?page=1", etag);
+        assertThat(revalidated.status).isEqualTo(304);
+        assertThat(revalidated.body).isNull();
+
+        assertThat(get("/catalog/items?page=2", null).headers.getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER))
+                .isEqualTo("MISS");
+    }
+
+    @Test
+    void privateResponsesAreNotCached() {
+        get("/catalog/private", null);
+        get("/catalog/private", null);
+
+        assertThat(calls.get("/catalog/private")).hasValue(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneDownstreamCall() {
+        List<String> bodies = Flux.range(0, 5)
+                .flatMap(i -> client().get().uri("/catalog/slow").retrieve().bodyToMono(String.class))
+                .collectList()
+                .block();
+
+        assertThat(bodies).hasSize(5).containsOnly("slow-body");
+        assertThat(calls.get("/catalog/slow")).hasValue(1);
+        assertThat(meterRegistry.get("gateway.response-cache.requests")
+                .tag("route", "catalog").tag("result", "coalesced").counter().count()).isEqualTo(4.0);
+    }
+
+    private Response get(String path, String ifNoneMatch) {
+        return client().get().uri(path)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .exchangeToMono(response -> response.bodyToMono(String.class)
+                        .map(body -> new Response(response.statusCode().value(), response.headers().asHttpHeaders(), body))
+                        .defaultIfEmpty(new Response(response.statusCode().value(), response.headers().asHttpHeaders(), null)))
+                .block();
+    }
+
+    private record Response(int status, HttpHeaders headers, String body) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.skillhub.gateway.hedging;
+
+import com.skillhub.gateway.config.HedgingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void retriesAreCappedAtTheDepositRatio() {
+        RetryBudget budget = new RetryBudget(budget(0.1, 0, 100), clock::get);
+
+        int allowed = 0;
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isBetween(9, 10);
+    }
+
+    @Test
+    void quietRoutesStillGetTheTimeBasedTrickle() {
+        RetryBudget budget = new RetryBudget(budget(0.1, 2, 100), clock::get);
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void balanceNeverExceedsMaxTokens() {
+        RetryBudget budget = new RetryBudget(budget(1.0, 10, 3), clock::get);
+        for (int i = 0; i < 50; i++) {
+            budget.deposit();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(budget.balance()).isEqualTo(3.0);
+    }
+
+    private static HedgingProperties.Budget budget(double ratio, double minPerSecond, double maxTokens) {
+        HedgingProperties.Budget budget = new HedgingProperties.Budget();
+        budget.setRatio(ratio);
+        budget.setMinPerSecond(minPerSecond);
+        budget.setMaxTokens(maxTokens);
+        return budget;
+    }
+}
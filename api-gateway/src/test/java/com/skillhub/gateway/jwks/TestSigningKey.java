@@ -0,0 +1,81 @@
+package com.skillhub.gateway.jwks;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An ES256 key pair standing in for one of auth-service's signing keys.
+ */
+public final class TestSigningKey {
+
+    private final String kid = UUID.randomUUID().toString();
+    private final KeyPair keyPair = generate();
+
+    public String kid() {
+        return kid;
+    }
+
+    public ECPublicKey publicKey() {
+        return (ECPublicKey) keyPair.getPublic();
+    }
+
+    public String sign(JwtBuilder builder) {
+        return sign(builder, kid);
+    }
+
+    // Signs with this key while naming another kid, as a forger would.
+    public String sign(JwtBuilder builder, String headerKid) {
+        return builder.header().keyId(headerKid).and()
+                .signWith(keyPair.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+    }
+
+    public JwkSet.Jwk jwk() {
+        return new JwkSet.Jwk("EC", "P-256", kid, "sig", "ES256",
+                coordinate(publicKey().getW().getAffineX()), coordinate(publicKey().getW().getAffineY()));
+    }
+
+    public static JwkSet jwkSet(TestSigningKey... keys) {
+        return new JwkSet(List.of(keys).stream().map(TestSigningKey::jwk).toList());
+    }
+
+    public static String jwkSetJson(TestSigningKey... keys) {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        for (int i = 0; i < keys.length; i++) {
+            JwkSet.Jwk jwk = keys[i].jwk();
+            json.append(i > 0 ? "," : "")
+                    .append("{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\",\"kid\":\"")
+                    .append(jwk.kid()).append("\",\"x\":\"").append(jwk.x())
+                    .append("\",\"y\":\"").append(jwk.y()).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] padded = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, padded, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.skillhub.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes an {@code lb://} service over three in-process stub instances, one of them slow, and
+ * checks that the balancer steers traffic away from it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LatencyAwareLoadBalancerIntegrationTest {
+
+    private static final List<AtomicInteger> hits = List.of(new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+
+    private static final List<DisposableServer> stubs = List.of(stub(0, Duration.ZERO), stub(1, Duration.ZERO),
+            stub(2, Duration.ofMillis(80)));
+
+    private static DisposableServer stub(int index, Duration delay) {
+        return HttpServer.create()
+                .port(0)
+                .handle((request, response) -> {
+                    hits.get(index).incrementAndGet();
+                    return Mono.delay(delay).then(response.sendString(Mono.just("instance " + index)).then());
+                })
+                .bindNow();
+    }
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        for (int i = 0; i < stubs.size(); i++) {
+            String uri = "http://localhost:" + stubs.get(i).port();
+            registry.add("spring.cloud.discovery.client.simple.instances.stub-service[" + i + "].uri", () -> uri);
+        }
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "stub-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://stub-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/stub/**");
+        registry.add("gateway.access-policy.public-routes.stub-service[0]", () -> "* /stub/**");
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.forEach(DisposableServer::disposeNow);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void slowInstanceReceivesLittleTraffic() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        int requests = 90;
+        for (int i = 0; i < requests; i++) {
+            String body = client.get().uri("/stub/ping").retrieve().bodyToMono(String.class).block();
+            assertThat(body).startsWith("instance ");
+        }
+
+        assertThat(hits.stream().mapToInt(AtomicInteger::get).sum()).isEqualTo(requests);
+        assertThat(hits.get(2).get()).isLessThan(requests / 10);
+        assertThat(hits.get(0).get()).isGreaterThan(requests / 4);
+        assertThat(hits.get(1).get()).isGreaterThan(requests / 4);
+
+        double slowSelections = meterRegistry.get("gateway.loadbalancer.selections")
+                .tag("service", "stub-service")
+                .tag("instance", "localhost:" + stubs.get(2).port())
+                .functionCounter().count();
+        assertThat(slowSelections).isEqualTo(hits.get(2).get());
+    }
+}
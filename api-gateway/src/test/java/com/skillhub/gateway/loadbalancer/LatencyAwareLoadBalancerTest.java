@@ -0,0 +1,127 @@
+package com.skillhub.gateway.loadbalancer;
+
+import com.skillhub.gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InstanceStatsRegistry registry;
+    private LatencyAwareLoadBalancer balancer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InstanceStatsRegistry(new LoadBalancerProperties(), meterRegistry, clock::get);
+        balancer = new LatencyAwareLoadBalancer(null, "profiles", registry);
+    }
+
+    @Test
+    void slowInstanceLosesEveryComparison() {
+        List<ServiceInstance> instances = instances(8081, 8082, 8083);
+        registry.statsFor("profiles", instances);
+        complete(8081, 5 * MS, false);
+        complete(8082, 5 * MS, false);
+        complete(8083, 200 * MS, false);
+
+        Map<Integer, Integer> counts = select(instances, 300);
+
+        assertThat(counts.getOrDefault(8083, 0)).isZero();
+        assertThat(counts.get(8081)).isBetween(100, 200);
+    }
+
+    @Test
+    void inFlightRequestsRaiseTheScore() {
+        List<ServiceInstance> instances = instances(8081, 8082);
+        List<InstanceStats> stats = registry.statsFor("profiles", instances);
+        complete(8081, 10 * MS, false);
+        complete(8082, 10 * MS, false);
+        for (int i = 0; i < 3; i++) {
+            registry.started(stats.get(0));
+        }
+
+        assertThat(select(instances, 50).get(8082)).isEqualTo(50);
+    }
+
+    @Test
+    void consecutiveFailuresEjectButNeverMoreThanTheConfiguredShare() {
+        List<ServiceInstance> instances = instances(8081, 8082);
+        registry.statsFor("profiles", instances);
+        for (int i = 0; i < 5; i++) {
+            complete(8081, MS, true);
+            complete(8082, MS, true);
+        }
+
+        List<InstanceStats> stats = registry.snapshot("profiles");
+        long ejected = stats.stream().filter(s -> s.isEjected(clock.get())).count();
+        assertThat(ejected).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.loadbalancer.ejections").tag("instance", "localhost:8081")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(select(instances, 50).get(8082)).isEqualTo(50);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThat(select(instances, 200).getOrDefault(8081, 0)).isPositive();
+    }
+
+    @Test
+    void lateInstancesSlowStartWhileInitialOnesDoNot() {
+        registry.statsFor("profiles", instances(8081, 8082));
+        List<InstanceStats> stats = registry.statsFor("profiles", instances(8081, 8082, 8083));
+
+        long now = clock.get();
+        assertThat(registry.score(stats.get(2), now)).isGreaterThan(registry.score(stats.get(0), now) * 5);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        now = clock.get();
+        assertThat(registry.score(stats.get(2), now)).isEqualTo(registry.score(stats.get(0), now));
+    }
+
+    @Test
+    void instancesThatLeaveDiscoveryAreForgottenWithTheirMeters() {
+        registry.statsFor("profiles", instances(8081, 8082));
+        registry.statsFor("profiles", instances(8081));
+
+        assertThat(registry.snapshot("profiles")).extracting(InstanceStats::getInstanceId)
+                .containsExactly("localhost:8081");
+        assertThat(meterRegistry.find("gateway.loadbalancer.score").tag("instance", "localhost:8082").gauge())
+                .isNull();
+    }
+
+    private void complete(int port, long latencyNanos, boolean failure) {
+        InstanceStats stats = registry.find("profiles", "localhost:" + port);
+        registry.started(stats);
+        registry.completed(stats, latencyNanos, failure);
+    }
+
+    private Map<Integer, Integer> select(List<ServiceInstance> instances, int times) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            ServiceInstance chosen = balancer.choose(instances).getServer();
+            counts.merge(chosen.getPort(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static List<ServiceInstance> instances(int... ports) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int port : ports) {
+            instances.add(new DefaultServiceInstance("profiles-" + port, "profiles", "localhost", port, false));
+        }
+        return instances;
+    }
+}
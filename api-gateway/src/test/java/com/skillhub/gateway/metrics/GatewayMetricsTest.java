@@ -0,0 +1,45 @@
+package com.skillhub.gateway.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GatewayMetrics metrics = new GatewayMetrics(registry, false);
+
+    @Test
+    void tagsRequestsByRouteMethodStatusClassAndAuthOutcome() {
+        metrics.recordRequest("user-profile-service", "GET", 200, "authenticated", TimeUnit.MILLISECONDS.toNanos(12));
+        metrics.recordRequest("user-profile-service", "GET", 204, "authenticated", TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.recordRequest("user-profile-service", "GET", 401, "invalid_token", TimeUnit.MILLISECONDS.toNanos(1));
+
+        Timer ok = registry.get("gateway.requests")
+                .tags("route", "user-profile-service", "method", "GET", "status", "2xx", "auth", "authenticated")
+                .timer();
+        assertThat(ok.count()).isEqualTo(2);
+        assertThat(Arrays.stream(ok.takeSnapshot().percentileValues()).map(ValueAtPercentile::percentile))
+                .containsExactly(0.5, 0.95, 0.99, 0.999);
+
+        assertThat(registry.get("gateway.requests").tag("status", "4xx").tag("auth", "invalid_token")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsAuthAndDownstreamTimeSeparately() {
+        metrics.recordAuth("authenticated", 50_000);
+        metrics.recordDownstream("auth-service", 503, TimeUnit.MILLISECONDS.toNanos(80));
+
+        assertThat(registry.get("gateway.auth.duration").tag("outcome", "authenticated").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("gateway.downstream.duration").tags("route", "auth-service", "status", "5xx")
+                .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(80.0);
+    }
+}
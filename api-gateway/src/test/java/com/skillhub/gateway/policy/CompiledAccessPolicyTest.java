@@ -0,0 +1,58 @@
+package com.skillhub.gateway.policy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledAccessPolicyTest {
+
+    private final CompiledAccessPolicy policy = CompiledAccessPolicy.compile(List.of(
+            "POST /api/auth/login",
+            "POST /api/auth/refresh-token",
+            "GET /api/courses/**",
+            "GET /api/profiles/*/completion",
+            "* /actuator/health"
+    ));
+
+    @Test
+    void matchesExactPathsOnlyForDeclaredMethod() {
+        assertThat(policy.isPublic(HttpMethod.POST, "/api/auth/login")).isTrue();
+        assertThat(policy.isPublic(HttpMethod.POST, "/api/auth/refresh-token")).isTrue();
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/auth/login")).isFalse();
+        assertThat(policy.isPublic(HttpMethod.POST, "/api/auth/logout")).isFalse();
+        assertThat(policy.isPublic(HttpMethod.POST, "/api/auth/login/extra")).isFalse();
+    }
+
+    @Test
+    void catchAllMatchesPrefixAndDescendants() {
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/courses")).isTrue();
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/courses/42/lessons")).isTrue();
+        assertThat(policy.isPublic(HttpMethod.POST, "/api/courses/42")).isFalse();
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/coursesx")).isFalse();
+    }
+
+    @Test
+    void singleSegmentWildcardMatchesExactlyOneSegment() {
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/profiles/abc/completion")).isTrue();
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/profiles//completion")).isFalse();
+        assertThat(policy.isPublic(HttpMethod.GET, "/api/profiles/a/b/completion")).isFalse();
+    }
+
+    @Test
+    void anyMethodRuleAppliesToEveryMethod() {
+        assertThat(policy.isPublic(HttpMethod.GET, "/actuator/health")).isTrue();
+        assertThat(policy.isPublic(HttpMethod.DELETE, "/actuator/health")).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        assertThatThrownBy(() -> CompiledAccessPolicy.compile(List.of("/api/auth/login")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledAccessPolicy.compile(List.of("GET /api/**/x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.skillhub.gateway.policy;
+
+import com.skillhub.gateway.jwks.TestSigningKey;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the configured routes against a stub auth-service and checks that its service-to-service
+ * endpoints cannot be reached through the gateway, even with a valid token.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class InternalEndpointsIntegrationTest {
+
+    private static final TestSigningKey SIGNING_KEY = new TestSigningKey();
+
+    private static final List<String> routed = new CopyOnWriteArrayList<>();
+
+    private static final DisposableServer authService = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                if (request.uri().startsWith("/.well-known/jwks.json")) {
+                    return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.just(TestSigningKey.jwkSetJson(SIGNING_KEY))).then();
+                }
+                routed.add(request.uri());
+                return response.sendString(Mono.just("ok")).then();
+            })
+            .bindNow();
+
+    @DynamicPropertySource
+    static void services(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("gateway.revocation.enabled", () -> "false");
+        registry.add("spring.cloud.discovery.client.simple.instances.auth-service[0].uri",
+                () -> "http://localhost:" + authService.port());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        authService.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void internalEndpointsAreNotRouted() {
+        String token = token();
+
+        assertThat(status(HttpMethod.GET, "/api/auth/internal/revocations?since=0", token)).isEqualTo(404);
+        assertThat(status(HttpMethod.GET, "/auth-service/internal/revocations?since=0", token)).isEqualTo(404);
+        assertThat(status(HttpMethod.GET, "/api/auth/internal/revocations", null)).isEqualTo(401);
+
+        assertThat(routed).noneMatch(uri -> uri.contains("internal"));
+    }
+
+    @Test
+    void theRestOfTheAuthRouteStillWorks() {
+        assertThat(status(HttpMethod.POST, "/api/auth/login", null)).isEqualTo(200);
+
+        assertThat(routed).contains("/login");
+    }
+
+    private int status(HttpMethod method, String path, String token) {
+        return WebClient.create("http://localhost:" + port).method(method).uri(path)
+                .headers(headers -> {
+                    if (token != null) {
+                        headers.setBearerAuth(token);
+                    }
+                })
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block();
+    }
+
+    private static String token() {
+        return SIGNING_KEY.sign(Jwts.builder()
+                .claim("userId", "user-1")
+                .claim("role", "USER")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.skillhub.gateway.policy;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Edits the public rules in an external config file, as an operator would, and reloads them with
+ * {@code POST /actuator/refresh}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RouteAccessPolicyRefreshIntegrationTest {
+
+    private static final Path CONFIG_DIR = Path.of("target", "access-policy-refresh");
+
+    private static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> response.sendString(Mono.just("ok")).then())
+            .bindNow();
+
+    static {
+        writeConfig("GET /echo/open");
+        // A system property, so the environment rebuilt by the refresh still reads the file.
+        System.setProperty("spring.config.additional-location", "optional:file:" + CONFIG_DIR.toAbsolutePath() + "/");
+    }
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("gateway.revocation.enabled", () -> "false");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "echo");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + stub.port());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/echo/**");
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "other");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> "http://localhost:" + stub.port());
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/other/**");
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        System.clearProperty("spring.config.additional-location");
+        stub.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void refreshReplacesTheRulesAndKeepsThemScopedToTheirRoute() {
+        assertThat(status("GET", "/echo/open")).isEqualTo(200);
+        assertThat(status("GET", "/echo/later")).isEqualTo(401);
+
+        writeConfig("GET /echo/later", "GET /other/**");
+        assertThat(status("POST", "/actuator/refresh")).isEqualTo(200);
+
+        assertThat(status("GET", "/echo/later")).isEqualTo(200);
+        assertThat(status("GET", "/echo/open")).isEqualTo(401);
+        assertThat(status("GET", "/other/x"))
+                .as("a rule listed under another route does not open this one")
+                .isEqualTo(401);
+    }
+
+    private int status(String method, String path) {
+        return WebClient.create("http://localhost:" + port).method(HttpMethod.valueOf(method))
+                .uri(path)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block();
+    }
+
+    private static void writeConfig(String... echoRules) {
+        StringBuilder yaml = new StringBuilder("gateway:\n  access-policy:\n    public-routes:\n      echo:\n");
+        for (String rule : echoRules) {
+            yaml.append("        - ").append(rule).append('\n');
+        }
+        try {
+            Files.createDirectories(CONFIG_DIR);
+            Files.writeString(CONFIG_DIR.resolve("application.yml"), yaml);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
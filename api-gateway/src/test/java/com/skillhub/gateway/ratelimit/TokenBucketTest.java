@@ -0,0 +1,52 @@
+package com.skillhub.gateway.ratelimit;
+
+import com.skillhub.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstUpToCapacityThenRejectsWithWaitTime() {
+        TokenBucket bucket = new TokenBucket(limit(3, 1), 100, Duration.ofMinutes(1));
+
+        assertThat(bucket.tryAcquire("10.0.0.1")).isZero();
+        assertThat(bucket.tryAcquire("10.0.0.1")).isZero();
+        assertThat(bucket.tryAcquire("10.0.0.1")).isZero();
+
+        long wait = bucket.tryAcquire("10.0.0.1");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void keepsClientsIndependent() {
+        TokenBucket bucket = new TokenBucket(limit(1, 1), 100, Duration.ofMinutes(1));
+
+        assertThat(bucket.tryAcquire("user-a")).isZero();
+        assertThat(bucket.tryAcquire("user-a")).isPositive();
+        assertThat(bucket.tryAcquire("user-b")).isZero();
+        assertThat(bucket.trackedClients()).isEqualTo(2);
+    }
+
+    @Test
+    void refillsAtConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(limit(1, 10), 100, Duration.ofMinutes(1));
+
+        assertThat(bucket.tryAcquire("10.0.0.1")).isZero();
+        assertThat(bucket.tryAcquire("10.0.0.1")).isPositive();
+
+        Thread.sleep(120);
+        assertThat(bucket.tryAcquire("10.0.0.1")).isZero();
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
@@ -0,0 +1,114 @@
+package com.skillhub.gateway.revocation;
+
+import com.skillhub.gateway.config.RevocationProperties;
+import com.skillhub.gateway.jwks.TestSigningKey;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the gateway against a stub auth-service feed and JWKS (resolved through the load balancer)
+ * and a stub downstream, and checks that revoked users are refused without any per-request call.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RevocationPollerIntegrationTest {
+
+    private static final TestSigningKey SIGNING_KEY = new TestSigningKey();
+    private static final String API_KEY = "test-internal-key";
+
+    private static final AtomicReference<String> seenApiKey = new AtomicReference<>();
+
+    private static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                if (request.uri().startsWith("/internal/revocations")) {
+                    seenApiKey.set(request.requestHeaders().get(RevocationPoller.API_KEY_HEADER));
+                    long now = System.currentTimeMillis();
+                    String feed = "{\"serverTime\":" + now + ",\"entries\":[{\"userId\":\"revoked-user\","
+                            + "\"issuedBefore\":" + (now + 60_000) + ",\"expiresAt\":" + (now + 120_000) + "}]}";
+                    return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.just(feed)).then();
+                }
+                if (request.uri().startsWith("/.well-known/jwks.json")) {
+                    return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.just(TestSigningKey.jwkSetJson(SIGNING_KEY))).then();
+                }
+                return response.sendString(Mono.just("secret data")).then();
+            })
+            .bindNow();
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        String uri = "http://localhost:" + stub.port();
+        registry.add("eureka.client.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("spring.cloud.discovery.client.simple.instances.auth-service[0].uri", () -> uri);
+        registry.add("gateway.revocation.poll-interval", () -> "200ms");
+        registry.add("gateway.revocation.api-key", () -> API_KEY);
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "secure");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/secure/**");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.disposeNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void revokedUserIsRefusedWhileOthersPassThrough() throws InterruptedException {
+        for (int i = 0; i < 50 && seenApiKey.get() == null; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(seenApiKey.get()).isEqualTo(API_KEY);
+        Thread.sleep(100);
+
+        assertThat(status(token("revoked-user"))).isEqualTo(401);
+        assertThat(status(token("active-user"))).isEqualTo(200);
+    }
+
+    @Test
+    void refusesToStartWithoutAnApiKey() {
+        RevocationProperties unconfigured = new RevocationProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertThatThrownBy(() -> new RevocationPoller(unconfigured, new RevocationReplica(unconfigured, meterRegistry),
+                WebClient.builder(), null, meterRegistry))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("INTERNAL_API_KEY");
+    }
+
+    private int status(String token) {
+        return WebClient.create("http://localhost:" + port).get().uri("/secure/data")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block();
+    }
+
+    private static String token(String userId) {
+        return SIGNING_KEY.sign(Jwts.builder()
+                .claim("userId", userId)
+                .claim("role", "USER")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.skillhub.gateway.revocation;
+
+import com.skillhub.gateway.config.RevocationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationReplicaTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final RevocationProperties properties = new RevocationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RevocationReplica replica = new RevocationReplica(properties, meterRegistry);
+
+    @Test
+    void userRevocationCoversTokensIssuedAtOrBeforeTheCutoff() {
+        replica.apply(feed(NOW, new RevocationFeed.Entry("user-1", null, NOW - 1_000, NOW + 60_000)), NOW);
+
+        assertThat(replica.isRevoked("user-1", null, new Date(NOW - 5_000))).isTrue();
+        assertThat(replica.isRevoked("user-1", null, new Date(NOW - 1_000))).isTrue();
+        assertThat(replica.isRevoked("user-1", null, new Date(NOW))).isFalse();
+        assertThat(replica.isRevoked("user-2", null, new Date(NOW - 5_000))).isFalse();
+        assertThat(meterRegistry.get("gateway.revocation.entries").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tokenRevocationMatchesOnlyThatJti() {
+        replica.apply(feed(NOW, new RevocationFeed.Entry(null, "jti-1", null, NOW + 60_000)), NOW);
+
+        assertThat(replica.isRevoked("user-1", "jti-1", new Date(NOW))).isTrue();
+        assertThat(replica.isRevoked("user-1", "jti-2", new Date(NOW))).isFalse();
+    }
+
+    @Test
+    void entriesAreDroppedOnceEveryCoveredTokenHasExpired() {
+        replica.apply(feed(NOW, new RevocationFeed.Entry("user-1", null, NOW, NOW + 1_000)), NOW);
+        assertThat(replica.isRevoked("user-1", null, new Date(NOW - 1))).isTrue();
+
+        replica.apply(feed(NOW + 2_000), NOW + 2_000);
+        assertThat(replica.isRevoked("user-1", null, new Date(NOW - 1))).isFalse();
+        assertThat(meterRegistry.get("gateway.revocation.entries").gauge().value()).isZero();
+    }
+
+    @Test
+    void replayedEntriesAreIdempotentAndCursorKeepsAnOverlap() {
+        assertThat(replica.nextSince()).isZero();
+
+        RevocationFeed.Entry entry = new RevocationFeed.Entry("user-1", null, NOW - 1_000, NOW + 60_000);
+        replica.apply(feed(NOW, entry), NOW);
+        replica.apply(feed(NOW + 5_000, entry), NOW + 5_000);
+
+        assertThat(replica.isRevoked("user-1", null, new Date(NOW - 2_000))).isTrue();
+        assertThat(replica.nextSince()).isEqualTo(NOW + 5_000 - properties.getOverlap().toMillis());
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegatives() {
+        List<String> keys = IntStream.range(0, 5_000).mapToObj(i -> "user-" + i).toList();
+        BloomFilter filter = BloomFilter.create(keys, 5_000, 0.01);
+
+        assertThat(keys).allMatch(filter::mightContain);
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other-" + i))
+                .count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    private static RevocationFeed feed(long serverTime, RevocationFeed.Entry... entries) {
+        return new RevocationFeed(serverTime, List.of(entries));
+    }
+}
@@ -0,0 +1,89 @@
+package com.skillhub.gateway.util;
+
+import com.skillhub.gateway.config.ClientIpProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver behindLoadBalancer = resolver("10.0.0.0/8", "2001:db8::/32");
+
+    @Test
+    void forwardedForIsIgnoredWithoutTrustedProxies() {
+        MockServerHttpRequest request = request("203.0.113.7", "198.51.100.1");
+
+        assertThat(resolver().resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void forwardedForIsIgnoredWhenThePeerIsNotATrustedProxy() {
+        MockServerHttpRequest request = request("203.0.113.7", "198.51.100.1");
+
+        assertThat(behindLoadBalancer.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void takesTheRightMostHopThatIsNotATrustedProxy() {
+        // The client claimed to be 198.51.100.1; our load balancer appended the address it saw.
+        MockServerHttpRequest request = request("10.0.0.5", "198.51.100.1, 203.0.113.7, 10.1.2.3");
+
+        assertThat(behindLoadBalancer.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void walksEveryHeaderLineFromTheLast() {
+        MockServerHttpRequest request = request("10.0.0.5", "198.51.100.1", "203.0.113.7", "10.1.2.3");
+
+        assertThat(behindLoadBalancer.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void fallsBackToTheLeftMostHopWhenAllAreTrusted() {
+        MockServerHttpRequest request = request("10.0.0.5", "10.9.9.9, 10.1.2.3");
+
+        assertThat(behindLoadBalancer.resolve(request)).isEqualTo("10.9.9.9");
+    }
+
+    @Test
+    void matchesIpv6Blocks() {
+        MockServerHttpRequest request = request("2001:db8::1", "[2001:db9::42]");
+
+        assertThat(behindLoadBalancer.resolve(request)).isEqualTo("2001:db9:0:0:0:0:0:42");
+    }
+
+    @Test
+    void neverResolvesHostNames() {
+        MockServerHttpRequest request = request("10.0.0.5", "localhost, 10.1.2.3");
+
+        assertThat(behindLoadBalancer.resolve(request)).isEqualTo("localhost");
+        assertThat(ClientIpResolver.parseLiteral("localhost")).isNull();
+        assertThat(ClientIpResolver.parseLiteral("dead.beef")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedProxyEntries() {
+        assertThatThrownBy(() -> resolver("proxy.internal")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> resolver("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ClientIpResolver resolver(String... trustedProxies) {
+        ClientIpProperties properties = new ClientIpProperties();
+        properties.setTrustedProxies(List.of(trustedProxies));
+        return new ClientIpResolver(properties);
+    }
+
+    private static MockServerHttpRequest request(String peer, String... forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/courses")
+                .remoteAddress(new InetSocketAddress(peer, 51234));
+        for (String value : forwardedFor) {
+            request.header("X-Forwarded-For", value);
+        }
+        return request.build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.skillhub.gateway.util;
+
+import com.skillhub.gateway.jwks.JwksKeyCache;
+import com.skillhub.gateway.jwks.TestSigningKey;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "skillhub2025secretkeyforsigningjwttokensthismustbelongandcomplex";
+
+    private final TestSigningKey signingKey = new TestSigningKey();
+
+    private JwtUtil jwtUtil;
+    private JwksKeyCache keyCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        keyCache = new JwksKeyCache(meterRegistry);
+        keyCache.apply(TestSigningKey.jwkSet(signingKey));
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "maxTokenLength", 8192);
+        ReflectionTestUtils.setField(jwtUtil, "denyCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "denyCacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "keyCache", keyCache);
+        jwtUtil.init();
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromCache() {
+        String token = token("user-1", "USER", 60_000);
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isSameAs(first);
+        assertThat(first.get("userId", String.class)).isEqualTo("user-1");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void verifiesLegacyHmacTokensOnlyWithASecret() {
+        String legacy = Jwts.builder()
+                .claim("userId", "user-1")
+                .claim("role", "USER")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertThat(jwtUtil.verify(legacy)).isNotNull();
+
+        ReflectionTestUtils.setField(jwtUtil, "secret", "");
+        jwtUtil.init();
+        assertThat(jwtUtil.verify(legacy)).isNull();
+        assertThat(jwtUtil.verify(token("user-1", "USER", 60_000))).isNotNull();
+    }
+
+    @Test
+    void unknownKeyIsNotDenyCachedAndVerifiesAfterRotation() {
+        TestSigningKey next = new TestSigningKey();
+        String token = next.sign(Jwts.builder()
+                .claim("userId", "user-1")
+                .claim("role", "USER")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)));
+
+        assertThat(jwtUtil.verify(token)).isNull();
+        assertThat(meterRegistry.get("gateway.auth.rejected").tag("reason", "unknown_key").counter().count())
+                .isEqualTo(1.0);
+
+        keyCache.apply(TestSigningKey.jwkSet(signingKey, next));
+        assertThat(jwtUtil.verify(token)).isNotNull();
+        assertThat(jwtUtil.verify(token("user-2", "USER", 60_000))).isNotNull();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKeyUnderAKnownKid() {
+        TestSigningKey impostor = new TestSigningKey();
+        String token = impostor.sign(Jwts.builder()
+                .claim("userId", "user-1")
+                .claim("role", "USER")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)), signingKey.kid());
+
+        assertThat(jwtUtil.verify(token)).isNull();
+        assertThat(meterRegistry.get("gateway.auth.rejected").tag("reason", "invalid").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        assertThat(jwtUtil.verify(token("user-1", "USER", -1_000))).isNull();
+    }
+
+    @Test
+    void rejectsTokenWithoutRole() {
+        String token = Jwts.builder()
+                .claim("userId", "user-1")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(jwtUtil.verify(token)).isNull();
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        String token = token("user-1", "USER", 60_000);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwtUtil.verify(tampered)).isNull();
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedTokensBeforeAnyCrypto() {
+        String valid = token("user-1", "USER", 60_000);
+        String unsignedHeader = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(JwtUtil.isWellFormed(valid, 8192)).isTrue();
+        assertThat(JwtUtil.isWellFormed(valid, 64)).isFalse();
+        assertThat(JwtUtil.isWellFormed("not-a-token", 8192)).isFalse();
+        assertThat(JwtUtil.isWellFormed(valid + ".extra", 8192)).isFalse();
+        assertThat(JwtUtil.isWellFormed(valid.replace('.', '+'), 8192)).isFalse();
+        assertThat(JwtUtil.isWellFormed(unsignedHeader + valid.substring(valid.indexOf('.')), 8192)).isFalse();
+
+        assertThat(jwtUtil.verify("a.b.c")).isNull();
+        assertThat(meterRegistry.get("gateway.auth.rejected").tag("reason", "malformed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void repeatedBadTokenIsRefusedFromTheDenyCache() {
+        String expired = token("user-1", "USER", -1_000);
+
+        assertThat(jwtUtil.verify(expired)).isNull();
+        assertThat(jwtUtil.verify(expired)).isNull();
+        assertThat(jwtUtil.verify(expired)).isNull();
+
+        assertThat(meterRegistry.get("gateway.auth.rejected").tag("reason", "invalid").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("gateway.auth.rejected").tag("reason", "denied").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    private String token(String userId, String role, long ttlMillis) {
+        return signingKey.sign(Jwts.builder()
+                .claim("userId", userId)
+                .claim("role", role)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + ttlMillis)));
+    }
+}
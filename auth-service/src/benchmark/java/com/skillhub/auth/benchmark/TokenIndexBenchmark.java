@@ -0,0 +1,223 @@
+package com.skillhub.auth.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.skillhub.auth.entity.RefreshToken;
+import com.skillhub.auth.entity.VerificationToken;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Latency of the token repository queries on large collections, with the indexes the entities
+ * declare versus a forced collection scan ({@code hint: {$natural: 1}}) over the same data.
+ * {@code --documents} refresh tokens and as many verification tokens are seeded into a scratch
+ * database (reused by later runs with the same size), each query shape is run {@code --lookups}
+ * times on its index and {@code --scan-lookups} times as a scan, and the result is written as
+ * JSON to {@code target/benchmarks/token-indexes-<commit>.json}, with the examined-document
+ * counts from {@code explain}. The database is dropped afterwards unless {@code --keep} is given.
+ */
+public final class TokenIndexBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int INSERT_BATCH = 10_000;
+
+    private record Shape(String query, String collection, Function<Integer, Document> filter) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        String uri = options.getOrDefault("uri", "mongodb://localhost:27017/skillhub_auth_benchmark");
+        int documents = Integer.parseInt(options.getOrDefault("documents", "1000000"));
+        int lookups = Integer.parseInt(options.getOrDefault("lookups", "2000"));
+        int scanLookups = Integer.parseInt(options.getOrDefault("scan-lookups", "20"));
+        String database = uri.substring(uri.lastIndexOf('/') + 1).split("\\?")[0];
+
+        try (MongoClient client = MongoClients.create(uri)) {
+            MongoTemplate template = new MongoTemplate(client, database);
+            seed(template, documents);
+
+            List<Shape> shapes = List.of(
+                    new Shape("RefreshTokenRepository.findById", "refresh_tokens",
+                            i -> new Document("_id", refreshToken(i))),
+                    new Shape("RefreshTokenRepository.deleteByUserId", "refresh_tokens",
+                            i -> new Document("userId", user(i))),
+                    new Shape("VerificationTokenRepository.findByTokenAndTypeAndUsedFalseAndExpiryDateAfter",
+                            "verification_tokens",
+                            i -> new Document("token", otp(i)).append("type", "EMAIL_VERIFICATION")
+                                    .append("used", false).append("expiryDate", new Document("$gt", new Date()))),
+                    new Shape("VerificationTokenRepository.findByUserIdAndType", "verification_tokens",
+                            i -> new Document("userId", user(i)).append("type", "PASSWORD_RESET")));
+
+            SplittableRandom random = new SplittableRandom(42);
+            List<Document> results = new ArrayList<>();
+            for (Shape shape : shapes) {
+                for (boolean scan : new boolean[] {false, true}) {
+                    Document result = measure(template, shape, scan, scan ? scanLookups : lookups, documents, random);
+                    results.add(result);
+                    System.out.printf("%-80s %-5s p50 %8d us  p99 %8d us  docsExamined %8d  plan %s%n",
+                            shape.query(), scan ? "scan" : "index", result.getLong("p50Micros"),
+                            result.getLong("p99Micros"), result.getLong("docsExamined"), result.getString("plan"));
+                }
+            }
+
+            Document report = new Document("documents", documents).append("commit", BenchmarkResults.commit())
+                    .append("results", results);
+            Path file = BenchmarkResults.file("token-indexes");
+            Files.writeString(file, report.toJson(JsonWriterSettings.builder()
+                    .outputMode(JsonMode.RELAXED).indent(true).build()), StandardCharsets.UTF_8);
+            System.out.println("-> " + file.toAbsolutePath());
+
+            if (!options.containsKey("keep")) {
+                client.getDatabase(database).drop();
+            }
+        }
+    }
+
+    private static Document measure(MongoTemplate template, Shape shape, boolean scan, int lookups, int documents,
+                                    SplittableRandom random) {
+        MongoCollection<Document> collection = template.getCollection(shape.collection());
+        Document hint = new Document("$natural", 1);
+        long[] micros = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            Document filter = shape.filter().apply(random.nextInt(documents));
+            long start = System.nanoTime();
+            if (scan) {
+                collection.find(filter).hint(hint).first();
+            } else {
+                collection.find(filter).first();
+            }
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+
+        Document command = new Document("find", shape.collection())
+                .append("filter", shape.filter().apply(random.nextInt(documents)))
+                .append("limit", 1);
+        if (scan) {
+            command.append("hint", hint);
+        }
+        Document explain = template.getDb().runCommand(new Document("explain", command)
+                .append("verbosity", "executionStats"));
+        Document stats = explain.get("executionStats", Document.class);
+
+        return new Document("query", shape.query())
+                .append("mode", scan ? "scan" : "index")
+                .append("lookups", lookups)
+                .append("p50Micros", micros[lookups / 2])
+                .append("p99Micros", micros[Math.min(lookups - 1, (int) (lookups * 0.99))])
+                .append("maxMicros", micros[lookups - 1])
+                .append("docsExamined", ((Number) stats.get("totalDocsExamined")).longValue())
+                .append("keysExamined", ((Number) stats.get("totalKeysExamined")).longValue())
+                .append("plan", planSummary(explain.get("queryPlanner", Document.class).get("winningPlan")));
+    }
+
+    private static void seed(MongoTemplate template, int documents) {
+        if (template.getCollection("refresh_tokens").estimatedDocumentCount() == documents
+                && template.getCollection("verification_tokens").estimatedDocumentCount() == documents) {
+            System.out.printf("Reusing %d seeded tokens per collection%n", documents);
+            return;
+        }
+        template.dropCollection(RefreshToken.class);
+        template.dropCollection(VerificationToken.class);
+
+        // The indexes the entities declare, as auto-index-creation would create them.
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entity : List.of(RefreshToken.class, VerificationToken.class)) {
+            resolver.resolveIndexFor(entity).forEach(index -> template.indexOps(entity).createIndex(index));
+        }
+
+        Date expiry = Date.from(Instant.now().plus(7, ChronoUnit.DAYS));
+        Date created = new Date();
+        long start = System.nanoTime();
+        insert(template.getCollection("refresh_tokens"), documents, i -> new Document("_id", refreshToken(i))
+                .append("verifierHash", refreshToken(i))
+                .append("userId", user(i))
+                .append("email", user(i) + "@example.com")
+                .append("roles", List.of("USER"))
+                .append("status", "ACTIVE")
+                .append("expiryDate", expiry)
+                .append("revoked", false)
+                .append("createdAt", created));
+        insert(template.getCollection("verification_tokens"), documents, i -> new Document("userId", user(i))
+                .append("token", i % 2 == 0 ? otp(i) : UUID.nameUUIDFromBytes(("reset-" + i).getBytes()).toString())
+                .append("type", i % 2 == 0 ? "EMAIL_VERIFICATION" : "PASSWORD_RESET")
+                .append("expiryDate", expiry)
+                .append("used", i % 3 == 0)
+                .append("createdAt", created));
+        System.out.printf("Seeded %d tokens per collection in %d s%n", documents,
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private static void insert(MongoCollection<Document> collection, int documents, Function<Integer, Document> document) {
+        List<Document> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < documents; i++) {
+            batch.add(document.apply(i));
+            if (batch.size() == INSERT_BATCH || i == documents - 1) {
+                collection.insertMany(batch, new InsertManyOptions().ordered(false));
+                batch.clear();
+            }
+        }
+    }
+
+    private static String refreshToken(int i) {
+        return UUID.nameUUIDFromBytes(("refresh-" + i).getBytes()).toString();
+    }
+
+    private static String otp(int i) {
+        return String.format("%06d", i % 1_000_000);
+    }
+
+    private static String user(int i) {
+        return "user-" + (i % USERS);
+    }
+
+    private static String planSummary(Object node) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            Object input = document.containsKey("queryPlan") ? document.get("queryPlan") : document.get("inputStage");
+            String here = stage == null ? "" : stage + (document.containsKey("indexName")
+                    ? "(" + document.get("indexName") + ")" : "");
+            String below = input == null ? "" : planSummary(input);
+            return here.isEmpty() ? below : below.isEmpty() ? here : here + " <- " + below;
+        }
+        return "";
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals),
+                    equals < 0 ? "" : arg.substring(equals + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,141 @@
+package com.skillhub.auth.config;
+
+import com.skillhub.auth.entity.RefreshToken;
+import com.skillhub.auth.entity.VerificationToken;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checks at startup that the token collections have the indexes their repository queries need,
+ * and that Mongo actually plans each query shape on its index rather than a collection scan.
+ * With {@code auth.mongo.index-verification=fail} a problem stops the application; with
+ * {@code warn} (the default) it is logged.
+ */
+@Slf4j
+@Component
+public class MongoIndexVerifier {
+
+    /**
+     * A repository query as Mongo sees it, with placeholder values, and the index it should use.
+     */
+    record QueryShape(String query, Class<?> entity, String index, Document filter) {
+    }
+
+    static final List<QueryShape> QUERY_SHAPES = List.of(
+            new QueryShape("VerificationTokenRepository.findByTokenAndTypeAndUsedFalseAndExpiryDateAfter",
+                    VerificationToken.class, "token_type_used_expiry",
+                    new Document("token", "000000").append("type", "EMAIL_VERIFICATION").append("used", false)
+                            .append("expiryDate", new Document("$gt", new Date(0)))),
+            new QueryShape("VerificationTokenRepository.findByUserIdAndType",
+                    VerificationToken.class, "user_type",
+                    new Document("userId", "").append("type", "PASSWORD_RESET")),
+            new QueryShape("VerificationTokenRepository.deleteByUserId",
+                    VerificationToken.class, "user_type",
+                    new Document("userId", "")),
+            new QueryShape("RefreshTokenRepository.deleteByUserId",
+                    RefreshToken.class, "user",
+                    new Document("userId", "")),
+            new QueryShape("TTL on verification_tokens.expiryDate",
+                    VerificationToken.class, "expiry_ttl", null),
+            new QueryShape("TTL on refresh_tokens.expiryDate",
+                    RefreshToken.class, "expiry_ttl", null));
+
+    private final MongoTemplate mongoTemplate;
+    private final String mode;
+
+    public MongoIndexVerifier(MongoTemplate mongoTemplate,
+                              @Value("${auth.mongo.index-verification:warn}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = mode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if ("off".equals(mode)) {
+            return;
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (QueryShape shape : QUERY_SHAPES) {
+            String collection = mongoTemplate.getCollectionName(shape.entity());
+            Optional<IndexInfo> index = mongoTemplate.indexOps(shape.entity()).getIndexInfo().stream()
+                    .filter(info -> info.getName().equals(shape.index()))
+                    .findFirst();
+            if (index.isEmpty()) {
+                problems.add(collection + " has no index '" + shape.index() + "' for " + shape.query());
+            } else if (shape.filter() == null) {
+                if (index.get().getExpireAfter().isEmpty()) {
+                    problems.add(collection + " index '" + shape.index() + "' is not a TTL index");
+                }
+            } else {
+                Document explain = mongoTemplate.getDb().runCommand(new Document("explain",
+                        new Document("find", collection).append("filter", shape.filter()))
+                        .append("verbosity", "queryPlanner"));
+                planProblem(explain, shape.index())
+                        .ifPresent(problem -> problems.add(shape.query() + ": " + problem));
+            }
+        }
+
+        if (problems.isEmpty()) {
+            log.info("Verified {} token query shapes against their indexes", QUERY_SHAPES.size());
+            return;
+        }
+        problems.forEach(problem -> log.warn("Mongo index check: {}", problem));
+        if ("fail".equals(mode)) {
+            throw new IllegalStateException("Mongo index verification failed: " + problems);
+        }
+    }
+
+    /**
+     * Inspects an explain result's winning plan (classic or slot-based engine layout) and
+     * describes why it does not use {@code index}, if it does not.
+     */
+    static Optional<String> planProblem(Document explain, String index) {
+        Object queryPlanner = explain.get("queryPlanner");
+        Object winningPlan = queryPlanner instanceof Document planner ? planner.get("winningPlan") : null;
+        if (winningPlan == null) {
+            return Optional.of("explain returned no winning plan");
+        }
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexNames = new ArrayList<>();
+        collect(winningPlan, stages, indexNames);
+        if (stages.contains("EOF")) {
+            // The collection does not exist yet; there is nothing to plan against.
+            return Optional.empty();
+        }
+        if (stages.contains("COLLSCAN")) {
+            return Optional.of("planned as a collection scan");
+        }
+        if (!indexNames.contains(index)) {
+            return Optional.of("planned on " + indexNames + " instead of '" + index + "'");
+        }
+        return Optional.empty();
+    }
+
+    private static void collect(Object node, List<String> stages, List<String> indexNames) {
+        if (node instanceof Map<?, ?> map) {
+            if (map.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (map.get("indexName") instanceof String indexName) {
+                indexNames.add(indexName);
+            }
+            map.values().forEach(value -> collect(value, stages, indexNames));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collect(value, stages, indexNames));
+        }
+    }
+}
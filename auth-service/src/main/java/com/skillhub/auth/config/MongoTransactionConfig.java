@@ -0,0 +1,22 @@
+package com.skillhub.auth.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Makes {@code @Transactional} service methods real Mongo transactions, so that e.g. a new user,
+ * its verification token and its outbox email commit together. Transactions need a replica set,
+ * so this is off unless {@code auth.mongo.transactions} is set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.mongo.transactions", havingValue = "true")
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
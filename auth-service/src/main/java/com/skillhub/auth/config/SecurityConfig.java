@@ -1,8 +1,13 @@
 package com.skillhub.auth.config;
 
+import com.skillhub.auth.security.CustomUserDetailsService;
 import com.skillhub.auth.security.JwtAuthenticationEntryPoint;
 import com.skillhub.auth.security.JwtAuthenticationFilter;
+import com.skillhub.auth.security.OffloadingPasswordEncoder;
+import com.skillhub.auth.security.PasswordEncoders;
+import com.skillhub.auth.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,8 +17,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -24,19 +27,29 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            PasswordHashingExecutor hashingExecutor,
+            @Value("${auth.password.encoding:argon2id}") String encodingId,
+            @Value("${auth.password.bcrypt.strength:12}") int bcryptStrength,
+            @Value("${auth.password.argon2.memory:19456}") int argon2Memory,
+            @Value("${auth.password.argon2.iterations:2}") int argon2Iterations,
+            @Value("${auth.password.argon2.parallelism:1}") int argon2Parallelism) {
+        return new OffloadingPasswordEncoder(
+                PasswordEncoders.delegating(encodingId, bcryptStrength, argon2Memory, argon2Iterations, argon2Parallelism),
+                hashingExecutor);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes passwords stored with an older algorithm or weaker parameters after a successful login.
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -63,6 +76,8 @@ public class SecurityConfig {
                                 "/api/auth/forgot-password",
                                 "/api/auth/reset-password",
                                 "/api/auth/refresh-token",
+                                "/internal/revocations",
+                                "/.well-known/jwks.json",
                                 "/actuator/**"
                         ).permitAll()
                         .anyRequest().authenticated()
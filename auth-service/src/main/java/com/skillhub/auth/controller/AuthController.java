@@ -3,7 +3,10 @@ package com.skillhub.auth.controller;
 import com.skillhub.auth.dto.request.*;
 import com.skillhub.auth.dto.response.AuthResponse;
 import com.skillhub.auth.dto.response.MessageResponse;
+import com.skillhub.auth.security.LoginBlockedException;
+import com.skillhub.auth.security.PasswordHashingRejectedException;
 import com.skillhub.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,16 +29,20 @@ public class AuthController {
         try {
             MessageResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = authService.login(request);
+            AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException | LoginBlockedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse(e.getMessage()));
         }
@@ -66,6 +73,8 @@ public class AuthController {
         try {
             MessageResponse response = authService.resetPassword(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -82,10 +91,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<MessageResponse> logout(Authentication authentication) {
+    public ResponseEntity<MessageResponse> logout(Authentication authentication,
+                                                  @RequestHeader("Authorization") String authHeader) {
         try {
-            String userId = authentication.getName();
-            MessageResponse response = authService.logout(userId);
+            String username = authentication.getName();
+            MessageResponse response = authService.logout(username, authHeader.substring(7));
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
@@ -0,0 +1,59 @@
+package com.skillhub.auth.controller;
+
+import com.skillhub.auth.dto.response.RevocationFeedResponse;
+import com.skillhub.auth.service.RevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Service-to-service endpoint polled by the API gateway to keep its revocation replica current.
+ * The gateway reaches it directly, and its {@code internal-endpoints} route answers 404 for
+ * {@code /api/auth/internal/**} so it is never forwarded from outside; every call must also carry
+ * the shared internal key.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/revocations")
+@RequiredArgsConstructor
+public class RevocationController {
+
+    private final RevocationService revocationService;
+
+    @Value("${internal.api-key:}")
+    private String internalApiKey;
+
+    @PostConstruct
+    void warnIfKeyMissing() {
+        if (internalApiKey.isEmpty()) {
+            log.warn("internal.api-key (INTERNAL_API_KEY) is not set: /internal/revocations refuses every call, "
+                    + "so the gateway cannot enforce logout or other revocations");
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<RevocationFeedResponse> changesSince(
+            @RequestHeader(value = "X-Internal-Api-Key", required = false) String apiKey,
+            @RequestParam(defaultValue = "0") long since) {
+        if (!authorized(apiKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(revocationService.changesSince(since));
+    }
+
+    private boolean authorized(String apiKey) {
+        if (internalApiKey.isEmpty() || apiKey == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                internalApiKey.getBytes(StandardCharsets.UTF_8),
+                apiKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,32 @@
+package com.skillhub.auth.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Incremental revocation feed polled by the API gateway. Timestamps are epoch milliseconds;
+ * {@code serverTime} is the cursor to send back (minus a small overlap) on the next poll.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationFeedResponse {
+
+    private long serverTime;
+
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String userId;
+        private String tokenId;
+        private Long issuedBefore;
+        private long expiresAt;
+    }
+}
@@ -0,0 +1,63 @@
+package com.skillhub.auth.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An email waiting in the outbox. Requests only insert these; the dispatcher claims due
+ * PENDING messages by pushing {@code nextAttemptAt} past a lease, so a dispatcher that dies
+ * mid-send leaves them to be claimed again. Templates are rendered at send time from
+ * {@code template} and {@code model}. Sent messages are removed at {@code expiresAt}; DEAD
+ * messages (attempts exhausted) stay for inspection. {@code traceparent} is the W3C trace context
+ * of the request that queued the message, so its send shows up in that request's trace.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "email_outbox")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class EmailOutboxMessage {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    @Id
+    private String id;
+
+    private String recipient;
+
+    private String template;
+
+    @Builder.Default
+    private Map<String, String> model = new HashMap<>();
+
+    @Builder.Default
+    private String status = PENDING;
+
+    @Builder.Default
+    private Integer attempts = 0;
+
+    private Instant nextAttemptAt;
+
+    private String lastError;
+
+    private String traceparent;
+
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
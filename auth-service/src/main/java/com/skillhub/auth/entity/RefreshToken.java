@@ -5,9 +5,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * One login session's refresh token family. Clients hold {@code selector.verifier}: the selector
+ * is the document id, and only a hash of the current verifier is stored. Each refresh replaces
+ * the verifier in place, so the family keeps its id and expiry; presenting a verifier that has
+ * already been replaced revokes the family. The account fields are copied at login so a refresh
+ * can issue an access token without reading the user.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,13 +25,31 @@ import java.time.LocalDateTime;
 @Document(collection = "refresh_tokens")
 public class RefreshToken {
 
+    // The selector.
     @Id
     private String id;
 
-    private String token;
+    private String verifierHash;
 
+    // Accepted without revoking the family for a short grace period after rotation, for
+    // clients that sent the same token twice concurrently.
+    private String previousVerifierHash;
+
+    private LocalDateTime rotatedAt;
+
+    // deleteByUserId (logout, password reset).
+    @Indexed(name = "user")
     private String userId;
 
+    private String email;
+
+    @Builder.Default
+    private Set<String> roles = new HashSet<>();
+
+    private String status;
+
+    // Mongo removes tokens once they have expired.
+    @Indexed(name = "expiry_ttl", expireAfter = "0s")
     private LocalDateTime expiryDate;
 
     @Builder.Default
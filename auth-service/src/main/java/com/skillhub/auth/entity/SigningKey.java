@@ -0,0 +1,39 @@
+package com.skillhub.auth.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * An ES256 key pair for signing access tokens, shared by all auth-service instances. The id is
+ * the JWS {@code kid}. Keys are used in {@code generation} order: each one signs from its
+ * {@code activatesAt} until its successor's, and stays published until the last token it signed
+ * has expired. Keys are stored as base64 X.509 (public) and PKCS#8 (private) encodings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "signing_keys")
+public class SigningKey {
+
+    @Id
+    private String id;
+
+    // Unique, so instances racing to create the same successor insert it only once.
+    @Indexed(unique = true)
+    private long generation;
+
+    private String publicKey;
+
+    private String privateKey;
+
+    private Instant activatesAt;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,42 @@
+package com.skillhub.auth.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * Revokes access tokens before their natural expiry. A user-wide entry revokes every token
+ * issued to {@code userId} at or before {@code issuedBefore}; a token entry revokes the single
+ * token whose {@code jti} is {@code tokenId}. Entries are useless once every token they cover
+ * has expired, so Mongo removes them at {@code expiresAt}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String tokenId;
+
+    private Instant issuedBefore;
+
+    private String reason;
+
+    // Feed cursor: consumers ask for entries created since their last poll.
+    @Indexed
+    private Instant createdAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
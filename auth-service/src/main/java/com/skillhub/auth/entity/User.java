@@ -43,6 +43,9 @@ public class User {
 
     private LocalDateTime lastLogin;
 
+    // Set after repeated failed logins; the account refuses logins until then.
+    private LocalDateTime lockedUntil;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
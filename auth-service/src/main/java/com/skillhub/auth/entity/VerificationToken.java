@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
@@ -13,6 +15,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "verification_tokens")
+// findByTokenAndTypeAndUsedFalseAndExpiryDateAfter: equality fields first, the expiry range last.
+@CompoundIndex(name = "token_type_used_expiry", def = "{'token': 1, 'type': 1, 'used': 1, 'expiryDate': 1}")
+// findByUserIdAndType and deleteByUserId (prefix).
+@CompoundIndex(name = "user_type", def = "{'userId': 1, 'type': 1}")
 public class VerificationToken {
 
     @Id
@@ -24,6 +30,8 @@ public class VerificationToken {
 
     private String type;
 
+    // Mongo removes tokens once they have expired.
+    @Indexed(name = "expiry_ttl", expireAfter = "0s")
     private LocalDateTime expiryDate;
 
     @Builder.Default
@@ -1,7 +1,10 @@
 package com.skillhub.auth.exception;
 
 import com.skillhub.auth.dto.response.MessageResponse;
+import com.skillhub.auth.security.LoginBlockedException;
+import com.skillhub.auth.security.PasswordHashingRejectedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -40,6 +43,25 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponse("Invalid email or password"));
     }
 
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<MessageResponse> handlePasswordHashingRejected(
+            PasswordHashingRejectedException ex) {
+
+        log.warn("Password hashing rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse("Service is busy, please retry shortly"));
+    }
+
+    @ExceptionHandler(LoginBlockedException.class)
+    public ResponseEntity<MessageResponse> handleLoginBlocked(LoginBlockedException ex) {
+
+        log.warn("Login blocked: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(new MessageResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<MessageResponse> handleRuntimeException(
             RuntimeException ex) {
@@ -0,0 +1,252 @@
+package com.skillhub.auth.mail;
+
+import com.skillhub.auth.entity.EmailOutboxMessage;
+import com.skillhub.auth.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends queued emails in batches. Each batch goes out over one SMTP connection
+ * ({@link JavaMailSender#send(SimpleMailMessage...)} connects once per call), and a failure only
+ * affects the messages it hit: they are retried with exponential backoff and jitter, and after
+ * {@code max-attempts} they are marked DEAD. Messages are claimed through a lease, so several
+ * instances can dispatch the same outbox.
+ *
+ * <p>Angus Mail holds the {@code SMTPTransport} monitor while it talks to the server, which on
+ * Java 21 pins a virtual thread to its carrier for the whole send. Sends therefore always run on
+ * a dedicated platform thread, whichever kind of thread the scheduler runs {@link #dispatch()} on.
+ *
+ * <p>Each message's send is a CLIENT span in the trace of the request that queued it (its stored
+ * {@code traceparent}), or of the dispatch run for messages queued outside a request. A batch
+ * shares one SMTP call, so its spans share its duration.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final Tracer tracer;
+    private final Propagator propagator;
+    private final String from;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration sentRetention;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    private final ExecutorService smtpExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("email-outbox-smtp").daemon().factory());
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 MeterRegistry meterRegistry,
+                                 Tracer tracer,
+                                 Propagator propagator,
+                                 @Value("${auth.mail.from:noreply@skillhub.com}") String from,
+                                 @Value("${auth.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${auth.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${auth.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${auth.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${auth.mail.outbox.lease:2m}") Duration lease,
+                                 @Value("${auth.mail.outbox.sent-retention:7d}") Duration sentRetention) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.tracer = tracer;
+        this.propagator = propagator;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.sentRetention = sentRetention;
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retried");
+        this.deadLettered = outcomeCounter(meterRegistry, "dead");
+    }
+
+    /**
+     * Drains the due messages, one batch after another while batches come back full.
+     */
+    @Scheduled(fixedDelayString = "${auth.mail.outbox.poll-interval:1000}")
+    public void dispatch() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    int dispatchBatch() {
+        List<EmailOutboxMessage> batch = outboxRepository.claimDue(batchSize, Instant.now(), lease);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<EmailOutboxMessage> messages = new ArrayList<>(batch.size());
+        List<SimpleMailMessage> mails = new ArrayList<>(batch.size());
+        for (EmailOutboxMessage message : batch) {
+            try {
+                mails.add(toMail(message));
+                messages.add(message);
+            } catch (IllegalArgumentException e) {
+                // Unknown template or missing variable: no retry can fix it.
+                deadLetter(message, e.toString());
+            }
+        }
+
+        List<Span> spans = new ArrayList<>(messages.size());
+        for (EmailOutboxMessage message : messages) {
+            spans.add(startSendSpan(message, messages.size()));
+        }
+        Map<Object, Exception> failures = send(mails);
+        Instant now = Instant.now();
+        for (int i = 0; i < messages.size(); i++) {
+            EmailOutboxMessage message = messages.get(i);
+            Exception failure = failures.get(mails.get(i));
+            endSendSpan(spans.get(i), failure);
+            if (failure == null) {
+                outboxRepository.markSent(message.getId(), now, now.plus(sentRetention));
+                sent.increment();
+            } else if (message.getAttempts() >= maxAttempts) {
+                deadLetter(message, failure.toString());
+            } else {
+                Instant nextAttemptAt = now.plus(backoff(message.getAttempts()));
+                outboxRepository.markRetry(message.getId(), truncate(failure.toString()), nextAttemptAt);
+                retried.increment();
+                log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), nextAttemptAt, failure.getMessage());
+            }
+        }
+        return batch.size();
+    }
+
+    // Messages that failed, by identity; empty when the whole batch was accepted.
+    private Map<Object, Exception> send(List<SimpleMailMessage> mails) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        if (mails.isEmpty()) {
+            return failures;
+        }
+        try {
+            sendOnPlatformThread(mails);
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                mails.forEach(mail -> failures.put(mail, e));
+            }
+        } catch (MailException e) {
+            mails.forEach(mail -> failures.put(mail, e));
+        }
+        return failures;
+    }
+
+    private void sendOnPlatformThread(List<SimpleMailMessage> mails) {
+        Future<?> send = smtpExecutor.submit(() -> mailSender.send(mails.toArray(SimpleMailMessage[]::new)));
+        try {
+            send.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            send.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while sending", e);
+        }
+    }
+
+    private Span startSendSpan(EmailOutboxMessage message, int batchSize) {
+        Span.Builder span = message.getTraceparent() != null
+                ? propagator.extract(Map.of(TRACEPARENT, message.getTraceparent()), Map::get)
+                : tracer.spanBuilder();
+        return span.name("smtp send")
+                .kind(Span.Kind.CLIENT)
+                .remoteServiceName("smtp")
+                .tag("email.template", message.getTemplate())
+                .tag("email.attempt", message.getAttempts())
+                .tag("smtp.batch.size", batchSize)
+                .start();
+    }
+
+    private static void endSendSpan(Span span, Exception failure) {
+        if (failure != null) {
+            span.error(failure);
+        }
+        span.end();
+    }
+
+    private SimpleMailMessage toMail(EmailOutboxMessage message) {
+        EmailTemplate template = EmailTemplate.valueOf(message.getTemplate());
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(from);
+        mail.setTo(message.getRecipient());
+        mail.setSubject(template.getSubject());
+        mail.setText(template.render(message.getModel() != null ? message.getModel() : Map.of()));
+        return mail;
+    }
+
+    private void deadLetter(EmailOutboxMessage message, String error) {
+        outboxRepository.markDead(message.getId(), truncate(error));
+        deadLettered.increment();
+        log.error("Email {} to {} dead-lettered after {} attempts: {}",
+                message.getId(), message.getRecipient(), message.getAttempts(), error);
+    }
+
+    // initial-backoff doubled per attempt, capped at max-backoff, then spread by +/-20%.
+    Duration backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+        long capped = Math.min(base <= 0 ? Long.MAX_VALUE : base, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        smtpExecutor.shutdownNow();
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.email.outbox")
+                .description("Outbox emails by the outcome of a send attempt")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.skillhub.auth.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The emails auth-service sends. Bodies use {@code {{name}}} placeholders and are split into
+ * literal and variable segments once, when the enum is initialised, so rendering is a single
+ * pass that appends segments.
+ */
+public enum EmailTemplate {
+
+    EMAIL_VERIFICATION("Verify Your Email - SkillHub", """
+            Welcome to SkillHub!
+
+            Your email verification code is: {{otp}}
+
+            This code expires in 10 minutes.
+
+            If you didn't create an account, please ignore this email.
+
+            Best regards,
+            SkillHub Team"""),
+
+    PASSWORD_RESET("Reset Your Password - SkillHub", """
+            Hello,
+
+            You requested to reset your password.
+
+            Click the link below to reset your password:
+            {{resetLink}}
+
+            This link expires in 1 hour.
+
+            If you didn't request this, please ignore this email.
+
+            Best regards,
+            SkillHub Team"""),
+
+    WELCOME("Welcome to SkillHub!", """
+            Welcome to SkillHub!
+
+            Your account has been successfully created.
+
+            Start exploring courses and job opportunities today!
+
+            Best regards,
+            SkillHub Team""");
+
+    private final String subject;
+
+    // Even indexes are literals, odd indexes are variable names.
+    private final String[] segments;
+    private final int literalLength;
+
+    EmailTemplate(String subject, String body) {
+        this.subject = subject;
+        this.segments = compile(body);
+        int length = 0;
+        for (int i = 0; i < segments.length; i += 2) {
+            length += segments[i].length();
+        }
+        this.literalLength = length;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String render(Map<String, String> model) {
+        StringBuilder body = new StringBuilder(literalLength + 64);
+        for (int i = 0; i < segments.length; i++) {
+            if (i % 2 == 0) {
+                body.append(segments[i]);
+            } else {
+                String value = model.get(segments[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException(name() + " needs a value for " + segments[i]);
+                }
+                body.append(value);
+            }
+        }
+        return body.toString();
+    }
+
+    private static String[] compile(String body) {
+        List<String> segments = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = body.indexOf("{{", position);
+            if (open < 0) {
+                segments.add(body.substring(position));
+                return segments.toArray(String[]::new);
+            }
+            int close = body.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed placeholder in template at " + open);
+            }
+            segments.add(body.substring(position, open));
+            segments.add(body.substring(open + 2, close));
+            position = close + 2;
+        }
+    }
+}
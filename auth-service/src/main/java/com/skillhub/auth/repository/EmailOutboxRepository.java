@@ -0,0 +1,11 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.EmailOutboxMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutboxMessage, String>, EmailOutboxRepositoryCustom {
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,22 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.EmailOutboxMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface EmailOutboxRepositoryCustom {
+
+    /**
+     * Atomically claims up to {@code limit} due PENDING messages, oldest first: each one's
+     * attempt count is incremented and its next attempt moved {@code lease} ahead, so other
+     * dispatchers skip it until the lease runs out.
+     */
+    List<EmailOutboxMessage> claimDue(int limit, Instant now, Duration lease);
+
+    void markSent(String id, Instant sentAt, Instant expiresAt);
+
+    void markRetry(String id, String error, Instant nextAttemptAt);
+
+    void markDead(String id, String error);
+}
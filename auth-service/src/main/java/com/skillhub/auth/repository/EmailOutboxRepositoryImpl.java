@@ -0,0 +1,71 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.EmailOutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class EmailOutboxRepositoryImpl implements EmailOutboxRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<EmailOutboxMessage> claimDue(int limit, Instant now, Duration lease) {
+        Query due = new Query(where("status").is(EmailOutboxMessage.PENDING).and("nextAttemptAt").lte(now))
+                .with(Sort.by("nextAttemptAt"));
+        Update claim = new Update()
+                .set("nextAttemptAt", now.plus(lease))
+                .inc("attempts", 1);
+
+        List<EmailOutboxMessage> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            EmailOutboxMessage message = mongoTemplate.findAndModify(
+                    due, claim, FindAndModifyOptions.options().returnNew(true), EmailOutboxMessage.class);
+            if (message == null) {
+                break;
+            }
+            claimed.add(message);
+        }
+        return claimed;
+    }
+
+    @Override
+    public void markSent(String id, Instant sentAt, Instant expiresAt) {
+        mongoTemplate.updateFirst(new Query(where("_id").is(id)),
+                new Update()
+                        .set("status", EmailOutboxMessage.SENT)
+                        .set("sentAt", sentAt)
+                        .set("expiresAt", expiresAt)
+                        .unset("lastError"),
+                EmailOutboxMessage.class);
+    }
+
+    @Override
+    public void markRetry(String id, String error, Instant nextAttemptAt) {
+        mongoTemplate.updateFirst(new Query(where("_id").is(id)),
+                new Update()
+                        .set("lastError", error)
+                        .set("nextAttemptAt", nextAttemptAt),
+                EmailOutboxMessage.class);
+    }
+
+    @Override
+    public void markDead(String id, String error) {
+        mongoTemplate.updateFirst(new Query(where("_id").is(id)),
+                new Update()
+                        .set("status", EmailOutboxMessage.DEAD)
+                        .set("lastError", error)
+                        .unset("nextAttemptAt"),
+                EmailOutboxMessage.class);
+    }
+}
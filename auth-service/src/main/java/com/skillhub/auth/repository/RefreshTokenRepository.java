@@ -3,14 +3,9 @@ package com.skillhub.auth.repository;
 import com.skillhub.auth.entity.RefreshToken;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
 
 @Repository
-public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
-
-    Optional<RefreshToken> findByToken(String token);
-
-    Optional<RefreshToken> findByUserId(String userId);
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
 
     void deleteByUserId(String userId);
-}
\ No newline at end of file
+}
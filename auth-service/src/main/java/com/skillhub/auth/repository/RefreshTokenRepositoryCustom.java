@@ -0,0 +1,16 @@
+package com.skillhub.auth.repository;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Replaces the verifier of token {@code selector} if it is still {@code currentHash} and the
+     * token is not revoked, in one conditional update on the primary key.
+     *
+     * @return false if another refresh rotated or revoked the token first
+     */
+    boolean rotate(String selector, String currentHash, String newHash, LocalDateTime rotatedAt);
+
+    void revoke(String selector);
+}
@@ -0,0 +1,34 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.RefreshToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean rotate(String selector, String currentHash, String newHash, LocalDateTime rotatedAt) {
+        return mongoTemplate.updateFirst(
+                new Query(where("_id").is(selector).and("verifierHash").is(currentHash).and("revoked").is(false)),
+                new Update()
+                        .set("verifierHash", newHash)
+                        .set("previousVerifierHash", currentHash)
+                        .set("rotatedAt", rotatedAt),
+                RefreshToken.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public void revoke(String selector) {
+        mongoTemplate.updateFirst(new Query(where("_id").is(selector)),
+                new Update().set("revoked", true),
+                RefreshToken.class);
+    }
+}
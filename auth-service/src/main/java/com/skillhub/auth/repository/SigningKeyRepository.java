@@ -0,0 +1,12 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.SigningKey;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends MongoRepository<SigningKey, String> {
+
+    List<SigningKey> findAllByOrderByGenerationAsc();
+}
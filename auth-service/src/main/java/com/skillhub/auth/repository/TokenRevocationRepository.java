@@ -0,0 +1,14 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.TokenRevocation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends MongoRepository<TokenRevocation, String> {
+
+    List<TokenRevocation> findByCreatedAtGreaterThanEqualAndExpiresAtAfterOrderByCreatedAtAsc(
+            Instant since, Instant now);
+}
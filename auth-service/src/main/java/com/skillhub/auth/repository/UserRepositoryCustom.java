@@ -0,0 +1,26 @@
+package com.skillhub.auth.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Sets {@code lastLogin} and clears {@code failedLoginAttempts} with one {@code $set},
+     * without reading or rewriting the rest of the document.
+     */
+    void recordLogin(String userId, LocalDateTime loginAt);
+
+    /**
+     * {@link #recordLogin} for many users in one unordered bulk write.
+     */
+    void recordLogins(Map<String, LocalDateTime> loginsByUserId);
+
+    /**
+     * Increments {@code failedLoginAttempts} with one {@code $inc}, also setting
+     * {@code lockedUntil} when {@code lockUntil} is not null. Matches nothing for unknown emails.
+     */
+    void recordFailedLogin(String email, LocalDateTime lockUntil);
+
+    void updatePassword(String userId, String password, LocalDateTime updatedAt);
+}
@@ -0,0 +1,61 @@
+package com.skillhub.auth.repository;
+
+import com.skillhub.auth.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void recordLogin(String userId, LocalDateTime loginAt) {
+        mongoTemplate.updateFirst(byId(userId), loginUpdate(loginAt), User.class);
+    }
+
+    @Override
+    public void recordLogins(Map<String, LocalDateTime> loginsByUserId) {
+        if (loginsByUserId.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        loginsByUserId.forEach((userId, loginAt) -> bulk.updateOne(byId(userId), loginUpdate(loginAt)));
+        bulk.execute();
+    }
+
+    @Override
+    public void recordFailedLogin(String email, LocalDateTime lockUntil) {
+        Update update = new Update().inc("failedLoginAttempts", 1);
+        if (lockUntil != null) {
+            update.set("lockedUntil", lockUntil);
+        }
+        mongoTemplate.updateFirst(new Query(where("email").is(email)), update, User.class);
+    }
+
+    @Override
+    public void updatePassword(String userId, String password, LocalDateTime updatedAt) {
+        mongoTemplate.updateFirst(byId(userId),
+                new Update()
+                        .set("password", password)
+                        .set("updatedAt", updatedAt),
+                User.class);
+    }
+
+    private static Query byId(String userId) {
+        return new Query(where("_id").is(userId));
+    }
+
+    private static Update loginUpdate(LocalDateTime loginAt) {
+        return new Update()
+                .set("lastLogin", loginAt)
+                .set("failedLoginAttempts", 0);
+    }
+}
@@ -4,7 +4,6 @@ import com.skillhub.auth.entity.VerificationToken;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,7 +17,5 @@ public interface VerificationTokenRepository extends MongoRepository<Verificatio
             LocalDateTime currentTime
     );
 
-    List<VerificationToken> findByExpiryDateBefore(LocalDateTime date);
-
     void deleteByUserId(String userId);
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.skillhub.auth.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The authenticated account as {@link CustomUserDetailsService} resolves it: the Spring Security
+ * view plus the id, status and role names that tokens carry, so a successful login can issue
+ * them without reading the user again.
+ */
+public class AccountUserDetails extends User {
+
+    private final String userId;
+    private final String status;
+    private final Set<String> roles;
+
+    public AccountUserDetails(String userId, String email, String password, Set<String> roles, String status,
+                              boolean accountLocked) {
+        super(email, password, true, true, true, !accountLocked, roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toList()));
+        this.userId = userId;
+        this.status = status;
+        this.roles = Set.copyOf(roles);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public AccountUserDetails withPassword(String password) {
+        return new AccountUserDetails(userId, getUsername(), password, roles, status, !isAccountNonLocked());
+    }
+}
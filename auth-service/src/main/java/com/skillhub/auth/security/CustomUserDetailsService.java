@@ -1,23 +1,97 @@
 package com.skillhub.auth.security;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.skillhub.auth.entity.User;
 import com.skillhub.auth.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Resolves users by email through a bounded cache. Only accounts that pass the checks below are
+ * cached, and concurrent misses for one email share a single query. Code that changes what a
+ * cached entry reflects (verification, password, lock state, roles) must call {@link #evict};
+ * the TTL bounds staleness for changes made by other instances or directly in Mongo.
+ *
+ * <p>The cache holds futures, and a miss runs its query on the calling thread after the future is
+ * installed. A loader passed to {@code Cache.get} would run inside a {@code ConcurrentHashMap}
+ * bin lock, which on Java 21 pins a virtual thread to its carrier for the whole query; waiting
+ * on a future does not.
+ */
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final AsyncCache<String, AccountUserDetails> cache;
 
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.user-details");
+    }
+
+    /**
+     * Returns a copy of the cached entry: the authentication manager erases the password of the
+     * principal it returns, which must not reach the cache.
+     */
+    @Override
+    public AccountUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CompletableFuture<AccountUserDetails> loading = new CompletableFuture<>();
+        CompletableFuture<AccountUserDetails> entry = cache.get(username, (email, executor) -> loading);
+        if (entry == loading) {
+            try {
+                loading.complete(load(username));
+            } catch (RuntimeException e) {
+                // Failed futures are dropped from the cache, so the next lookup queries again.
+                loading.completeExceptionally(e);
+            }
+        }
+
+        AccountUserDetails cached;
+        try {
+            cached = entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return cached.withPassword(cached.getPassword());
+    }
+
+    /**
+     * Stores a rehashed password after a login found the old hash outdated.
+     */
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AccountUserDetails account = (AccountUserDetails) user;
+        userRepository.updatePassword(account.getUserId(), newPassword, LocalDateTime.now());
+        evict(account.getUsername());
+        return account.withPassword(newPassword);
+    }
+
+    public void evict(String email) {
+        cache.synchronous().invalidate(email);
+    }
+
+    private AccountUserDetails load(String username) {
         User user = userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
@@ -29,20 +103,18 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new RuntimeException("Account is locked. Please contact support.");
         }
 
+        // Locked by this or another instance; answered like LoginAttemptService's own lock, with a Retry-After.
+        LocalDateTime now = LocalDateTime.now();
+        if (user.getLockedUntil() != null && user.getLockedUntil().isAfter(now)) {
+            throw new LoginBlockedException("Account is temporarily locked after repeated failed logins",
+                    Duration.between(now, user.getLockedUntil()));
+        }
+
         if (!"ACTIVE".equals(user.getStatus())) {
             throw new RuntimeException("Account is not active. Status: " + user.getStatus());
         }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .collect(Collectors.toList()))
-                .accountExpired(false)
-                .accountLocked(user.getAccountLocked())
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        return new AccountUserDetails(user.getId(), user.getEmail(), user.getPassword(), user.getRoles(),
+                user.getStatus(), user.getAccountLocked());
     }
 }
@@ -1,26 +1,49 @@
 package com.skillhub.auth.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates requests carrying a Bearer access token. In stateless mode
+ * ({@code jwt.stateless-authentication}) the principal is built from the verified claims alone;
+ * only paths listed in {@code jwt.fresh-account-paths}, and tokens issued without the account
+ * claims, are authenticated against the user as it is stored now.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final boolean statelessAuthentication;
+    private final List<String> freshAccountPaths;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   UserDetailsService userDetailsService,
+                                   @Value("${jwt.stateless-authentication:true}") boolean statelessAuthentication,
+                                   @Value("${jwt.fresh-account-paths:}") List<String> freshAccountPaths) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.statelessAuthentication = statelessAuthentication;
+        this.freshAccountPaths = freshAccountPaths;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -30,17 +53,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = extractJwtFromRequest(request);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseClaims(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+            if (claims != null) {
+                UsernamePasswordAuthenticationToken authentication = null;
+                if (statelessAuthentication && !needsFreshAccountState(request)) {
+                    authentication = authenticationFromClaims(claims);
+                }
+                if (authentication == null) {
+                    authentication = authenticationFromUserDetails(claims.getSubject());
+                }
 
                 authentication.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
@@ -55,6 +77,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Null for tokens issued before they carried account claims, or to an account that was not active,
+    // so the caller falls back to the account's current state in the database.
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(Claims claims) {
+        String userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class);
+        List<?> roles = claims.get(JwtTokenProvider.ROLES_CLAIM, List.class);
+        String status = claims.get(JwtTokenProvider.STATUS_CLAIM, String.class);
+        if (userId == null || roles == null || !"ACTIVE".equals(status)) {
+            return null;
+        }
+
+        List<String> roleNames = roles.stream().map(String::valueOf).toList();
+        JwtPrincipal principal = new JwtPrincipal(userId, claims.getSubject(), roleNames, status, claims.getId());
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                roleNames.stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                        .toList()
+        );
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromUserDetails(String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
+
+    private boolean needsFreshAccountState(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : freshAccountPaths) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
@@ -64,4 +126,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         return null;
     }
-}
\ No newline at end of file
+}
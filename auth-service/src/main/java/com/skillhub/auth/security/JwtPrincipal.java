@@ -0,0 +1,18 @@
+package com.skillhub.auth.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.List;
+
+/**
+ * The principal of a request authenticated from access-token claims alone. {@link #getName()}
+ * is the email, as it is for principals loaded from the database.
+ */
+public record JwtPrincipal(String userId, String email, List<String> roles, String status, String tokenId)
+        implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
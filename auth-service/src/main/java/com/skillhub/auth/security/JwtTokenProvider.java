@@ -1,82 +1,126 @@
 package com.skillhub.auth.security;
 
+import com.skillhub.auth.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
+/**
+ * Issues and verifies access tokens. A token is self-contained: besides {@code sub} (the email)
+ * it carries {@code userId}, {@code roles}, the primary {@code role} the gateway forwards,
+ * the account {@code status} and a {@code jti} that revocations can name. Tokens are signed
+ * with the current ES256 key of {@link SigningKeyManager} and name it in the {@code kid}
+ * header; HMAC tokens are only accepted while a legacy {@code jwt.secret} is configured.
+ */
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String ROLE_CLAIM = "role";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String STATUS_CLAIM = "status";
 
-    @Value("${jwt.access-token-expiration}")
-    private long jwtExpiration;
+    private final SigningKeyManager signingKeys;
+    private final SecretKey legacyKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public JwtTokenProvider(SigningKeyManager signingKeys,
+                            @Value("${jwt.secret:}") String legacySecret,
+                            @Value("${jwt.access-token-expiration}") long jwtExpiration) {
+        this.signingKeys = signingKeys;
+        this.legacyKey = legacySecret.isEmpty() ? null : Keys.hmacShaKeyFor(legacySecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header);
+                    }
+                })
+                .build();
+        this.jwtExpiration = jwtExpiration;
     }
 
-    public String generateToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+    public String generateToken(User user) {
+        return generateToken(user.getId(), user.getEmail(), user.getRoles(), user.getStatus());
+    }
 
-        return Jwts.builder()
-                .subject(userDetails.getUsername())
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+    public String generateToken(AccountUserDetails account) {
+        return generateToken(account.getUserId(), account.getUsername(), account.getRoles(), account.getStatus());
     }
 
-    public String generateTokenFromUsername(String username) {
+    public String generateToken(String userId, String email, Collection<String> userRoles, String status) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        List<String> roles = userRoles.stream().sorted().toList();
+        SigningKeyManager.Key key = signingKeys.signingKey();
 
         return Jwts.builder()
-                .subject(username)
+                .header().keyId(key.kid()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(email)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, roles.isEmpty() ? "USER" : roles.get(0))
+                .claim(ROLES_CLAIM, roles)
+                .claim(STATUS_CLAIM, status)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(key.privateKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature and expiry of a token and returns its claims, or {@code null} if
+     * the token is not valid.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return parser.parseSignedClaims(token).getPayload();
         } catch (SignatureException e) {
-            System.err.println("Invalid JWT signature: " + e.getMessage());
+            log.debug("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            log.debug("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            log.debug("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            log.debug("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            log.debug("JWT claims string is empty: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private Key verificationKey(JwsHeader header) {
+        String algorithm = header.getAlgorithm();
+        if (SigningKeyManager.ALGORITHM.equals(algorithm)) {
+            Key key = header.getKeyId() != null ? signingKeys.publicKey(header.getKeyId()) : null;
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+            }
+            return key;
+        }
+        if (legacyKey != null && algorithm != null && algorithm.startsWith("HS")) {
+            return legacyKey;
         }
-        return false;
+        throw new UnsupportedJwtException("Unsupported signature algorithm: " + algorithm);
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return parseClaims(token) != null;
     }
-}
\ No newline at end of file
+}
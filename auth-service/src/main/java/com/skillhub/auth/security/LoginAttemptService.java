@@ -0,0 +1,152 @@
+package com.skillhub.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skillhub.auth.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Tracks failed logins per account and per source address over a sliding window, and blocks
+ * logins before any password hash is computed once either reaches its limit. An account that
+ * reaches {@code max-account-failures} is locked for {@code lock-duration}: in memory here, and
+ * in the user document ({@code lockedUntil}) so that other instances refuse it once their cached
+ * copy is gone. Each failure is also counted in {@code failedLoginAttempts} with one {@code $inc}.
+ * Counters live in bounded caches, so a spray of addresses or emails cannot grow them unbounded.
+ */
+@Slf4j
+@Component
+public class LoginAttemptService {
+
+    private static final int WINDOW_BUCKETS = 15;
+
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final Clock clock;
+    private final int maxAccountFailures;
+    private final int maxAddressFailures;
+    private final Duration window;
+    private final Duration lockDuration;
+
+    private final Cache<String, SlidingWindowCounter> accountFailures;
+    private final Cache<String, SlidingWindowCounter> addressFailures;
+    private final Cache<String, Instant> lockedUntil;
+
+    private final Counter lockouts;
+    private final Counter blockedAccounts;
+    private final Counter blockedAddresses;
+
+    @Autowired
+    public LoginAttemptService(UserRepository userRepository,
+                               CustomUserDetailsService userDetailsService,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.login.lockout.max-account-failures:5}") int maxAccountFailures,
+                               @Value("${auth.login.lockout.max-address-failures:50}") int maxAddressFailures,
+                               @Value("${auth.login.lockout.window:15m}") Duration window,
+                               @Value("${auth.login.lockout.lock-duration:15m}") Duration lockDuration,
+                               @Value("${auth.login.lockout.max-tracked:100000}") long maxTracked) {
+        this(userRepository, userDetailsService, meterRegistry, maxAccountFailures, maxAddressFailures,
+                window, lockDuration, maxTracked, Clock.systemUTC());
+    }
+
+    LoginAttemptService(UserRepository userRepository,
+                        CustomUserDetailsService userDetailsService,
+                        MeterRegistry meterRegistry,
+                        int maxAccountFailures,
+                        int maxAddressFailures,
+                        Duration window,
+                        Duration lockDuration,
+                        long maxTracked,
+                        Clock clock) {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.clock = clock;
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxAddressFailures = maxAddressFailures;
+        this.window = window;
+        this.lockDuration = lockDuration;
+        this.accountFailures = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(window).build();
+        this.addressFailures = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(window).build();
+        this.lockedUntil = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterWrite(lockDuration).build();
+        this.lockouts = Counter.builder("auth.login.lockouts")
+                .description("Accounts locked after repeated failed logins")
+                .register(meterRegistry);
+        this.blockedAccounts = blockedCounter(meterRegistry, "account");
+        this.blockedAddresses = blockedCounter(meterRegistry, "address");
+    }
+
+    /**
+     * @throws LoginBlockedException if the account is locked or the address over its limit
+     */
+    public void checkAllowed(String email, String address) {
+        Instant now = clock.instant();
+        Instant until = lockedUntil.getIfPresent(accountKey(email));
+        if (until != null && until.isAfter(now)) {
+            blockedAccounts.increment();
+            throw new LoginBlockedException("Account is temporarily locked after repeated failed logins",
+                    Duration.between(now, until));
+        }
+
+        SlidingWindowCounter failures = address != null ? addressFailures.getIfPresent(address) : null;
+        if (failures != null && failures.sum(now.toEpochMilli()) >= maxAddressFailures) {
+            blockedAddresses.increment();
+            throw new LoginBlockedException("Too many failed logins, please retry later", window);
+        }
+    }
+
+    public void recordFailure(String email, String address) {
+        long now = clock.millis();
+        if (address != null) {
+            addressFailures.get(address, key -> newCounter()).increment(now);
+        }
+
+        long failures = accountFailures.get(accountKey(email), key -> newCounter()).increment(now);
+        LocalDateTime lockUntil = null;
+        if (failures >= maxAccountFailures) {
+            Instant until = clock.instant().plus(lockDuration);
+            lockedUntil.put(accountKey(email), until);
+            accountFailures.invalidate(accountKey(email));
+            lockUntil = LocalDateTime.ofInstant(until, ZoneId.systemDefault());
+            lockouts.increment();
+            log.warn("Locking {} until {} after {} failed logins", email, until, failures);
+        }
+
+        userRepository.recordFailedLogin(email, lockUntil);
+        if (lockUntil != null) {
+            userDetailsService.evict(email);
+        }
+    }
+
+    public void recordSuccess(String email) {
+        SlidingWindowCounter failures = accountFailures.getIfPresent(accountKey(email));
+        if (failures != null) {
+            failures.reset();
+        }
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(window.toMillis(), WINDOW_BUCKETS);
+    }
+
+    private static String accountKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter blockedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.login.blocked")
+                .description("Logins refused before checking the password")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
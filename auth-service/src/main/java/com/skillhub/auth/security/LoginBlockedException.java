@@ -0,0 +1,21 @@
+package com.skillhub.auth.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown before a login is checked when its account is temporarily locked or its source
+ * address has too many recent failures.
+ */
+public class LoginBlockedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginBlockedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
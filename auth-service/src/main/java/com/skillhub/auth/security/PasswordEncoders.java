@@ -0,0 +1,46 @@
+package com.skillhub.auth.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Builds the encoder for stored passwords. New hashes are prefixed with the id of the configured
+ * algorithm ({@code {argon2id}...}); hashes written before prefixes existed are plain BCrypt.
+ * {@link PasswordEncoder#upgradeEncoding} reports every hash that is not in the configured
+ * algorithm with at least the configured parameters, and the authentication provider rehashes
+ * those on the next successful login.
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2ID = "argon2id";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * @param argon2Memory Argon2id memory cost in KiB
+     */
+    public static PasswordEncoder delegating(String encodingId, int bcryptStrength,
+                                             int argon2Memory, int argon2Iterations, int argon2Parallelism) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                argon2Parallelism, argon2Memory, argon2Iterations);
+
+        Map<String, PasswordEncoder> encoders = Map.of(BCRYPT, bcrypt, ARGON2ID, argon2);
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalArgumentException("Unknown password encoding '" + encodingId
+                    + "', expected one of " + encoders.keySet());
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
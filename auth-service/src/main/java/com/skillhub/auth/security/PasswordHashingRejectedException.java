@@ -0,0 +1,12 @@
+package com.skillhub.auth.security;
+
+/**
+ * Thrown when a password hash cannot run because the hashing executor is saturated, so the
+ * request fails fast with 503 instead of queueing behind a login burst.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.skillhub.auth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Refresh tokens in {@code selector.verifier} form. Both parts are random; the selector names the
+ * stored token and the verifier proves possession. Verifiers carry 256 random bits, so an
+ * unsalted SHA-256 is enough to store them: there is nothing to brute-force.
+ */
+public final class RefreshTokens {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public record Parsed(String selector, String verifier) {
+    }
+
+    private RefreshTokens() {
+    }
+
+    public static String newSelector() {
+        return random(16);
+    }
+
+    public static String newVerifier() {
+        return random(32);
+    }
+
+    public static String format(String selector, String verifier) {
+        return selector + "." + verifier;
+    }
+
+    /**
+     * @return the two parts, or {@code null} if {@code token} is not a selector.verifier token
+     */
+    public static Parsed parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1 || token.indexOf('.', dot + 1) >= 0) {
+            return null;
+        }
+        return new Parsed(token.substring(0, dot), token.substring(dot + 1));
+    }
+
+    public static String hash(String verifier) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(verifier.getBytes(StandardCharsets.US_ASCII));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Constant-time comparison of two stored-form hashes.
+     */
+    public static boolean hashesEqual(String a, String b) {
+        return a != null && b != null
+                && MessageDigest.isEqual(a.getBytes(StandardCharsets.US_ASCII), b.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String random(int bytes) {
+        byte[] value = new byte[bytes];
+        RANDOM.nextBytes(value);
+        return ENCODER.encodeToString(value);
+    }
+}
@@ -0,0 +1,212 @@
+package com.skillhub.auth.security;
+
+import com.skillhub.auth.entity.SigningKey;
+import com.skillhub.auth.repository.SigningKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the ES256 signing keys in {@code signing_keys} and the JWKS built from them. Every
+ * {@code jwt.signing.rotation-interval} a successor is created {@code jwt.signing.publish-ahead}
+ * before it starts signing, so verifiers have fetched it by the time tokens carry its kid; the
+ * key it replaces stays published for one access-token lifetime. All instances run the same
+ * check, and the unique generation makes concurrent rotations insert a successor only once.
+ */
+@Slf4j
+@Component
+public class SigningKeyManager {
+
+    public static final String ALGORITHM = "ES256";
+
+    private final SigningKeyRepository repository;
+    private final Duration rotationInterval;
+    private final Duration publishAhead;
+    private final Duration tokenLifetime;
+    private final Clock clock;
+
+    private volatile List<Key> keys = List.of();
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+
+    @Autowired
+    public SigningKeyManager(SigningKeyRepository repository,
+                             @Value("${jwt.signing.rotation-interval:30d}") Duration rotationInterval,
+                             @Value("${jwt.signing.publish-ahead:1h}") Duration publishAhead,
+                             @Value("${jwt.access-token-expiration}") long accessTokenExpiration) {
+        this(repository, rotationInterval, publishAhead, Duration.ofMillis(accessTokenExpiration), Clock.systemUTC());
+    }
+
+    SigningKeyManager(SigningKeyRepository repository, Duration rotationInterval, Duration publishAhead,
+                      Duration tokenLifetime, Clock clock) {
+        this.repository = repository;
+        this.rotationInterval = rotationInterval;
+        this.publishAhead = publishAhead;
+        this.tokenLifetime = tokenLifetime;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    /**
+     * The key that signs tokens now: the latest one whose activation time has passed.
+     */
+    public Key signingKey() {
+        List<Key> current = keys;
+        Instant now = clock.instant();
+        for (int i = current.size() - 1; i > 0; i--) {
+            if (!current.get(i).activatesAt().isAfter(now)) {
+                return current.get(i);
+            }
+        }
+        return current.get(0);
+    }
+
+    public ECPublicKey publicKey(String kid) {
+        for (Key key : keys) {
+            if (key.kid().equals(kid)) {
+                return key.publicKey();
+            }
+        }
+        return null;
+    }
+
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    /**
+     * Creates the first key or the next successor when due, drops keys whose tokens have all
+     * expired, and reloads the key set.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.check-interval:60000}", initialDelayString = "${jwt.signing.check-interval:60000}")
+    public void refresh() {
+        Instant now = clock.instant();
+        List<SigningKey> stored = repository.findAllByOrderByGenerationAsc();
+
+        if (stored.isEmpty()) {
+            insert(0, now, now);
+            stored = repository.findAllByOrderByGenerationAsc();
+        }
+        SigningKey latest = stored.get(stored.size() - 1);
+        Instant successorDue = latest.getActivatesAt().plus(rotationInterval);
+        if (!successorDue.minus(publishAhead).isAfter(now)) {
+            Instant activatesAt = successorDue.isAfter(now.plus(publishAhead)) ? successorDue : now.plus(publishAhead);
+            insert(latest.getGeneration() + 1, activatesAt, now);
+            stored = repository.findAllByOrderByGenerationAsc();
+        }
+
+        List<Key> live = new ArrayList<>();
+        for (int i = 0; i < stored.size(); i++) {
+            SigningKey key = stored.get(i);
+            // A key stops signing when its successor activates; its tokens are gone one lifetime later.
+            boolean expired = i + 1 < stored.size()
+                    && !stored.get(i + 1).getActivatesAt().plus(tokenLifetime).isAfter(now);
+            if (expired) {
+                repository.deleteById(key.getId());
+                log.info("Removed signing key {} (generation {})", key.getId(), key.getGeneration());
+            } else {
+                live.add(decode(key));
+            }
+        }
+
+        keys = List.copyOf(live);
+        jwks = Map.of("keys", live.stream().map(SigningKeyManager::toJwk).toList());
+    }
+
+    private void insert(long generation, Instant activatesAt, Instant now) {
+        KeyPair pair = generateKeyPair();
+        SigningKey key = SigningKey.builder()
+                .id(UUID.randomUUID().toString())
+                .generation(generation)
+                .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                .privateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()))
+                .activatesAt(activatesAt)
+                .createdAt(now)
+                .build();
+        try {
+            repository.insert(key);
+            log.info("Created signing key {} (generation {}), signing from {}", key.getId(), generation, activatesAt);
+        } catch (DuplicateKeyException e) {
+            log.debug("Signing key generation {} was created by another instance", generation);
+        }
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate P-256 key pair", e);
+        }
+    }
+
+    private static Key decode(SigningKey key) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            ECPublicKey publicKey = (ECPublicKey) factory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            PrivateKey privateKey = factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.getPrivateKey())));
+            return new Key(key.getId(), key.getActivatesAt(), privateKey, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot decode signing key " + key.getId(), e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(Key key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+        jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+        return jwk;
+    }
+
+    // RFC 7518: the unsigned big-endian coordinate, left-padded to the 32-byte field size.
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] padded = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, padded, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    public record Key(String kid, Instant activatesAt, PrivateKey privateKey, ECPublicKey publicKey) {
+
+        @Override
+        public String toString() {
+            return "Key[kid=" + kid + ", activatesAt=" + activatesAt + "]";
+        }
+    }
+}
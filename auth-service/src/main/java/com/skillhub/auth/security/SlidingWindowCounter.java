@@ -0,0 +1,57 @@
+package com.skillhub.auth.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events over a sliding window split into buckets. Each bucket packs the time slot it
+ * belongs to and its count into one long, so a bucket that has rolled over is reset and
+ * incremented by the same CAS and concurrent updates never lock.
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long bucketMillis;
+    private final AtomicLongArray buckets;
+
+    SlidingWindowCounter(long windowMillis, int bucketCount) {
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+        this.buckets = new AtomicLongArray(bucketCount);
+    }
+
+    /**
+     * Records one event at {@code nowMillis} and returns the count over the window ending then.
+     */
+    long increment(long nowMillis) {
+        long slot = nowMillis / bucketMillis;
+        int index = (int) (slot % buckets.length());
+        while (true) {
+            long current = buckets.get(index);
+            long count = current >>> COUNT_BITS == slot ? current & COUNT_MASK : 0;
+            long next = (slot << COUNT_BITS) | Math.min(count + 1, COUNT_MASK);
+            if (buckets.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+        return sum(nowMillis);
+    }
+
+    long sum(long nowMillis) {
+        long slot = nowMillis / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long bucket = buckets.get(i);
+            if (slot - (bucket >>> COUNT_BITS) < buckets.length()) {
+                total += bucket & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+    }
+}
@@ -8,11 +8,11 @@ import com.skillhub.auth.dto.response.MessageResponse;
 
 public interface AuthService {
     MessageResponse register(RegisterRequest request);
-    AuthResponse login(LoginRequest request);
+    AuthResponse login(LoginRequest request, String clientAddress);
     MessageResponse verifyEmail(VerifyEmailRequest request);
     MessageResponse forgotPassword(ForgotPasswordRequest request);
     MessageResponse resetPassword(ResetPasswordRequest request);
     AuthResponse refreshToken(RefreshTokenRequest request);
-    MessageResponse logout(String userId);
+    MessageResponse logout(String username, String accessToken);
     MessageResponse validateToken(String token);
 }
\ No newline at end of file
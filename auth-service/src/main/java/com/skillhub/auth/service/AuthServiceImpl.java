@@ -9,17 +9,27 @@ import com.skillhub.auth.entity.VerificationToken;
 import com.skillhub.auth.repository.RefreshTokenRepository;
 import com.skillhub.auth.repository.UserRepository;
 import com.skillhub.auth.repository.VerificationTokenRepository;
+import com.skillhub.auth.security.AccountUserDetails;
+import com.skillhub.auth.security.CustomUserDetailsService;
 import com.skillhub.auth.security.JwtTokenProvider;
+import com.skillhub.auth.security.LoginAttemptService;
+import com.skillhub.auth.security.LoginBlockedException;
+import com.skillhub.auth.security.RefreshTokens;
 import com.skillhub.auth.util.OTPGenerator;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -37,6 +47,14 @@ public class AuthServiceImpl implements AuthService {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final RevocationService revocationService;
+    private final CustomUserDetailsService userDetailsService;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final LoginAttemptService loginAttemptService;
+
+    // How long the verifier a refresh just replaced is refused without revoking its family.
+    @Value("${jwt.refresh-token-reuse-grace:10s}")
+    private Duration refreshTokenReuseGrace;
 
     @Override
     @Transactional
@@ -119,6 +137,7 @@ public class AuthServiceImpl implements AuthService {
         user.setStatus("ACTIVE");
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         token.setUsed(true);
         tokenRepository.save(token);
@@ -128,49 +147,73 @@ public class AuthServiceImpl implements AuthService {
         return new MessageResponse("Email verified successfully! You can now login.");
     }
 
+    /**
+     * A failed password is recorded before the exception propagates; it must not roll back, or
+     * the failure count and the lock would never reach the user document.
+     */
     @Override
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse login(LoginRequest request, String clientAddress) {
         log.info("Login attempt for email: {}", request.getEmail());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        // Refuses locked accounts and noisy addresses before any password hash is computed.
+        loginAttemptService.checkAllowed(request.getEmail(), clientAddress);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptService.recordFailure(request.getEmail(), clientAddress);
+            throw e;
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps whatever the user lookup throws, including a lock found in the user document.
+            if (e.getCause() instanceof LoginBlockedException blocked) {
+                throw blocked;
+            }
+            throw e;
+        }
+        loginAttemptService.recordSuccess(request.getEmail());
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The account was resolved (usually from the cache) while authenticating; don't read it again.
+        AccountUserDetails account = (AccountUserDetails) authentication.getPrincipal();
 
-        String accessToken = jwtTokenProvider.generateToken(authentication);
+        String accessToken = jwtTokenProvider.generateToken(account);
 
-        String refreshTokenString = UUID.randomUUID().toString();
+        String selector = RefreshTokens.newSelector();
+        String verifier = RefreshTokens.newVerifier();
 
+        // Carries the account's claims so a refresh can issue access tokens without reading the user.
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(refreshTokenString)
-                .userId(user.getId())
+                .id(selector)
+                .verifierHash(RefreshTokens.hash(verifier))
+                .userId(account.getUserId())
+                .email(account.getUsername())
+                .roles(account.getRoles())
+                .status(account.getStatus())
                 .expiryDate(LocalDateTime.now().plusDays(7))
                 .revoked(false)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenRepository.insert(refreshToken);
 
-        user.setLastLogin(LocalDateTime.now());
-        user.setFailedLoginAttempts(0);
-        userRepository.save(user);
+        lastLoginRecorder.record(account.getUserId(), LocalDateTime.now());
 
-        log.info("Login successful for user: {}", user.getId());
+        log.info("Login successful for user: {}", account.getUserId());
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
-                .refreshToken(refreshTokenString)
+                .refreshToken(RefreshTokens.format(selector, verifier))
                 .tokenType("Bearer")
-                .userId(user.getId())
-                .email(user.getEmail())
-                .roles(user.getRoles())
-                .status(user.getStatus())
+                .userId(account.getUserId())
+                .email(account.getUsername())
+                .roles(account.getRoles())
+                .status(account.getStatus())
                 .build();
     }
 
@@ -221,23 +264,38 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         token.setUsed(true);
         tokenRepository.save(token);
 
         refreshTokenRepository.deleteByUserId(user.getId());
+        revocationService.revokeAllForUser(user.getId(), "password_reset");
 
         log.info("Password reset successful for user: {}", user.getId());
 
         return new MessageResponse("Password reset successful! Please login with new password.");
     }
 
+    /**
+     * Rotates a selector.verifier refresh token: one read of the token by id, one read of the
+     * account by id and one conditional update. A verifier that has already been rotated away means
+     * the token was copied, so the whole family and the user's access tokens are revoked, unless it
+     * was replaced moments ago by a concurrent refresh from the same client. A locked or inactive
+     * account gets no new tokens and loses the family; a temporary lockout after failed logins does
+     * not end sessions, or anyone guessing passwords could log the user out.
+     */
     @Override
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         log.info("Refresh token request");
 
+        RefreshTokens.Parsed presented = RefreshTokens.parse(request.getRefreshToken());
+        if (presented == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
         RefreshToken refreshToken = refreshTokenRepository
-                .findByToken(request.getRefreshToken())
+                .findById(presented.selector())
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
         if (refreshToken.isExpired()) {
@@ -248,16 +306,43 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Refresh token revoked");
         }
 
-        User user = userRepository.findById(refreshToken.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        LocalDateTime now = LocalDateTime.now();
+        String presentedHash = RefreshTokens.hash(presented.verifier());
+
+        if (!RefreshTokens.hashesEqual(presentedHash, refreshToken.getVerifierHash())) {
+            if (RefreshTokens.hashesEqual(presentedHash, refreshToken.getPreviousVerifierHash())
+                    && refreshToken.getRotatedAt() != null
+                    && now.isBefore(refreshToken.getRotatedAt().plus(refreshTokenReuseGrace))) {
+                throw new RuntimeException("Refresh token already used");
+            }
+            revokeFamily(refreshToken);
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        // Read fresh, not from the user-details cache, so a lock applied in Mongo takes effect at once.
+        User user = userRepository.findById(refreshToken.getUserId()).orElse(null);
+        if (user == null || user.getAccountLocked() || !"ACTIVE".equals(user.getStatus())) {
+            log.warn("Refresh refused for user {}, account is locked or inactive; revoking session {}",
+                    refreshToken.getUserId(), refreshToken.getId());
+            refreshTokenRepository.revoke(refreshToken.getId());
+            throw new RuntimeException("Account is not active");
+        }
+
+        String verifier = RefreshTokens.newVerifier();
+        if (!refreshTokenRepository.rotate(refreshToken.getId(), presentedHash, RefreshTokens.hash(verifier), now)) {
+            // Another refresh with the same token won the update.
+            throw new RuntimeException("Refresh token already used");
+        }
 
-        String newAccessToken = jwtTokenProvider.generateTokenFromUsername(user.getEmail());
+        // Roles come from the account, so a change reaches the next access token.
+        String newAccessToken = jwtTokenProvider.generateToken(user.getId(), user.getEmail(),
+                user.getRoles(), user.getStatus());
 
-        log.info("New access token generated for user: {}", user.getId());
+        log.info("Refresh token rotated for user: {}", user.getId());
 
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(request.getRefreshToken())
+                .refreshToken(RefreshTokens.format(refreshToken.getId(), verifier))
                 .tokenType("Bearer")
                 .userId(user.getId())
                 .email(user.getEmail())
@@ -266,12 +351,33 @@ public class AuthServiceImpl implements AuthService {
                 .build();
     }
 
+    private void revokeFamily(RefreshToken refreshToken) {
+        log.warn("Reuse of a rotated refresh token for user {}, revoking session {}",
+                refreshToken.getUserId(), refreshToken.getId());
+        refreshTokenRepository.revoke(refreshToken.getId());
+        revocationService.revokeAllForUser(refreshToken.getUserId(), "refresh_token_reuse");
+    }
+
+    /**
+     * Revokes the access token the request was made with, by its {@code jti}, and deletes the
+     * user's refresh tokens. Tokens issued before they carried a {@code jti} can only be revoked
+     * together with every other token of the user.
+     */
     @Override
     @Transactional
-    public MessageResponse logout(String userId) {
-        log.info("Logout request for user: {}", userId);
+    public MessageResponse logout(String username, String accessToken) {
+        log.info("Logout request for user: {}", username);
+
+        User user = userRepository.findByEmail(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        refreshTokenRepository.deleteByUserId(userId);
+        refreshTokenRepository.deleteByUserId(user.getId());
+        Claims claims = jwtTokenProvider.parseClaims(accessToken);
+        if (claims != null && claims.getId() != null) {
+            revocationService.revokeToken(claims.getId(), claims.getExpiration().toInstant(), "logout");
+        } else {
+            revocationService.revokeAllForUser(user.getId(), "logout");
+        }
 
         return new MessageResponse("Logout successful");
     }
@@ -0,0 +1,79 @@
+package com.skillhub.auth.service;
+
+import com.skillhub.auth.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records successful logins. By default each login is one targeted {@code $set}; with
+ * {@code auth.login.write-behind.enabled} logins are buffered per user (a burst from one user
+ * collapses to its latest login) and flushed in one bulk write every {@code flush-interval}, or
+ * as soon as {@code max-pending} users are waiting. Buffered logins are lost if the instance
+ * dies before the next flush, which only makes {@code lastLogin} older than it should be.
+ */
+@Slf4j
+@Component
+public class LastLoginRecorder {
+
+    private final UserRepository userRepository;
+    private final boolean writeBehind;
+    private final int maxPending;
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(UserRepository userRepository,
+                             @Value("${auth.login.write-behind.enabled:false}") boolean writeBehind,
+                             @Value("${auth.login.write-behind.max-pending:1000}") int maxPending) {
+        this.userRepository = userRepository;
+        this.writeBehind = writeBehind;
+        this.maxPending = maxPending;
+    }
+
+    public void record(String userId, LocalDateTime loginAt) {
+        if (!writeBehind) {
+            userRepository.recordLogin(userId, loginAt);
+            return;
+        }
+        pending.merge(userId, loginAt, (previous, latest) -> latest.isAfter(previous) ? latest : previous);
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login.write-behind.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (String userId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                batch.put(userId, loginAt);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            userRepository.recordLogins(batch);
+        } catch (RuntimeException e) {
+            // Put the batch back unless a newer login for the same user arrived meanwhile.
+            batch.forEach((userId, loginAt) ->
+                    pending.merge(userId, loginAt, (newer, failed) -> newer.isAfter(failed) ? newer : failed));
+            log.warn("Failed to flush {} buffered logins, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,11 @@
+package com.skillhub.auth.service;
+
+import com.skillhub.auth.dto.response.RevocationFeedResponse;
+import java.time.Instant;
+
+
+public interface RevocationService {
+    void revokeAllForUser(String userId, String reason);
+    void revokeToken(String tokenId, Instant tokenExpiresAt, String reason);
+    RevocationFeedResponse changesSince(long sinceEpochMillis);
+}
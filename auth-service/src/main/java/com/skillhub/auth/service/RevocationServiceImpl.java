@@ -0,0 +1,79 @@
+package com.skillhub.auth.service;
+
+import com.skillhub.auth.dto.response.RevocationFeedResponse;
+import com.skillhub.auth.entity.TokenRevocation;
+import com.skillhub.auth.repository.TokenRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevocationServiceImpl implements RevocationService {
+
+    private final TokenRevocationRepository revocationRepository;
+
+    @Value("${jwt.access-token-expiration}")
+    private long accessTokenExpiration;
+
+    @Override
+    public void revokeAllForUser(String userId, String reason) {
+        Instant now = Instant.now();
+
+        // Any token issued before now expires within one access-token lifetime, after which the entry is moot.
+        TokenRevocation revocation = TokenRevocation.builder()
+                .userId(userId)
+                .issuedBefore(now)
+                .reason(reason)
+                .createdAt(now)
+                .expiresAt(now.plusMillis(accessTokenExpiration))
+                .build();
+
+        revocationRepository.save(revocation);
+        log.info("Revoked access tokens issued to user {} before {} ({})", userId, now, reason);
+    }
+
+    @Override
+    public void revokeToken(String tokenId, Instant tokenExpiresAt, String reason) {
+        Instant now = Instant.now();
+        if (!tokenExpiresAt.isAfter(now)) {
+            return;
+        }
+
+        TokenRevocation revocation = TokenRevocation.builder()
+                .tokenId(tokenId)
+                .reason(reason)
+                .createdAt(now)
+                .expiresAt(tokenExpiresAt)
+                .build();
+
+        revocationRepository.save(revocation);
+        log.info("Revoked access token {} ({})", tokenId, reason);
+    }
+
+    @Override
+    public RevocationFeedResponse changesSince(long sinceEpochMillis) {
+        Instant now = Instant.now();
+
+        List<RevocationFeedResponse.Entry> entries = revocationRepository
+                .findByCreatedAtGreaterThanEqualAndExpiresAtAfterOrderByCreatedAtAsc(
+                        Instant.ofEpochMilli(sinceEpochMillis), now)
+                .stream()
+                .map(revocation -> new RevocationFeedResponse.Entry(
+                        revocation.getUserId(),
+                        revocation.getTokenId(),
+                        revocation.getIssuedBefore() != null ? revocation.getIssuedBefore().toEpochMilli() : null,
+                        revocation.getExpiresAt().toEpochMilli()))
+                .toList();
+
+        return RevocationFeedResponse.builder()
+                .serverTime(now.toEpochMilli())
+                .entries(entries)
+                .build();
+    }
+}
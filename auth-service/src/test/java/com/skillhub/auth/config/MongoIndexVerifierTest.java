@@ -0,0 +1,71 @@
+package com.skillhub.auth.config;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MongoIndexVerifierTest {
+
+    private final MongoPersistentEntityIndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mappingContext());
+
+    @Test
+    void everyQueryShapeHasADeclaredIndexLedByItsFilterFields() {
+        for (MongoIndexVerifier.QueryShape shape : MongoIndexVerifier.QUERY_SHAPES) {
+            IndexDefinition index = StreamSupport.stream(indexResolver.resolveIndexFor(shape.entity()).spliterator(), false)
+                    .filter(definition -> shape.index().equals(definition.getIndexOptions().get("name")))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError(shape.entity().getSimpleName() + " declares no " + shape.index()));
+
+            if (shape.filter() == null) {
+                assertEquals(0L, ((Number) index.getIndexOptions().get("expireAfterSeconds")).longValue(), shape.query());
+            } else {
+                List<String> keys = new ArrayList<>(index.getIndexKeys().keySet());
+                assertEquals(keys.subList(0, shape.filter().size()), new ArrayList<>(shape.filter().keySet()), shape.query());
+            }
+        }
+    }
+
+    @Test
+    void acceptsPlansOnTheExpectedIndex() {
+        Document classic = explain(new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "token")));
+        Document slotBased = explain(new Document("queryPlan", new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "token")))
+                .append("slotBasedPlan", new Document("stages", "...")));
+
+        assertEquals(Optional.empty(), MongoIndexVerifier.planProblem(classic, "token"));
+        assertEquals(Optional.empty(), MongoIndexVerifier.planProblem(slotBased, "token"));
+        assertEquals(Optional.empty(), MongoIndexVerifier.planProblem(explain(new Document("stage", "EOF")), "token"));
+    }
+
+    @Test
+    void reportsScansAndOtherIndexes() {
+        Document scan = explain(new Document("stage", "COLLSCAN"));
+        Document otherIndex = explain(new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "expiry_ttl")));
+
+        assertTrue(MongoIndexVerifier.planProblem(scan, "token").orElseThrow().contains("collection scan"));
+        assertTrue(MongoIndexVerifier.planProblem(otherIndex, "token").orElseThrow().contains("expiry_ttl"));
+    }
+
+    private static MongoMappingContext mappingContext() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return mappingContext;
+    }
+
+    private static Document explain(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+}
@@ -0,0 +1,214 @@
+package com.skillhub.auth.mail;
+
+import com.skillhub.auth.entity.EmailOutboxMessage;
+import com.skillhub.auth.repository.EmailOutboxRepository;
+import com.skillhub.auth.service.EmailServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.micrometer.tracing.propagation.Propagator;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final FakeSmtpServer smtp = new FakeSmtpServer();
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemorySpanExporter spans = InMemorySpanExporter.create();
+    private final io.opentelemetry.api.trace.Tracer otelTracer = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spans)).build().get("test");
+    private final Tracer tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> { });
+    private final Propagator propagator = new OtelPropagator(
+            ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+    private final EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(repository, mailSender(smtp.port()),
+            meterRegistry, tracer, propagator, "noreply@skillhub.com", 10, MAX_ATTEMPTS,
+            Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(2), Duration.ofDays(7));
+
+    EmailOutboxDispatcherTest() throws IOException {
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendsABatchOverOneConnection() {
+        claims(message("1", "ada@example.com", 1), message("2", "grace@example.com", 1),
+                message("3", "linus@example.com", 1));
+
+        dispatcher.dispatch();
+
+        assertEquals(1, smtp.connections());
+        assertEquals(3, smtp.received().size());
+        assertEquals(List.of("ada@example.com"), smtp.received().get(0).recipients());
+        assertTrue(smtp.received().get(0).data().contains("Your email verification code is: 123456"));
+        verify(repository).markSent(eq("1"), any(), any());
+        verify(repository).markSent(eq("2"), any(), any());
+        verify(repository).markSent(eq("3"), any(), any());
+        assertEquals(3.0, meterRegistry.get("auth.email.outbox").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    void retriesOnlyTheMessagesThatFailed() {
+        smtp.rejectRecipient("bounce@example.com");
+        claims(message("1", "ada@example.com", 1), message("2", "bounce@example.com", 1));
+        Instant before = Instant.now();
+
+        dispatcher.dispatch();
+
+        verify(repository).markSent(eq("1"), any(), any());
+        verify(repository).markRetry(eq("2"), anyString(),
+                argThat(next -> next.isAfter(before.plusSeconds(20)) && next.isBefore(before.plusSeconds(40))));
+        verify(repository, never()).markSent(eq("2"), any(), any());
+    }
+
+    @Test
+    void deadLettersAfterTheLastAttemptWhileSmtpIsDown() throws IOException {
+        smtp.close();
+        claims(message("1", "ada@example.com", 1), message("2", "grace@example.com", MAX_ATTEMPTS));
+
+        dispatcher.dispatch();
+
+        verify(repository).markRetry(eq("1"), anyString(), any());
+        verify(repository).markDead(eq("2"), anyString());
+        assertEquals(1.0, meterRegistry.get("auth.email.outbox").tag("outcome", "dead").counter().count());
+    }
+
+    @Test
+    void deadLettersMessagesThatCannotBeRendered() {
+        EmailOutboxMessage broken = message("1", "ada@example.com", 1);
+        broken.setModel(Map.of());
+        claims(broken, message("2", "grace@example.com", 1));
+
+        dispatcher.dispatch();
+
+        verify(repository).markDead(eq("1"), anyString());
+        verify(repository).markSent(eq("2"), any(), any());
+        assertEquals(1, smtp.received().size());
+    }
+
+    @Test
+    void sendsOnAPlatformThreadWhenDispatchedFromAVirtualThread() throws InterruptedException {
+        AtomicReference<Thread> sendingThread = new AtomicReference<>();
+        JavaMailSenderImpl recordingSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... simpleMessages) {
+                sendingThread.set(Thread.currentThread());
+            }
+        };
+        EmailOutboxDispatcher virtualDispatcher = new EmailOutboxDispatcher(repository, recordingSender,
+                meterRegistry, tracer, propagator, "noreply@skillhub.com", 10, MAX_ATTEMPTS,
+                Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(2), Duration.ofDays(7));
+        claims(message("1", "ada@example.com", 1));
+
+        Thread.ofVirtual().start(virtualDispatcher::dispatch).join();
+        virtualDispatcher.shutdown();
+
+        assertFalse(sendingThread.get().isVirtual());
+        verify(repository).markSent(eq("1"), any(), any());
+    }
+
+    @Test
+    void sendsInAClientSpanOfTheRequestThatQueuedTheMessage() {
+        smtp.rejectRecipient("bounce@example.com");
+        EmailServiceImpl emailService = new EmailServiceImpl(repository, tracer, propagator);
+        Span request = tracer.nextSpan().name("POST /register").start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(request)) {
+            emailService.sendWelcomeEmail("ada@example.com");
+            emailService.sendWelcomeEmail("bounce@example.com");
+        } finally {
+            request.end();
+        }
+        ArgumentCaptor<EmailOutboxMessage> queued = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(repository, times(2)).insert(queued.capture());
+        queued.getAllValues().forEach(message -> message.setAttempts(1));
+        claims(queued.getAllValues().toArray(EmailOutboxMessage[]::new));
+        spans.reset();
+
+        dispatcher.dispatch();
+
+        List<SpanData> sends = spans.getFinishedSpanItems();
+        assertEquals(2, sends.size());
+        for (SpanData send : sends) {
+            assertEquals("smtp send", send.getName());
+            assertEquals(SpanKind.CLIENT, send.getKind());
+            assertEquals(request.context().traceId(), send.getTraceId());
+            assertEquals(request.context().spanId(), send.getParentSpanId());
+        }
+        assertEquals(StatusCode.UNSET, sends.get(0).getStatus().getStatusCode());
+        assertEquals(StatusCode.ERROR, sends.get(1).getStatus().getStatusCode());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertTrue(between(dispatcher.backoff(1), Duration.ofSeconds(24), Duration.ofSeconds(36)));
+        assertTrue(between(dispatcher.backoff(3), Duration.ofSeconds(96), Duration.ofSeconds(144)));
+        assertTrue(between(dispatcher.backoff(20), Duration.ofMinutes(48), Duration.ofMinutes(72)));
+    }
+
+    private void claims(EmailOutboxMessage... batch) {
+        when(repository.claimDue(anyInt(), any(), any())).thenReturn(List.of(batch), List.of());
+    }
+
+    private static EmailOutboxMessage message(String id, String recipient, int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .recipient(recipient)
+                .template(EmailTemplate.EMAIL_VERIFICATION.name())
+                .model(Map.of("otp", "123456"))
+                .attempts(attempts)
+                .build();
+    }
+
+    private static boolean between(Duration value, Duration min, Duration max) {
+        return value.compareTo(min) >= 0 && value.compareTo(max) <= 0;
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return mailSender;
+    }
+}
@@ -0,0 +1,113 @@
+package com.skillhub.auth.security;
+
+import com.skillhub.auth.entity.User;
+import com.skillhub.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTest {
+
+    private static final String EMAIL = "ada@example.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CustomUserDetailsService service =
+            new CustomUserDetailsService(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+
+    @Test
+    void servesRepeatLookupsFromTheCacheUntilEvicted() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("hash-1")));
+
+        service.loadUserByUsername(EMAIL);
+        service.loadUserByUsername(EMAIL);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "auth.user-details").tag("result", "hit")
+                .functionCounter().count());
+
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("hash-2")));
+        service.evict(EMAIL);
+
+        assertEquals("hash-2", service.loadUserByUsername(EMAIL).getPassword());
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void erasingCredentialsOfAReturnedUserLeavesTheCacheIntact() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("hash-1")));
+
+        UserDetails first = service.loadUserByUsername(EMAIL);
+        ((CredentialsContainer) first).eraseCredentials();
+
+        assertEquals("hash-1", service.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    @Test
+    void rejectedAccountsAreNotCached() {
+        User locked = user("hash-1");
+        locked.setAccountLocked(true);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(locked));
+
+        assertThrows(RuntimeException.class, () -> service.loadUserByUsername(EMAIL));
+
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("hash-1")));
+        assertEquals("hash-1", service.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    @Test
+    void concurrentMissesShareOneQuery() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user("hash-1"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> first = executor.submit(() -> service.loadUserByUsername(EMAIL));
+            queryStarted.await(5, TimeUnit.SECONDS);
+            Future<?> second = executor.submit(() -> service.loadUserByUsername(EMAIL));
+            Future<?> third = executor.submit(() -> service.loadUserByUsername(EMAIL));
+            Thread.sleep(100);
+            release.countDown();
+
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            third.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    private static User user(String passwordHash) {
+        return User.builder()
+                .id("user-1")
+                .email(EMAIL)
+                .password(passwordHash)
+                .roles(Set.of("USER"))
+                .status("ACTIVE")
+                .emailVerified(true)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.skillhub.auth.security;
+
+import com.skillhub.auth.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "skillhub-test-secret-that-is-long-enough-for-hs256";
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider(SigningKeyManagerTest.newManager(), SECRET, 60_000);
+    private final AtomicInteger userLookups = new AtomicInteger();
+    private final UserDetailsService userDetailsService = username -> {
+        userLookups.incrementAndGet();
+        return org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("")
+                .roles("USER")
+                .build();
+    };
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void issuedTokensCarryAccountClaims() {
+        Claims claims = tokenProvider.parseClaims(tokenProvider.generateToken(activeUser()));
+
+        assertNotNull(claims);
+        assertEquals("ada@example.com", claims.getSubject());
+        assertEquals("user-1", claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class));
+        assertEquals("ADMIN", claims.get(JwtTokenProvider.ROLE_CLAIM, String.class));
+        assertEquals(List.of("ADMIN", "USER"), claims.get(JwtTokenProvider.ROLES_CLAIM, List.class));
+        assertEquals("ACTIVE", claims.get(JwtTokenProvider.STATUS_CLAIM, String.class));
+        assertNotNull(claims.getId());
+    }
+
+    @Test
+    void tokensAreSignedWithTheCurrentEcKey() {
+        JwtTokenProvider withoutLegacySecret =
+                new JwtTokenProvider(SigningKeyManagerTest.newManager(), "", 60_000);
+        String token = withoutLegacySecret.generateToken(activeUser());
+
+        assertNotNull(withoutLegacySecret.parseClaims(token));
+        assertNull(tokenProvider.parseClaims(token));
+        assertNull(withoutLegacySecret.parseClaims(legacyToken()));
+    }
+
+    @Test
+    void statelessModeAuthenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        Authentication authentication = authenticate(filter(true, List.of()), "/api/auth/logout",
+                tokenProvider.generateToken(activeUser()));
+
+        assertEquals(0, userLookups.get());
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals("user-1", principal.userId());
+        assertEquals("ada@example.com", authentication.getName());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), authorities(authentication));
+    }
+
+    @Test
+    void freshAccountPathsAndLegacyTokensLoadTheUser() throws Exception {
+        JwtAuthenticationFilter filter = filter(true, List.of("/api/auth/account/**"));
+
+        authenticate(filter, "/api/auth/account/password", tokenProvider.generateToken(activeUser()));
+        assertEquals(1, userLookups.get());
+
+        Authentication authentication = authenticate(filter, "/api/auth/logout", legacyToken());
+        assertEquals(2, userLookups.get());
+        assertEquals("ada@example.com", authentication.getName());
+    }
+
+    @Test
+    void statefulModeAlwaysLoadsTheUser() throws Exception {
+        authenticate(filter(false, List.of()), "/api/auth/logout", tokenProvider.generateToken(activeUser()));
+
+        assertEquals(1, userLookups.get());
+    }
+
+    @Test
+    void invalidTokensAreNotAuthenticated() throws Exception {
+        String token = tokenProvider.generateToken(activeUser());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(authenticate(filter(true, List.of()), "/api/auth/logout", tampered));
+        assertEquals(0, userLookups.get());
+    }
+
+    // Issued with the HMAC secret and only sub, as before tokens were signed with EC keys and carried account claims.
+    private static String legacyToken() {
+        return Jwts.builder()
+                .subject("ada@example.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private JwtAuthenticationFilter filter(boolean stateless, List<String> freshAccountPaths) {
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, stateless, freshAccountPaths);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                seen.set(SecurityContextHolder.getContext().getAuthentication()));
+
+        SecurityContextHolder.clearContext();
+        return seen.get();
+    }
+
+    private static Set<String> authorities(Authentication authentication) {
+        return Set.copyOf(authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    private static User activeUser() {
+        return User.builder()
+                .id("user-1")
+                .email("ada@example.com")
+                .roles(Set.of("USER", "ADMIN"))
+                .status("ACTIVE")
+                .emailVerified(true)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.skillhub.auth.security;
+
+import com.skillhub.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoginAttemptServiceTest {
+
+    private static final String EMAIL = "ada@example.com";
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+    private static final Duration LOCK = Duration.ofMinutes(10);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final LoginAttemptService attempts = new LoginAttemptService(userRepository, userDetailsService,
+            meterRegistry, 3, 5, WINDOW, LOCK, 1000, clock);
+
+    @Test
+    void locksTheAccountAtTheLimitAndUnlocksAfterTheLockDuration() {
+        attempts.recordFailure(EMAIL, "203.0.113.1");
+        attempts.recordFailure(EMAIL, "203.0.113.2");
+        assertDoesNotThrow(() -> attempts.checkAllowed(EMAIL, "203.0.113.3"));
+
+        attempts.recordFailure("ADA@example.com", "203.0.113.3");
+
+        LoginBlockedException blocked =
+                assertThrows(LoginBlockedException.class, () -> attempts.checkAllowed(EMAIL, "198.51.100.1"));
+        assertEquals(LOCK, blocked.getRetryAfter());
+        verify(userRepository, times(2)).recordFailedLogin(eq(EMAIL), isNull());
+        verify(userRepository).recordFailedLogin(eq("ADA@example.com"), notNull());
+        verify(userDetailsService).evict("ADA@example.com");
+        assertEquals(1.0, meterRegistry.get("auth.login.lockouts").counter().count());
+
+        clock.advance(LOCK);
+        assertDoesNotThrow(() -> attempts.checkAllowed(EMAIL, "198.51.100.1"));
+    }
+
+    @Test
+    void failuresOutsideTheWindowDoNotCount() {
+        attempts.recordFailure(EMAIL, null);
+        attempts.recordFailure(EMAIL, null);
+        clock.advance(WINDOW.plusMinutes(1));
+
+        attempts.recordFailure(EMAIL, null);
+
+        assertDoesNotThrow(() -> attempts.checkAllowed(EMAIL, null));
+    }
+
+    @Test
+    void successfulLoginClearsTheAccountWindow() {
+        attempts.recordFailure(EMAIL, null);
+        attempts.recordFailure(EMAIL, null);
+        attempts.recordSuccess(EMAIL);
+
+        attempts.recordFailure(EMAIL, null);
+
+        assertDoesNotThrow(() -> attempts.checkAllowed(EMAIL, null));
+    }
+
+    @Test
+    void blocksAnAddressSprayingManyAccounts() {
+        for (int i = 0; i < 5; i++) {
+            attempts.recordFailure("user" + i + "@example.com", "203.0.113.9");
+        }
+
+        assertThrows(LoginBlockedException.class, () -> attempts.checkAllowed(EMAIL, "203.0.113.9"));
+        assertDoesNotThrow(() -> attempts.checkAllowed(EMAIL, "203.0.113.10"));
+        assertEquals(1.0, meterRegistry.get("auth.login.blocked").tag("reason", "address").counter().count());
+    }
+
+    @Test
+    void slidingWindowCountsConcurrentIncrements() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW.toMillis(), 15);
+        long now = clock.millis();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment(now);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, counter.sum(now));
+        assertEquals(0, counter.sum(now + WINDOW.toMillis()));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
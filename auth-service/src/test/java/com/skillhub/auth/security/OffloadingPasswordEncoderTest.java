@@ -0,0 +1,152 @@
+package com.skillhub.auth.security;
+
+import com.skillhub.auth.entity.User;
+import com.skillhub.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OffloadingPasswordEncoderTest {
+
+    private static final String EMAIL = "ada@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor =
+            new PasswordHashingExecutor(meterRegistry, 2, 4, Duration.ofSeconds(5));
+    private final PasswordEncoder encoder = new OffloadingPasswordEncoder(
+            PasswordEncoders.delegating(PasswordEncoders.ARGON2ID, 4, 1024, 1, 1), executor);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void hashesOnTheExecutorAndRecordsTimings() {
+        String hash = encoder.encode(PASSWORD);
+
+        assertTrue(hash.startsWith("{argon2id}$argon2id$"));
+        assertTrue(encoder.matches(PASSWORD, hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertEquals(1, meterRegistry.get("auth.password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hashing.duration").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("auth.password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void legacyAndWeakerHashesAreFlaggedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        assertTrue(encoder.matches(PASSWORD, legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        PasswordEncoder bcrypt10 = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 10, 1024, 1, 1);
+        String bcrypt4 = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4, 1024, 1, 1).encode(PASSWORD);
+        assertTrue(bcrypt10.matches(PASSWORD, bcrypt4));
+        assertTrue(bcrypt10.upgradeEncoding(bcrypt4));
+    }
+
+    @Test
+    void successfulLoginRehashesALegacyPassword() {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = User.builder()
+                .id("user-1")
+                .email(EMAIL)
+                .password(new BCryptPasswordEncoder(4).encode(PASSWORD))
+                .roles(Set.of("USER"))
+                .status("ACTIVE")
+                .emailVerified(true)
+                .accountLocked(false)
+                .build();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        CustomUserDetailsService userDetailsService =
+                new CustomUserDetailsService(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        Authentication authentication = provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("user-1"), rehashed.capture(), any());
+        assertTrue(rehashed.getValue().startsWith("{argon2id}"));
+        assertTrue(encoder.matches(PASSWORD, rehashed.getValue()));
+        assertEquals("user-1", ((AccountUserDetails) authentication.getPrincipal()).getUserId());
+    }
+
+    @Test
+    void rejectsImmediatelyWhenTheQueueIsFull() throws Exception {
+        SimpleMeterRegistry saturatedMeters = new SimpleMeterRegistry();
+        PasswordHashingExecutor saturated = new PasswordHashingExecutor(saturatedMeters, 1, 1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> saturated.run("encode", () -> {
+                running.countDown();
+                return await(release);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> saturated.run("encode", () -> "queued"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (saturatedMeters.get("auth.password.hashing.queue").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            long start = System.nanoTime();
+            assertThrows(PasswordHashingRejectedException.class, () -> saturated.run("encode", () -> "rejected"));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+            assertEquals(1.0, saturatedMeters.get("auth.password.hashing.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("released", first.get(5, TimeUnit.SECONDS));
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsHashesThatOutliveMaxWait() {
+        PasswordHashingExecutor slow = new PasswordHashingExecutor(meterRegistry, 1, 1, Duration.ofMillis(100));
+        try {
+            assertThrows(PasswordHashingRejectedException.class,
+                    () -> slow.run("matches", () -> await(new CountDownLatch(1))));
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
@@ -0,0 +1,146 @@
+package com.skillhub.auth.security;
+
+import com.skillhub.auth.entity.SigningKey;
+import com.skillhub.auth.repository.SigningKeyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SigningKeyManagerTest {
+
+    private static final Duration ROTATION = Duration.ofDays(30);
+    private static final Duration PUBLISH_AHEAD = Duration.ofHours(1);
+    private static final Duration TOKEN_LIFETIME = Duration.ofHours(24);
+
+    private final List<SigningKey> stored = new ArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final SigningKeyManager manager =
+            new SigningKeyManager(inMemoryRepository(stored), ROTATION, PUBLISH_AHEAD, TOKEN_LIFETIME, clock);
+
+    @Test
+    void rotatesWithOverlappingPublication() {
+        manager.refresh();
+        String first = manager.signingKey().kid();
+        assertEquals(1, publishedKids().size());
+
+        // The successor is published ahead of its activation, while the first key keeps signing.
+        clock.set(clock.instant().plus(ROTATION).minus(PUBLISH_AHEAD));
+        manager.refresh();
+        assertEquals(2, publishedKids().size());
+        assertEquals(first, manager.signingKey().kid());
+        String second = publishedKids().get(1);
+
+        clock.set(clock.instant().plus(PUBLISH_AHEAD));
+        assertEquals(second, manager.signingKey().kid());
+
+        // The first key verifies its outstanding tokens until they have all expired.
+        clock.set(clock.instant().plus(TOKEN_LIFETIME).minusSeconds(1));
+        manager.refresh();
+        assertNotNull(manager.publicKey(first));
+
+        clock.set(clock.instant().plusSeconds(1));
+        manager.refresh();
+        assertNull(manager.publicKey(first));
+        assertEquals(List.of(second), publishedKids());
+    }
+
+    @Test
+    void instancesShareTheStoredKeys() {
+        manager.refresh();
+        SigningKeyManager other =
+                new SigningKeyManager(inMemoryRepository(stored), ROTATION, PUBLISH_AHEAD, TOKEN_LIFETIME, clock);
+        other.refresh();
+
+        assertEquals(1, stored.size());
+        assertEquals(manager.signingKey().kid(), other.signingKey().kid());
+        assertEquals(manager.publicKey(manager.signingKey().kid()), other.publicKey(manager.signingKey().kid()));
+    }
+
+    @Test
+    void publishesEcJwks() {
+        manager.refresh();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) manager.jwks().get("keys")).get(0);
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("P-256", jwk.get("crv"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(manager.signingKey().kid(), jwk.get("kid"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+        assertNotEquals(jwk.get("x"), jwk.get("y"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> publishedKids() {
+        return ((List<Map<String, Object>>) manager.jwks().get("keys")).stream()
+                .map(jwk -> (String) jwk.get("kid"))
+                .toList();
+    }
+
+    static SigningKeyManager newManager() {
+        SigningKeyManager manager = new SigningKeyManager(inMemoryRepository(new ArrayList<>()),
+                ROTATION, PUBLISH_AHEAD, TOKEN_LIFETIME, Clock.systemUTC());
+        manager.refresh();
+        return manager;
+    }
+
+    static SigningKeyRepository inMemoryRepository(List<SigningKey> stored) {
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        when(repository.findAllByOrderByGenerationAsc()).thenAnswer(invocation -> stored.stream()
+                .sorted(Comparator.comparingLong(SigningKey::getGeneration))
+                .toList());
+        when(repository.insert(any(SigningKey.class))).thenAnswer(invocation -> {
+            SigningKey key = invocation.getArgument(0);
+            stored.add(key);
+            return key;
+        });
+        doAnswer(invocation -> stored.removeIf(key -> key.getId().equals(invocation.getArgument(0))))
+                .when(repository).deleteById(anyString());
+        return repository;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.skillhub.auth.service;
+
+import com.skillhub.auth.dto.request.LoginRequest;
+import com.skillhub.auth.dto.response.AuthResponse;
+import com.skillhub.auth.entity.User;
+import com.skillhub.auth.repository.RefreshTokenRepository;
+import com.skillhub.auth.repository.UserRepository;
+import com.skillhub.auth.repository.VerificationTokenRepository;
+import com.skillhub.auth.security.AccountUserDetails;
+import com.skillhub.auth.security.CustomUserDetailsService;
+import com.skillhub.auth.security.JwtTokenProvider;
+import com.skillhub.auth.security.LoginAttemptService;
+import com.skillhub.auth.security.LoginBlockedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the Mongo operations a login issues, as calls on the repository mocks.
+ */
+class AuthServiceImplLoginTest {
+
+    private static final String EMAIL = "ada@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String ADDRESS = "203.0.113.7";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+    private final AtomicInteger hashes = new AtomicInteger();
+    private final PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+    private final PasswordEncoder passwordEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return bcrypt.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashes.incrementAndGet();
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+    };
+    private final CustomUserDetailsService userDetailsService =
+            new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    private final User user;
+
+    AuthServiceImplLoginTest() {
+        user = User.builder()
+                .id("user-1")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(Set.of("USER"))
+                .status("ACTIVE")
+                .emailVerified(true)
+                .accountLocked(false)
+                .build();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.generateToken(any(AccountUserDetails.class))).thenReturn("access-token");
+    }
+
+    @Test
+    void loginReadsTheUserOnceThenOnlyWritesTheTokenAndLastLogin() {
+        AuthService authService = authService(new LastLoginRecorder(userRepository, false, 1000));
+
+        AuthResponse response = authService.login(loginRequest(PASSWORD), ADDRESS);
+        assertEquals(3, mongoOperations());
+
+        authService.login(loginRequest(PASSWORD), ADDRESS);
+        assertEquals(5, mongoOperations());
+
+        verify(userRepository).findByEmail(EMAIL);
+        verify(userRepository, never()).save(any());
+        verify(userRepository, times(2)).recordLogin(eq("user-1"), any());
+        assertEquals("user-1", response.getUserId());
+        assertEquals(Set.of("USER"), response.getRoles());
+        assertEquals("ACTIVE", response.getStatus());
+    }
+
+    @Test
+    void writeBehindCoalescesLastLoginIntoOneBulkWrite() {
+        LastLoginRecorder recorder = new LastLoginRecorder(userRepository, true, 1000);
+        AuthService authService = authService(recorder);
+
+        for (int i = 0; i < 10; i++) {
+            authService.login(loginRequest(PASSWORD), ADDRESS);
+        }
+        // One user lookup, then one refresh token per login.
+        assertEquals(11, mongoOperations());
+
+        recorder.flush();
+
+        assertEquals(12, mongoOperations());
+        verify(userRepository, never()).recordLogin(any(), any());
+        verify(userRepository).recordLogins(argThat((Map<String, LocalDateTime> logins) -> logins.keySet().equals(Set.of("user-1"))));
+    }
+
+    @Test
+    void failedFlushesAreRetried() {
+        LastLoginRecorder recorder = new LastLoginRecorder(userRepository, true, 1000);
+        doThrow(new RuntimeException("mongo down"))
+                .doNothing()
+                .when(userRepository).recordLogins(anyMap());
+
+        recorder.record("user-1", LocalDateTime.now());
+        recorder.flush();
+        recorder.flush();
+        recorder.flush();
+
+        verify(userRepository, times(2)).recordLogins(anyMap());
+    }
+
+    @Test
+    void lockedAccountsAreRejectedBeforeAnyHashIsComputed() {
+        AuthService authService = authService(new LastLoginRecorder(userRepository, false, 1000));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(BadCredentialsException.class, () -> authService.login(loginRequest("wrong"), ADDRESS));
+        }
+        assertEquals(5, hashes.get());
+        verify(userRepository, times(4)).recordFailedLogin(EMAIL, null);
+        verify(userRepository).recordFailedLogin(eq(EMAIL), notNull());
+
+        int operations = mongoOperations();
+        assertThrows(LoginBlockedException.class, () -> authService.login(loginRequest(PASSWORD), ADDRESS));
+
+        assertEquals(5, hashes.get());
+        assertEquals(operations, mongoOperations());
+    }
+
+    @Test
+    void lockPersistedByAnotherInstanceIsAnsweredWithRetryAfter() {
+        user.setLockedUntil(LocalDateTime.now().plusMinutes(10));
+        AuthService authService = authService(new LastLoginRecorder(userRepository, false, 1000));
+
+        LoginBlockedException e = assertThrows(LoginBlockedException.class,
+                () -> authService.login(loginRequest(PASSWORD), ADDRESS));
+
+        assertEquals(0, hashes.get());
+        assertTrue(e.getRetryAfter().compareTo(Duration.ofMinutes(9)) > 0, e.getRetryAfter().toString());
+        assertTrue(e.getRetryAfter().compareTo(Duration.ofMinutes(10)) <= 0, e.getRetryAfter().toString());
+    }
+
+    @Test
+    void failedLoginIsCommittedWhenLoginRunsInATransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // Advises the service the way @EnableTransactionManagement does with auth.mongo.transactions=true.
+        ProxyFactory proxy = new ProxyFactory(authService(new LastLoginRecorder(userRepository, false, 1000)));
+        proxy.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        AuthService authService = (AuthService) proxy.getProxy();
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(loginRequest("wrong"), ADDRESS));
+
+        verify(userRepository).recordFailedLogin(EMAIL, null);
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    private AuthService authService(LastLoginRecorder recorder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return new AuthServiceImpl(userRepository, mock(VerificationTokenRepository.class), refreshTokenRepository,
+                passwordEncoder, jwtTokenProvider, new ProviderManager(provider), mock(EmailService.class),
+                mock(RevocationService.class), userDetailsService, recorder,
+                new LoginAttemptService(userRepository, userDetailsService, new SimpleMeterRegistry(),
+                        5, 50, Duration.ofMinutes(15), Duration.ofMinutes(15), 1000));
+    }
+
+    private int mongoOperations() {
+        return mockingDetails(userRepository).getInvocations().size()
+                + mockingDetails(refreshTokenRepository).getInvocations().size();
+    }
+
+    private static LoginRequest loginRequest(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(password);
+        return request;
+    }
+}
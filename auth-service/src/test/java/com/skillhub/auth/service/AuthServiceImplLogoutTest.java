@@ -0,0 +1,66 @@
+package com.skillhub.auth.service;
+
+import com.skillhub.auth.entity.User;
+import com.skillhub.auth.repository.RefreshTokenRepository;
+import com.skillhub.auth.repository.UserRepository;
+import com.skillhub.auth.repository.VerificationTokenRepository;
+import com.skillhub.auth.security.CustomUserDetailsService;
+import com.skillhub.auth.security.JwtTokenProvider;
+import com.skillhub.auth.security.LoginAttemptService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceImplLogoutTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+    private final RevocationService revocationService = mock(RevocationService.class);
+    private final AuthServiceImpl authService = new AuthServiceImpl(userRepository,
+            mock(VerificationTokenRepository.class), refreshTokenRepository, mock(PasswordEncoder.class),
+            jwtTokenProvider, mock(AuthenticationManager.class), mock(EmailService.class), revocationService,
+            mock(CustomUserDetailsService.class), mock(LastLoginRecorder.class), mock(LoginAttemptService.class));
+
+    AuthServiceImplLogoutTest() {
+        when(userRepository.findByEmail("ada@example.com"))
+                .thenReturn(Optional.of(User.builder().id("user-1").email("ada@example.com").build()));
+    }
+
+    @Test
+    void revokesThePresentedAccessTokenByItsJti() {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        when(jwtTokenProvider.parseClaims("access-token"))
+                .thenReturn(Jwts.claims().id("jti-1").expiration(Date.from(expiresAt)).build());
+
+        authService.logout("ada@example.com", "access-token");
+
+        verify(refreshTokenRepository).deleteByUserId("user-1");
+        verify(revocationService).revokeToken("jti-1", expiresAt, "logout");
+        verify(revocationService, never()).revokeAllForUser(anyString(), anyString());
+    }
+
+    @Test
+    void revokesEveryTokenOfTheUserWhenThePresentedOneHasNoJti() {
+        when(jwtTokenProvider.parseClaims("legacy-token"))
+                .thenReturn(Jwts.claims().expiration(new Date(System.currentTimeMillis() + 60_000)).build());
+
+        authService.logout("ada@example.com", "legacy-token");
+
+        verify(revocationService).revokeAllForUser("user-1", "logout");
+        verify(revocationService, never()).revokeToken(anyString(), any(), anyString());
+    }
+}
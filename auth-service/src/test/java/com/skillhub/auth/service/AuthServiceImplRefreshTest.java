@@ -0,0 +1,222 @@
+package com.skillhub.auth.service;
+
+import com.skillhub.auth.dto.request.RefreshTokenRequest;
+import com.skillhub.auth.dto.response.AuthResponse;
+import com.skillhub.auth.entity.RefreshToken;
+import com.skillhub.auth.entity.User;
+import com.skillhub.auth.repository.RefreshTokenRepository;
+import com.skillhub.auth.repository.UserRepository;
+import com.skillhub.auth.repository.VerificationTokenRepository;
+import com.skillhub.auth.security.CustomUserDetailsService;
+import com.skillhub.auth.security.JwtTokenProvider;
+import com.skillhub.auth.security.LoginAttemptService;
+import com.skillhub.auth.security.RefreshTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh token rotation against an in-memory stand-in for the refresh_tokens collection.
+ */
+class AuthServiceImplRefreshTest {
+
+    private static final String SELECTOR = "session-1";
+    private static final String VERIFIER = "verifier-1";
+
+    private final Map<String, RefreshToken> tokens = new HashMap<>();
+    private final User account = User.builder()
+            .id("user-1")
+            .email("ada@example.com")
+            .roles(Set.of("USER"))
+            .status("ACTIVE")
+            .emailVerified(true)
+            .build();
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+    private final RevocationService revocationService = mock(RevocationService.class);
+    private final AuthServiceImpl authService = new AuthServiceImpl(userRepository,
+            mock(VerificationTokenRepository.class), refreshTokenRepository, mock(PasswordEncoder.class),
+            jwtTokenProvider, mock(AuthenticationManager.class), mock(EmailService.class), revocationService,
+            mock(CustomUserDetailsService.class), mock(LastLoginRecorder.class), mock(LoginAttemptService.class));
+
+    AuthServiceImplRefreshTest() {
+        tokens.put(SELECTOR, RefreshToken.builder()
+                .id(SELECTOR)
+                .verifierHash(RefreshTokens.hash(VERIFIER))
+                .userId("user-1")
+                .email("ada@example.com")
+                .roles(Set.of("USER"))
+                .status("ACTIVE")
+                .expiryDate(LocalDateTime.now().plusDays(7))
+                .build());
+
+        when(refreshTokenRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tokens.get(invocation.<String>getArgument(0))));
+        when(refreshTokenRepository.rotate(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            RefreshToken token = tokens.get(invocation.<String>getArgument(0));
+            if (token == null || token.getRevoked() || !token.getVerifierHash().equals(invocation.getArgument(1))) {
+                return false;
+            }
+            token.setPreviousVerifierHash(token.getVerifierHash());
+            token.setVerifierHash(invocation.getArgument(2));
+            token.setRotatedAt(invocation.getArgument(3));
+            return true;
+        });
+        doAnswer(invocation -> {
+            tokens.get(invocation.<String>getArgument(0)).setRevoked(true);
+            return null;
+        }).when(refreshTokenRepository).revoke(anyString());
+        when(jwtTokenProvider.generateToken(anyString(), anyString(), any(), anyString())).thenReturn("access");
+        when(userRepository.findById("user-1")).thenAnswer(invocation -> Optional.of(account));
+
+        ReflectionTestUtils.setField(authService, "refreshTokenReuseGrace", Duration.ofSeconds(10));
+    }
+
+    @Test
+    void refreshIsTwoPrimaryKeyReadsAndOneWrite() {
+        AuthResponse response = authService.refreshToken(request(RefreshTokens.format(SELECTOR, VERIFIER)));
+
+        assertEquals(2, mockingDetails(refreshTokenRepository).getInvocations().size());
+        verify(refreshTokenRepository).findById(SELECTOR);
+        verify(refreshTokenRepository).rotate(anyString(), anyString(), anyString(), any());
+        assertEquals(1, mockingDetails(userRepository).getInvocations().size());
+        verify(userRepository).findById("user-1");
+
+        assertEquals("access", response.getAccessToken());
+        assertEquals("user-1", response.getUserId());
+        assertEquals(Set.of("USER"), response.getRoles());
+        verify(jwtTokenProvider).generateToken("user-1", "ada@example.com", Set.of("USER"), "ACTIVE");
+    }
+
+    @Test
+    void rotatesTheVerifierAndKeepsTheSelector() {
+        String first = RefreshTokens.format(SELECTOR, VERIFIER);
+        String second = authService.refreshToken(request(first)).getRefreshToken();
+        String third = authService.refreshToken(request(second)).getRefreshToken();
+
+        assertNotEquals(first, second);
+        assertNotEquals(second, third);
+        assertEquals(SELECTOR, RefreshTokens.parse(third).selector());
+        assertEquals(RefreshTokens.hash(RefreshTokens.parse(third).verifier()), tokens.get(SELECTOR).getVerifierHash());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        ReflectionTestUtils.setField(authService, "refreshTokenReuseGrace", Duration.ZERO);
+        String first = RefreshTokens.format(SELECTOR, VERIFIER);
+        String second = authService.refreshToken(request(first)).getRefreshToken();
+
+        assertThrows(RuntimeException.class, () -> authService.refreshToken(request(first)));
+
+        assertTrue(tokens.get(SELECTOR).getRevoked());
+        verify(revocationService).revokeAllForUser("user-1", "refresh_token_reuse");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> authService.refreshToken(request(second)));
+        assertEquals("Refresh token revoked", e.getMessage());
+    }
+
+    @Test
+    void retryWithinTheGracePeriodDoesNotRevoke() {
+        String first = RefreshTokens.format(SELECTOR, VERIFIER);
+        String second = authService.refreshToken(request(first)).getRefreshToken();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> authService.refreshToken(request(first)));
+
+        assertEquals("Refresh token already used", e.getMessage());
+        verify(refreshTokenRepository, never()).revoke(anyString());
+        verifyNoInteractions(revocationService);
+        authService.refreshToken(request(second));
+    }
+
+    @Test
+    void unknownVerifierRevokesTheFamily() {
+        assertThrows(RuntimeException.class,
+                () -> authService.refreshToken(request(RefreshTokens.format(SELECTOR, "guess"))));
+
+        assertTrue(tokens.get(SELECTOR).getRevoked());
+    }
+
+    @Test
+    void lockedInactiveOrDeletedAccountsGetNoTokens() {
+        account.setAccountLocked(true);
+        assertRefused();
+
+        account.setAccountLocked(false);
+        account.setStatus("SUSPENDED");
+        assertRefused();
+
+        when(userRepository.findById("user-1")).thenReturn(Optional.empty());
+        assertRefused();
+
+        verify(refreshTokenRepository, never()).rotate(anyString(), anyString(), anyString(), any());
+        verify(jwtTokenProvider, never()).generateToken(anyString(), anyString(), any(), anyString());
+    }
+
+    @Test
+    void temporaryLockoutDoesNotEndTheSession() {
+        account.setLockedUntil(LocalDateTime.now().plusMinutes(15));
+
+        assertEquals("access", authService.refreshToken(request(RefreshTokens.format(SELECTOR, VERIFIER)))
+                .getAccessToken());
+    }
+
+    @Test
+    void newAccessTokenCarriesTheAccountsCurrentRoles() {
+        account.setRoles(Set.of("USER", "INSTRUCTOR"));
+
+        AuthResponse response = authService.refreshToken(request(RefreshTokens.format(SELECTOR, VERIFIER)));
+
+        assertEquals(Set.of("USER", "INSTRUCTOR"), response.getRoles());
+        verify(jwtTokenProvider).generateToken("user-1", "ada@example.com", Set.of("USER", "INSTRUCTOR"), "ACTIVE");
+    }
+
+    @Test
+    void rejectsMalformedAndExpiredTokens() {
+        assertThrows(RuntimeException.class, () -> authService.refreshToken(request("6f1c0e1a-uuid-without-dot")));
+        verifyNoInteractions(refreshTokenRepository);
+
+        tokens.get(SELECTOR).setExpiryDate(LocalDateTime.now().minus(1, ChronoUnit.SECONDS));
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> authService.refreshToken(request(RefreshTokens.format(SELECTOR, VERIFIER))));
+        assertEquals("Refresh token expired", e.getMessage());
+    }
+
+    private void assertRefused() {
+        tokens.get(SELECTOR).setRevoked(false);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> authService.refreshToken(request(RefreshTokens.format(SELECTOR, VERIFIER))));
+
+        assertEquals("Account is not active", e.getMessage());
+        assertTrue(tokens.get(SELECTOR).getRevoked());
+    }
+
+    private static RefreshTokenRequest request(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+}
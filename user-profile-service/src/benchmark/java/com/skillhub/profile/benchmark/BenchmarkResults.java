@@ -0,0 +1,65 @@
+package com.skillhub.profile.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where benchmark results are written. Each file is named after the commit it measured, so runs
+ * on two commits sit side by side in {@code target/benchmarks} and can be diffed directly.
+ */
+final class BenchmarkResults {
+
+    static final Path DIRECTORY = Path.of("target", "benchmarks");
+
+    private BenchmarkResults() {
+    }
+
+    static Path file(String name) {
+        try {
+            Files.createDirectories(DIRECTORY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return DIRECTORY.resolve(name + "-" + commit() + ".json");
+    }
+
+    /**
+     * The abbreviated HEAD commit, with a {@code -dirty} suffix for uncommitted changes; overridable
+     * with {@code -Dbenchmark.commit} for builds outside a git checkout.
+     */
+    static String commit() {
+        String configured = System.getProperty("benchmark.commit");
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String head = git("rev-parse", "--short", "HEAD");
+        if (head == null) {
+            return "unknown";
+        }
+        String status = git("status", "--porcelain", "--untracked-files=no");
+        return status == null || status.isEmpty() ? head : head + "-dirty";
+    }
+
+    private static String git(String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (!process.waitFor(10, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                return null;
+            }
+            return output;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
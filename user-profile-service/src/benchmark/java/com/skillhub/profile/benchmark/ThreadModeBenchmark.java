@@ -0,0 +1,363 @@
+package com.skillhub.profile.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.skillhub.profile.UserProfileServiceApplication;
+import com.skillhub.profile.model.UserProfile;
+import com.skillhub.profile.repository.ProfileRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Platform against virtual request threads on the same endpoint. user-profile-service is started
+ * in-process once per {@code --modes} entry ({@code platform}, {@code virtual}) with
+ * {@code spring.threads.virtual.enabled} off or on, {@code --profiles} profiles are seeded, and
+ * {@code --concurrency} clients keep one request in flight for {@code --duration} after a
+ * {@code --warmup}. The result is written as JSON to
+ * {@code target/benchmarks/thread-modes-<scenario>-<commit>.json}.
+ *
+ * <p>The database is an in-memory stand-in (mongo-java-server) on a local port, so the real driver,
+ * connection pool and sockets are exercised without a MongoDB install; its latencies are not a
+ * server's. {@code --uri} points the run at a scratch database on a real MongoDB instead.
+ *
+ * <p>While a mode runs, JFR records every {@code jdk.VirtualThreadPinned} event, counted by the
+ * first frame outside the JDK, so each run is also a pinning audit of the code and driver paths it
+ * went through.
+ *
+ * <p>Scenarios: {@code by-user} (GET /api/profiles/user/{userId} for a random seeded user) and
+ * {@code search} (GET /api/profiles/search/skills for a random skill, a few dozen profiles per
+ * response). Any other argument of the form {@code --property=value} is passed to the
+ * application.
+ */
+public final class ThreadModeBenchmark {
+
+    private static final int SKILLS = 100;
+    private static final int SKILLS_PER_PROFILE = 3;
+    private static final Set<String> JDK_PACKAGES = Set.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final Options options;
+    private final String uri;
+    private final boolean standIn;
+
+    private ThreadModeBenchmark(Options options, String uri, boolean standIn) {
+        this.options = options;
+        this.uri = uri;
+        this.standIn = standIn;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        MongoServer server = null;
+        String uri = options.uri;
+        if (uri == null) {
+            server = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = server.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/skillhub_profile_thread_benchmark";
+        }
+        ThreadModeBenchmark benchmark = new ThreadModeBenchmark(options, uri, server != null);
+
+        List<Document> results = new ArrayList<>();
+        for (String mode : options.modes) {
+            Document result = benchmark.run(mode);
+            results.add(result);
+            Document latency = result.get("latencyMicros", Document.class);
+            System.out.printf("%-8s %-8s %8.0f req/s  p50 %7d us  p99 %8d us  non2xx %6d  errors %4d  "
+                            + "peak platform threads %4d  pinned %6d%n",
+                    options.scenario, mode, result.getDouble("throughputPerSecond"), latency.getLong("p50"),
+                    latency.getLong("p99"), result.getLong("non2xx"), result.getLong("errors"),
+                    result.getInteger("peakPlatformThreads"), result.getLong("pinnedEvents"));
+        }
+
+        Document report = new Document("benchmark", "thread-modes")
+                .append("scenario", options.scenario)
+                .append("commit", BenchmarkResults.commit())
+                .append("timestamp", Instant.now().toString())
+                .append("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"))
+                .append("availableProcessors", Runtime.getRuntime().availableProcessors())
+                .append("database", server != null ? "mongo-java-server (in-memory stand-in)" : "mongodb")
+                .append("profiles", options.profiles)
+                .append("concurrency", options.concurrency)
+                .append("warmupSeconds", options.warmup.toSeconds())
+                .append("durationSeconds", options.duration.toSeconds())
+                .append("appArgs", options.appArgs)
+                .append("results", results);
+        Path file = BenchmarkResults.file("thread-modes-" + options.scenario);
+        Files.writeString(file, report.toJson(JsonWriterSettings.builder()
+                .outputMode(JsonMode.RELAXED).indent(true).build()), StandardCharsets.UTF_8);
+        System.out.println("-> " + file.toAbsolutePath());
+
+        if (server != null) {
+            server.shutdownNow();
+        } else if (!options.keep) {
+            try (MongoClient client = MongoClients.create(uri)) {
+                client.getDatabase(options.database()).drop();
+            }
+        }
+        System.exit(0);
+    }
+
+    private Document run(String mode) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ConfigurableApplicationContext context = start(mode);
+        Map<String, LongAdder> pinnedFrames = new ConcurrentHashMap<>();
+        LongAdder pinnedEvents = new LongAdder();
+        try (RecordingStream pinning = new RecordingStream();
+             HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            seed(context);
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinnedEvents.increment();
+                pinnedFrames.computeIfAbsent(firstApplicationFrame(event), frame -> new LongAdder()).increment();
+            });
+            pinning.startAsync();
+            threads.resetPeakThreadCount();
+
+            drive(http, baseUrl, options.warmup);
+            Phase measured = drive(http, baseUrl, options.duration);
+
+            pinning.stop();
+            return result(mode, measured, threads.getPeakThreadCount(), pinnedEvents.sum(), pinnedFrames);
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start(String mode) {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("server.port", "0");
+        overrides.put("spring.threads.virtual.enabled", String.valueOf("virtual".equals(mode)));
+        overrides.put("spring.mongodb.uri", uri);
+        overrides.put("eureka.client.enabled", "false");
+        overrides.put("management.tracing.sampling.probability", "0");
+        overrides.put("logging.level.com.skillhub", "WARN");
+        if (standIn) {
+            // The stand-in logs every connection.
+            overrides.put("logging.level.de.bwaldvogel.mongo", "WARN");
+        }
+
+        // Passed as command-line arguments so they win over any configuration file, unless given explicitly.
+        List<String> args = new ArrayList<>();
+        overrides.forEach((name, value) -> {
+            if (options.appArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+                args.add("--" + name + "=" + value);
+            }
+        });
+        args.addAll(options.appArgs);
+        return new SpringApplicationBuilder(UserProfileServiceApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        context.getBean(MongoTemplate.class).remove(new Query(), UserProfile.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserProfile> profiles = new ArrayList<>(options.profiles);
+        for (int i = 0; i < options.profiles; i++) {
+            UserProfile profile = new UserProfile();
+            profile.setUserId(userId(i));
+            profile.setFirstName("Benchmark");
+            profile.setLastName("User " + i);
+            profile.setTitle("Backend engineer");
+            profile.setLocation(i % 2 == 0 ? "Tunis" : "Sfax");
+            for (int s = 0; s < SKILLS_PER_PROFILE; s++) {
+                profile.getSkills().add(skill(i * SKILLS_PER_PROFILE + s));
+            }
+            profile.setProfileCompleteness(40);
+            profile.setCreatedAt(now);
+            profile.setUpdatedAt(now);
+            profiles.add(profile);
+        }
+        context.getBean(ProfileRepository.class).insert(profiles);
+    }
+
+    private Phase drive(HttpClient http, String baseUrl, Duration duration) {
+        Phase phase = new Phase();
+        long deadline = System.nanoTime() + duration.toNanos();
+        phase.startNanos = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        send(http, baseUrl, phase);
+                    }
+                });
+            }
+        }
+        phase.endNanos = System.nanoTime();
+        return phase;
+    }
+
+    private void send(HttpClient http, String baseUrl, Phase phase) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path = "by-user".equals(options.scenario)
+                ? "/api/profiles/user/" + userId(random.nextInt(options.profiles))
+                : "/api/profiles/search/skills?skills=" + skill(random.nextInt(SKILLS));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            phase.record(response.statusCode(), System.nanoTime() - start);
+        } catch (IOException e) {
+            phase.errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Document result(String mode, Phase phase, int peakThreads, long pinnedEvents,
+                            Map<String, LongAdder> pinnedFrames) {
+        Histogram latencies = phase.latencies.getIntervalHistogram();
+        double seconds = (phase.endNanos - phase.startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        long requests = latencies.getTotalCount();
+
+        List<Document> frames = new ArrayList<>();
+        pinnedFrames.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .limit(20)
+                .forEach(entry -> frames.add(new Document("frame", entry.getKey()).append("events", entry.getValue().sum())));
+
+        return new Document("mode", mode)
+                .append("requests", requests)
+                .append("errors", phase.errors.sum())
+                .append("non2xx", phase.non2xx.sum())
+                .append("throughputPerSecond", requests / seconds)
+                .append("latencyMicros", new Document("mean", Math.round(latencies.getMean()))
+                        .append("p50", latencies.getValueAtPercentile(50))
+                        .append("p90", latencies.getValueAtPercentile(90))
+                        .append("p99", latencies.getValueAtPercentile(99))
+                        .append("max", latencies.getMaxValue()))
+                // Virtual threads are not counted: this is Tomcat's pool plus everything else.
+                .append("peakPlatformThreads", peakThreads)
+                .append("pinnedEvents", pinnedEvents)
+                .append("pinnedFrames", frames);
+    }
+
+    private static String firstApplicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        RecordedFrame chosen = frames.stream()
+                .filter(frame -> JDK_PACKAGES.stream().noneMatch(frame.getMethod().getType().getName()::startsWith))
+                .findFirst()
+                .orElse(frames.isEmpty() ? null : frames.get(0));
+        return chosen == null ? "(empty stack trace)"
+                : chosen.getMethod().getType().getName() + "." + chosen.getMethod().getName() + ":" + chosen.getLineNumber();
+    }
+
+    private static String userId(int profile) {
+        return "benchmark-user-" + profile;
+    }
+
+    private static String skill(int index) {
+        return "skill-" + (index % SKILLS);
+    }
+
+    private static final class Phase {
+
+        // Microseconds, up to one minute at three significant digits.
+        private final Recorder latencies = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder non2xx = new LongAdder();
+        private long startNanos;
+        private long endNanos;
+
+        void record(int status, long durationNanos) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), TimeUnit.MINUTES.toMicros(1)));
+            if (status < 200 || status >= 300) {
+                non2xx.increment();
+            }
+        }
+    }
+
+    private record Options(String scenario, List<String> modes, int profiles, int concurrency, Duration warmup,
+                           Duration duration, String uri, boolean keep, List<String> appArgs) {
+
+        String database() {
+            return uri.substring(uri.lastIndexOf('/') + 1).split("\\?")[0];
+        }
+
+        static Options parse(String[] args) {
+            String scenario = "by-user";
+            List<String> modes = List.of("platform", "virtual");
+            int profiles = 2000;
+            int concurrency = 400;
+            Duration warmup = Duration.ofSeconds(20);
+            Duration duration = Duration.ofSeconds(30);
+            String uri = null;
+            boolean keep = false;
+            List<String> appArgs = new ArrayList<>();
+            for (String arg : args) {
+                String value = arg.substring(arg.indexOf('=') + 1);
+                if (arg.startsWith("--scenario=")) {
+                    scenario = value;
+                } else if (arg.startsWith("--modes=")) {
+                    modes = List.of(value.split(","));
+                } else if (arg.startsWith("--profiles=")) {
+                    profiles = Integer.parseInt(value);
+                } else if (arg.startsWith("--concurrency=")) {
+                    concurrency = Integer.parseInt(value);
+                } else if (arg.startsWith("--warmup=")) {
+                    warmup = Duration.ofSeconds(Long.parseLong(value));
+                } else if (arg.startsWith("--duration=")) {
+                    duration = Duration.ofSeconds(Long.parseLong(value));
+                } else if (arg.startsWith("--uri=")) {
+                    uri = value;
+                } else if (arg.equals("--keep")) {
+                    keep = true;
+                } else {
+                    appArgs.add(arg);
+                }
+            }
+            if (!scenario.equals("by-user") && !scenario.equals("search")) {
+                throw new IllegalArgumentException("--scenario must be by-user or search, not " + scenario);
+            }
+            for (String mode : modes) {
+                if (!mode.equals("platform") && !mode.equals("virtual")) {
+                    throw new IllegalArgumentException("--modes takes platform and/or virtual, not " + mode);
+                }
+            }
+            return new Options(scenario, modes, profiles, concurrency, warmup, duration, uri, keep, appArgs);
+        }
+    }
+}
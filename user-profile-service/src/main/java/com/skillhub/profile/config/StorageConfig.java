@@ -0,0 +1,29 @@
+package com.skillhub.profile.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Multipart limits for resume and picture uploads. Every part is spooled to disk as it arrives
+ * (threshold 0), so heap use does not grow with the size of the upload. Replaces the
+ * {@code spring.servlet.multipart.*} defaults, whose 1MB limit is too small for resumes.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(
+            @Value("${storage.max-file-size:50MB}") DataSize maxFileSize) {
+
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setMaxFileSize(maxFileSize);
+        // Room for the multipart framing and the other form fields.
+        factory.setMaxRequestSize(DataSize.ofBytes(maxFileSize.toBytes() + DataSize.ofMegabytes(1).toBytes()));
+        factory.setFileSizeThreshold(DataSize.ofBytes(0));
+        return factory.createMultipartConfig();
+    }
+}
@@ -0,0 +1,24 @@
+package com.skillhub.profile.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+/**
+ * Boot traces incoming requests and outgoing HTTP calls once Micrometer Tracing is on the
+ * classpath, but not Mongo commands: this adds Spring Data's command observations, parented on the
+ * request's span through the driver's context provider.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandObservations(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
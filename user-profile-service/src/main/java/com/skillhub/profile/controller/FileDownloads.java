@@ -0,0 +1,223 @@
+package com.skillhub.profile.controller;
+
+import com.skillhub.profile.dto.ProfileFileDownload;
+import com.skillhub.profile.model.StoredFile;
+import com.skillhub.profile.storage.FileContent;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Builds download responses for stored profile files: conditional requests against the file id
+ * as a strong ETag, single and multiple byte ranges, and {@code If-Range}. Files the store keeps
+ * on the local filesystem are handed to Tomcat's sendfile, so the bytes go from the page cache
+ * to the socket without passing through the JVM; everything else is streamed.
+ */
+final class FileDownloads {
+
+    // Request attributes of Tomcat's sendfile support (see org.apache.coyote.Constants).
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileDownloads() {
+    }
+
+    static ResponseEntity<?> respond(ProfileFileDownload download, HttpServletRequest request) {
+        StoredFile file = download.file();
+        FileContent content = download.content();
+        String etag = "\"" + file.getFileId() + "\"";
+        long lastModified = file.getUploadedAt() != null
+                ? file.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        if (new ServletWebRequest(request).checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.setContentType(MediaType.parseMediaType(file.getContentType()));
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.set("X-Content-Type-Options", "nosniff");
+        ContentDisposition.Builder disposition = download.type().isInline()
+                ? ContentDisposition.inline()
+                : ContentDisposition.attachment();
+        headers.setContentDisposition(StandardCharsets.US_ASCII.newEncoder().canEncode(file.getFilename())
+                ? disposition.filename(file.getFilename()).build()
+                : disposition.filename(file.getFilename(), StandardCharsets.UTF_8).build());
+
+        long length = content.length();
+        List<HttpRange> ranges;
+        long start;
+        long end;
+        try {
+            ranges = requestedRanges(request, etag, lastModified);
+            if (ranges.size() > 1) {
+                // Spring answers a Range header on a Resource body with a multipart/byteranges 206.
+                HttpRange.toResourceRegions(ranges, content.resource());
+                return ResponseEntity.ok().headers(headers).body(content.resource());
+            }
+            start = ranges.isEmpty() ? 0 : ranges.getFirst().getRangeStart(length);
+            end = ranges.isEmpty() ? length - 1 : ranges.getFirst().getRangeEnd(length);
+            if (!ranges.isEmpty() && start >= length) {
+                throw new IllegalArgumentException("Range starts beyond the end of the file");
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        if (ranges.isEmpty()) {
+            if (sendfile(request, content, 0, length)) {
+                return ResponseEntity.ok().headers(headers).contentLength(length).build();
+            }
+            // InputStreamResource keeps Spring from applying a Range header that If-Range has voided.
+            return ResponseEntity.ok().headers(headers).contentLength(length).body(new InputStreamResource(open(content)));
+        }
+
+        ResponseEntity.BodyBuilder partial = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+                .contentLength(end - start + 1);
+        if (sendfile(request, content, start, end + 1)) {
+            return partial.build();
+        }
+        // Not a ResourceRegion: its converter cannot be selected for the wildcard body of ResponseEntity<?>.
+        return partial.body(new InputStreamResource(open(content, start, end - start + 1)));
+    }
+
+    /**
+     * The ranges to serve, or none for the whole file. A range is honoured only while the file is
+     * unchanged per {@code If-Range}; unparseable or unsatisfiable ranges throw.
+     */
+    private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag) && !sameSecond(ifRange, lastModified)) {
+            return List.of();
+        }
+        return HttpRange.parseRanges(rangeHeader);
+    }
+
+    private static boolean sameSecond(String httpDate, long lastModified) {
+        if (lastModified < 0 || httpDate.startsWith("\"") || httpDate.startsWith("W/")) {
+            return false;
+        }
+        try {
+            return ZonedDateTime.parse(httpDate, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond() == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static boolean sendfile(HttpServletRequest request, FileContent content, long start, long endExclusive) {
+        if (content.path() == null || HttpMethod.HEAD.matches(request.getMethod())
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            return false;
+        }
+        request.setAttribute(SENDFILE_FILENAME, content.path().toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, endExclusive);
+        return true;
+    }
+
+    private static InputStream open(FileContent content) {
+        try {
+            return content.resource().getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stored file", e);
+        }
+    }
+
+    private static InputStream open(FileContent content, long start, long count) {
+        InputStream in = open(content);
+        try {
+            in.skipNBytes(start);
+        } catch (IOException e) {
+            try {
+                in.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Failed to read stored file", e);
+        }
+        return new RangeInputStream(in, count);
+    }
+
+    /**
+     * Ends after {@code remaining} bytes of the underlying stream.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        RangeInputStream(InputStream in, long remaining) {
+            super(in);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
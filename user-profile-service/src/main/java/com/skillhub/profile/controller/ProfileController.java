@@ -1,13 +1,18 @@
 package com.skillhub.profile.controller;
 
 import com.skillhub.profile.dto.*;
+import com.skillhub.profile.model.ProfileFileType;
 import com.skillhub.profile.model.UserProfile;
+import com.skillhub.profile.service.ProfileFileService;
 import com.skillhub.profile.service.ProfileService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
@@ -22,6 +27,7 @@ import java.util.Map;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final ProfileFileService profileFileService;
 
     @PostMapping
     public ResponseEntity<UserProfile> createProfile(
@@ -164,6 +170,74 @@ public class ProfileController {
         return ResponseEntity.ok(profile);
     }
 
+    @PostMapping(value = "/{id}/resume", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserProfile> uploadResume(
+            @PathVariable String id,
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam("file") MultipartFile file) {
+
+        log.info("Uploading resume to profile: {}", id);
+
+        UserProfile profile = profileFileService.upload(id, userId, ProfileFileType.RESUME, file);
+        return ResponseEntity.ok(profile);
+    }
+
+    @GetMapping("/{id}/resume")
+    public ResponseEntity<?> downloadResume(
+            @PathVariable String id,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            HttpServletRequest request) {
+
+        log.info("Downloading resume of profile: {}", id);
+
+        return FileDownloads.respond(profileFileService.download(id, userId, ProfileFileType.RESUME), request);
+    }
+
+    @DeleteMapping("/{id}/resume")
+    public ResponseEntity<UserProfile> deleteResume(
+            @PathVariable String id,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Deleting resume of profile: {}", id);
+
+        UserProfile profile = profileFileService.delete(id, userId, ProfileFileType.RESUME);
+        return ResponseEntity.ok(profile);
+    }
+
+    @PostMapping(value = "/{id}/picture", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserProfile> uploadProfilePicture(
+            @PathVariable String id,
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam("file") MultipartFile file) {
+
+        log.info("Uploading profile picture to profile: {}", id);
+
+        UserProfile profile = profileFileService.upload(id, userId, ProfileFileType.PROFILE_PICTURE, file);
+        return ResponseEntity.ok(profile);
+    }
+
+    @GetMapping("/{id}/picture")
+    public ResponseEntity<?> downloadProfilePicture(
+            @PathVariable String id,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            HttpServletRequest request) {
+
+        log.info("Downloading profile picture of profile: {}", id);
+
+        return FileDownloads.respond(profileFileService.download(id, userId, ProfileFileType.PROFILE_PICTURE), request);
+    }
+
+    @DeleteMapping("/{id}/picture")
+    public ResponseEntity<UserProfile> deleteProfilePicture(
+            @PathVariable String id,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Deleting profile picture of profile: {}", id);
+
+        UserProfile profile = profileFileService.delete(id, userId, ProfileFileType.PROFILE_PICTURE);
+        return ResponseEntity.ok(profile);
+    }
+
     @GetMapping("/{id}/completion")
     public ResponseEntity<Map<String, Object>> getProfileCompletion(
             @PathVariable String id) {
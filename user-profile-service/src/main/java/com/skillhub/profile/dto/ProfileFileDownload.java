@@ -0,0 +1,8 @@
+package com.skillhub.profile.dto;
+
+import com.skillhub.profile.model.ProfileFileType;
+import com.skillhub.profile.model.StoredFile;
+import com.skillhub.profile.storage.FileContent;
+
+public record ProfileFileDownload(ProfileFileType type, StoredFile file, FileContent content) {
+}
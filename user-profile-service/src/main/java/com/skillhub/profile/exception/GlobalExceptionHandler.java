@@ -8,6 +8,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -35,6 +37,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(ProfileFileNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleProfileFileNotFound(
+            ProfileFileNotFoundException ex,
+            WebRequest request) {
+
+        log.error("Profile file not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(ProfileAccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleProfileAccessDenied(
+            ProfileAccessDeniedException ex,
+            WebRequest request) {
+
+        log.warn("Profile access denied: {}", ex.getMessage());
+        return error(HttpStatus.FORBIDDEN, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({InvalidFileException.class, MissingServletRequestPartException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidFile(
+            Exception ex,
+            WebRequest request) {
+
+        log.error("Invalid upload: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSize(
+            MaxUploadSizeExceededException ex,
+            WebRequest request) {
+
+        log.error("Upload too large: {}", ex.getMessage());
+        return error(HttpStatus.CONTENT_TOO_LARGE, "Uploaded file is too large", request);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationException(
             MethodArgumentNotValidException ex) {
@@ -93,4 +131,16 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ErrorResponse> error(HttpStatus status, String message, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(status).body(error);
+    }
+}
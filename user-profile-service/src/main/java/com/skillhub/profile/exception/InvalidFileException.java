@@ -0,0 +1,8 @@
+package com.skillhub.profile.exception;
+
+public class InvalidFileException extends RuntimeException {
+
+    public InvalidFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.skillhub.profile.exception;
+
+public class ProfileAccessDeniedException extends RuntimeException {
+
+    public ProfileAccessDeniedException(String message) {
+        super(message);
+    }
+}
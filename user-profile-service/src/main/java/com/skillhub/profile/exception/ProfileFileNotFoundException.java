@@ -0,0 +1,8 @@
+package com.skillhub.profile.exception;
+
+public class ProfileFileNotFoundException extends RuntimeException {
+
+    public ProfileFileNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package com.skillhub.profile.model;
+
+import java.util.Set;
+
+/**
+ * The files a profile can carry, with the content types accepted for each, how browsers should
+ * present them on download and whether anyone but the profile's owner may download them.
+ */
+public enum ProfileFileType {
+
+    RESUME("resume", false, true, Set.of(
+            "application/pdf",
+            "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document")),
+
+    PROFILE_PICTURE("picture", true, false, Set.of(
+            "image/jpeg",
+            "image/png",
+            "image/webp"));
+
+    private final String pathSegment;
+    private final boolean inline;
+    private final boolean ownerOnly;
+    private final Set<String> contentTypes;
+
+    ProfileFileType(String pathSegment, boolean inline, boolean ownerOnly, Set<String> contentTypes) {
+        this.pathSegment = pathSegment;
+        this.inline = inline;
+        this.ownerOnly = ownerOnly;
+        this.contentTypes = contentTypes;
+    }
+
+    public String getPathSegment() {
+        return pathSegment;
+    }
+
+    public boolean isInline() {
+        return inline;
+    }
+
+    public boolean isOwnerOnly() {
+        return ownerOnly;
+    }
+
+    public boolean accepts(String contentType) {
+        return contentType != null && contentTypes.contains(contentType.toLowerCase());
+    }
+
+    public Set<String> getContentTypes() {
+        return contentTypes;
+    }
+}
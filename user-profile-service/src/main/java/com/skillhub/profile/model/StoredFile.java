@@ -0,0 +1,23 @@
+package com.skillhub.profile.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata of an uploaded file, embedded in the profile. The content itself lives in the
+ * configured {@link com.skillhub.profile.storage.FileStore} under {@code fileId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    private String fileId;
+    private String filename;
+    private String contentType;
+    private long size;
+    private LocalDateTime uploadedAt;
+}
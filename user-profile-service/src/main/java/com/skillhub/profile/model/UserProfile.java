@@ -35,6 +35,9 @@ public class UserProfile {
 
     private String resumeUrl;
     private String profilePictureUrl;
+
+    private StoredFile resume;
+    private StoredFile profilePicture;
     private String linkedinUrl;
     private String githubUrl;
     private String portfolioUrl;
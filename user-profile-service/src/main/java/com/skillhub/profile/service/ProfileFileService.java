@@ -0,0 +1,15 @@
+package com.skillhub.profile.service;
+
+import com.skillhub.profile.dto.ProfileFileDownload;
+import com.skillhub.profile.model.ProfileFileType;
+import com.skillhub.profile.model.UserProfile;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ProfileFileService {
+
+    UserProfile upload(String profileId, String userId, ProfileFileType type, MultipartFile file);
+
+    ProfileFileDownload download(String profileId, String userId, ProfileFileType type);
+
+    UserProfile delete(String profileId, String userId, ProfileFileType type);
+}
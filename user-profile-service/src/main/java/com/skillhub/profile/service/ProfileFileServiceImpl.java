@@ -0,0 +1,158 @@
+package com.skillhub.profile.service;
+
+import com.skillhub.profile.dto.ProfileFileDownload;
+import com.skillhub.profile.exception.InvalidFileException;
+import com.skillhub.profile.exception.ProfileAccessDeniedException;
+import com.skillhub.profile.exception.ProfileFileNotFoundException;
+import com.skillhub.profile.model.ProfileFileType;
+import com.skillhub.profile.model.StoredFile;
+import com.skillhub.profile.model.UserProfile;
+import com.skillhub.profile.repository.ProfileRepository;
+import com.skillhub.profile.storage.FileContent;
+import com.skillhub.profile.storage.FileStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileFileServiceImpl implements ProfileFileService {
+
+    private static final int MAX_FILENAME_LENGTH = 255;
+
+    private final ProfileService profileService;
+    private final ProfileRepository profileRepository;
+    private final FileStore fileStore;
+
+    @Override
+    public UserProfile upload(String profileId, String userId, ProfileFileType type, MultipartFile file) {
+        log.info("Uploading {} for profile: {}", type, profileId);
+
+        UserProfile profile = profileService.getProfileById(profileId);
+        if (!profile.getUserId().equals(userId)) {
+            throw new ProfileAccessDeniedException("You can only upload files to your own profile");
+        }
+        if (file.isEmpty()) {
+            throw new InvalidFileException("Uploaded file is empty");
+        }
+        if (!type.accepts(file.getContentType())) {
+            throw new InvalidFileException("Unsupported content type " + file.getContentType()
+                    + "; expected one of " + type.getContentTypes());
+        }
+
+        // Multipart parts are spooled to disk by the container, so this streams from a temp file.
+        StoredFile stored;
+        try (InputStream content = file.getInputStream()) {
+            stored = fileStore.store(filename(file, type), file.getContentType().toLowerCase(), content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store uploaded file", e);
+        }
+
+        StoredFile previous = current(profile, type);
+        String url = "/api/profiles/" + profileId + "/" + type.getPathSegment();
+        if (type == ProfileFileType.RESUME) {
+            profile.setResume(stored);
+            profile.setResumeUrl(url);
+        } else {
+            profile.setProfilePicture(stored);
+            profile.setProfilePictureUrl(url);
+        }
+        profile.setUpdatedAt(LocalDateTime.now());
+        profile.setProfileCompleteness(profileService.calculateProfileCompleteness(profile));
+
+        UserProfile saved;
+        try {
+            saved = profileRepository.save(profile);
+        } catch (RuntimeException e) {
+            fileStore.delete(stored.getFileId());
+            throw e;
+        }
+
+        if (previous != null) {
+            deleteQuietly(previous);
+        }
+        log.info("{} uploaded for profile {}: {} bytes", type, profileId, stored.getSize());
+        return saved;
+    }
+
+    @Override
+    public ProfileFileDownload download(String profileId, String userId, ProfileFileType type) {
+        UserProfile profile = profileService.getProfileById(profileId);
+        if (type.isOwnerOnly() && !profile.getUserId().equals(userId)) {
+            throw new ProfileAccessDeniedException("You can only download the " + type.getPathSegment()
+                    + " of your own profile");
+        }
+        StoredFile file = current(profile, type);
+        if (file == null) {
+            throw new ProfileFileNotFoundException("No " + type.getPathSegment() + " uploaded for profile: " + profileId);
+        }
+
+        FileContent content;
+        try {
+            content = fileStore.open(file.getFileId()).orElseThrow(() -> new ProfileFileNotFoundException(
+                    "Stored " + type.getPathSegment() + " is missing for profile: " + profileId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open stored file", e);
+        }
+        return new ProfileFileDownload(type, file, content);
+    }
+
+    @Override
+    public UserProfile delete(String profileId, String userId, ProfileFileType type) {
+        log.info("Deleting {} of profile: {}", type, profileId);
+
+        UserProfile profile = profileService.getProfileById(profileId);
+        if (!profile.getUserId().equals(userId)) {
+            throw new ProfileAccessDeniedException("You can only delete files from your own profile");
+        }
+        StoredFile file = current(profile, type);
+        if (file == null) {
+            throw new ProfileFileNotFoundException("No " + type.getPathSegment() + " uploaded for profile: " + profileId);
+        }
+
+        if (type == ProfileFileType.RESUME) {
+            profile.setResume(null);
+            profile.setResumeUrl(null);
+        } else {
+            profile.setProfilePicture(null);
+            profile.setProfilePictureUrl(null);
+        }
+        profile.setUpdatedAt(LocalDateTime.now());
+        profile.setProfileCompleteness(profileService.calculateProfileCompleteness(profile));
+
+        // The profile stops pointing at the file before it goes, so no reader is left with a dangling id.
+        UserProfile saved = profileRepository.save(profile);
+        deleteQuietly(file);
+        return saved;
+    }
+
+    private static StoredFile current(UserProfile profile, ProfileFileType type) {
+        return type == ProfileFileType.RESUME ? profile.getResume() : profile.getProfilePicture();
+    }
+
+    private void deleteQuietly(StoredFile file) {
+        try {
+            fileStore.delete(file.getFileId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete stored file {}: {}", file.getFileId(), e.getMessage());
+        }
+    }
+
+    // Browsers send a bare name, some clients a full path; keep the last segment without control characters.
+    private static String filename(MultipartFile file, ProfileFileType type) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(String.valueOf(file.getOriginalFilename())));
+        name = name == null ? "" : name.replaceAll("[\\p{Cntrl}\"\\\\]", "").strip();
+        if (name.isEmpty() || name.equals("null")) {
+            return type.getPathSegment();
+        }
+        return name.length() > MAX_FILENAME_LENGTH ? name.substring(name.length() - MAX_FILENAME_LENGTH) : name;
+    }
+}
@@ -6,6 +6,7 @@ import com.skillhub.profile.model.Education;
 import com.skillhub.profile.model.Experience;
 import com.skillhub.profile.model.UserProfile;
 import com.skillhub.profile.repository.ProfileRepository;
+import com.skillhub.profile.storage.FileStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class ProfileServiceImpl implements ProfileService {
 
     private final ProfileRepository profileRepository;
+    private final FileStore fileStore;
 
     @Override
     public UserProfile createProfile(String userId, ProfileRequest request) {
@@ -103,11 +105,15 @@ public class ProfileServiceImpl implements ProfileService {
     public void deleteProfile(String profileId) {
         log.info("Deleting profile: {}", profileId);
 
-        if (!profileRepository.existsById(profileId)) {
-            throw new ProfileNotFoundException("Profile not found with id: " + profileId);
-        }
+        UserProfile profile = getProfileById(profileId);
 
         profileRepository.deleteById(profileId);
+        if (profile.getResume() != null) {
+            fileStore.delete(profile.getResume().getFileId());
+        }
+        if (profile.getProfilePicture() != null) {
+            fileStore.delete(profile.getProfilePicture().getFileId());
+        }
         log.info("Profile deleted successfully");
     }
 
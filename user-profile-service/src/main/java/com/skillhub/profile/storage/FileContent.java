@@ -0,0 +1,13 @@
+package com.skillhub.profile.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+
+/**
+ * Readable content of a stored file. {@code path} is set when the content is a plain file on the
+ * local filesystem, which lets downloads hand it to the servlet container for zero-copy transfer;
+ * it is null for stores that can only stream.
+ */
+public record FileContent(Resource resource, long length, Path path) {
+}
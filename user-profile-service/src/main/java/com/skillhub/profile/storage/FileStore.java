@@ -0,0 +1,24 @@
+package com.skillhub.profile.storage;
+
+import com.skillhub.profile.model.StoredFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Where uploaded profile files live. Implementations copy content through a fixed-size buffer
+ * and never hold a whole file in memory. Selected with {@code storage.type}: {@code gridfs}
+ * (default) or {@code local}.
+ */
+public interface FileStore {
+
+    StoredFile store(String filename, String contentType, InputStream content) throws IOException;
+
+    /**
+     * Returns the content stored under {@code fileId}, or empty if there is none.
+     */
+    Optional<FileContent> open(String fileId) throws IOException;
+
+    void delete(String fileId);
+}
@@ -0,0 +1,57 @@
+package com.skillhub.profile.storage;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.skillhub.profile.model.StoredFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Stores files in MongoDB GridFS. The driver uploads in 255 KB chunks as it reads, and downloads
+ * read chunk by chunk, skipping straight to the chunk a range starts in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.type", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsFileStore implements FileStore {
+
+    private final GridFsTemplate gridFsTemplate;
+
+    @Override
+    public StoredFile store(String filename, String contentType, InputStream content) {
+        CountingInputStream counting = new CountingInputStream(content);
+        ObjectId id = gridFsTemplate.store(counting, filename, contentType);
+        log.info("Stored {} ({} bytes) in GridFS as {}", filename, counting.getCount(), id);
+        return new StoredFile(id.toHexString(), filename, contentType, counting.getCount(), LocalDateTime.now());
+    }
+
+    @Override
+    public Optional<FileContent> open(String fileId) {
+        if (!ObjectId.isValid(fileId)) {
+            return Optional.empty();
+        }
+        GridFSFile file = gridFsTemplate.findOne(query(where("_id").is(new ObjectId(fileId))));
+        if (file == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileContent(gridFsTemplate.getResource(file), file.getLength(), null));
+    }
+
+    @Override
+    public void delete(String fileId) {
+        if (ObjectId.isValid(fileId)) {
+            gridFsTemplate.delete(query(where("_id").is(new ObjectId(fileId))));
+        }
+    }
+}
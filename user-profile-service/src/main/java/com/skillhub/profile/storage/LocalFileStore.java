@@ -0,0 +1,84 @@
+package com.skillhub.profile.storage;
+
+import com.skillhub.profile.model.StoredFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Stores files under {@code storage.local.directory}, spread over 256 subdirectories by id.
+ * Content is written to a temporary file and moved into place once complete, so a reader never
+ * sees a partial file. Downloads expose the path for zero-copy transfer.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalFileStore implements FileStore {
+
+    private static final Pattern FILE_ID = Pattern.compile("[0-9a-f]{32}");
+
+    private final Path directory;
+
+    public LocalFileStore(@Value("${storage.local.directory:data/profile-files}") Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory).toAbsolutePath().normalize();
+        log.info("Storing profile files under {}", this.directory);
+    }
+
+    @Override
+    public StoredFile store(String filename, String contentType, InputStream content) throws IOException {
+        String fileId = UUID.randomUUID().toString().replace("-", "");
+        Path target = pathOf(fileId);
+        Files.createDirectories(target.getParent());
+
+        Path partial = target.resolveSibling(fileId + ".part");
+        try {
+            long size = Files.copy(content, partial);
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Stored {} ({} bytes) as {}", filename, size, target);
+            return new StoredFile(fileId, filename, contentType, size, LocalDateTime.now());
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    @Override
+    public Optional<FileContent> open(String fileId) throws IOException {
+        if (!FILE_ID.matcher(fileId).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(fileId);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileContent(new FileSystemResource(path), Files.size(path), path));
+    }
+
+    @Override
+    public void delete(String fileId) {
+        if (!FILE_ID.matcher(fileId).matches()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pathOf(fileId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete file " + fileId, e);
+        }
+    }
+
+    private Path pathOf(String fileId) {
+        return directory.resolve(fileId.substring(0, 2)).resolve(fileId);
+    }
+}
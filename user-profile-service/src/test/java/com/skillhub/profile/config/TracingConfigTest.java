@@ -0,0 +1,68 @@
+package com.skillhub.profile.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.SynchronousContextProvider;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TracingConfigTest {
+
+    private final SimpleTracer tracer = new SimpleTracer();
+    private final ObservationRegistry registry = ObservationRegistry.create();
+
+    TracingConfigTest() {
+        // The handlers Boot registers: client spans for sender contexts, plain spans for the rest.
+        registry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, Propagator.NOOP),
+                new DefaultTracingObservationHandler(tracer)));
+    }
+
+    @Test
+    void mongoCommandsBecomeClientSpansOfTheRequestSpan() {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        new TracingConfig().mongoCommandObservations(registry).customize(builder);
+        MongoClientSettings settings = builder.build();
+        CommandListener listener = settings.getCommandListeners().get(0);
+        ConnectionDescription connection = new ConnectionDescription(
+                new ServerId(new ClusterId(), new ServerAddress("localhost", 27017)));
+        BsonDocument find = new BsonDocument("find", new BsonString("user_profiles"));
+
+        Observation request = Observation.start("http.server.requests", registry);
+        try (Observation.Scope scope = request.openScope()) {
+            // The sync driver asks the context provider on the calling thread, as it does here.
+            RequestContext context = ((SynchronousContextProvider) settings.getContextProvider()).getContext();
+            listener.commandStarted(new CommandStartedEvent(context, 1, 7, connection, "skillhub", "find", find));
+            listener.commandSucceeded(new CommandSucceededEvent(context, 1, 7, connection, "skillhub", "find",
+                    new BsonDocument(), 1_000));
+        } finally {
+            request.stop();
+        }
+
+        assertEquals(2, tracer.getSpans().size());
+        SimpleSpan server = tracer.getSpans().getFirst();
+        SimpleSpan command = tracer.getSpans().getLast();
+        assertEquals(Span.Kind.CLIENT, command.getKind());
+        assertEquals(server.getTraceId(), command.getTraceId());
+        assertEquals(server.getSpanId(), command.getParentId());
+    }
+}
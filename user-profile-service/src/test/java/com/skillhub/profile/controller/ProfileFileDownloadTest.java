@@ -0,0 +1,229 @@
+package com.skillhub.profile.controller;
+
+import com.skillhub.profile.dto.ProfileFileDownload;
+import com.skillhub.profile.exception.ProfileAccessDeniedException;
+import com.skillhub.profile.model.ProfileFileType;
+import com.skillhub.profile.model.StoredFile;
+import com.skillhub.profile.model.UserProfile;
+import com.skillhub.profile.service.ProfileFileService;
+import com.skillhub.profile.service.ProfileService;
+import com.skillhub.profile.storage.LocalFileStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Download responses for profile files, served from a real {@link LocalFileStore} behind a mocked
+ * {@link ProfileFileService}.
+ */
+@WebMvcTest(ProfileController.class)
+class ProfileFileDownloadTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String URL = "/api/profiles/p1/resume";
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProfileService profileService;
+
+    @MockitoBean
+    private ProfileFileService profileFileService;
+
+    @TempDir
+    private Path directory;
+
+    private StoredFile file;
+
+    @BeforeEach
+    void storeResume() throws IOException {
+        LocalFileStore store = new LocalFileStore(directory);
+        file = store.store("cv.pdf", "application/pdf",
+                new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.US_ASCII)));
+        file.setUploadedAt(LocalDateTime.of(2026, 3, 1, 12, 0, 0));
+        when(profileFileService.download(eq("p1"), any(), eq(ProfileFileType.RESUME)))
+                .thenAnswer(invocation -> new ProfileFileDownload(ProfileFileType.RESUME, file,
+                        store.open(file.getFileId()).orElseThrow()));
+    }
+
+    @Test
+    void wholeFileCarriesAStrongEtagAndAdvertisesRanges() throws Exception {
+        MockHttpServletResponse response = perform(get(URL).header("X-User-Id", "u1"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(etag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("attachment; filename=\"cv.pdf\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        verify(profileFileService).download("p1", "u1", ProfileFileType.RESUME);
+    }
+
+    @Test
+    void singleRange() throws Exception {
+        MockHttpServletResponse response = perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void suffixRange() throws Exception {
+        MockHttpServletResponse response = perform(get(URL).header(HttpHeaders.RANGE, "bytes=-4"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 16-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("ghij", response.getContentAsString());
+    }
+
+    @Test
+    void multipleRangesAreMultipart() throws Exception {
+        MockHttpServletResponse response = perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1,-2"));
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges"), response.getContentType());
+        assertTrue(response.getContentAsString().contains("Content-Range: bytes 18-19/20"));
+    }
+
+    @Test
+    void rangeIsHonouredWhileIfRangeMatches() throws Exception {
+        MockHttpServletResponse byEtag = perform(get(URL)
+                .header(HttpHeaders.RANGE, "bytes=0-1")
+                .header(HttpHeaders.IF_RANGE, etag()));
+        MockHttpServletResponse byDate = perform(get(URL)
+                .header(HttpHeaders.RANGE, "bytes=0-1")
+                .header(HttpHeaders.IF_RANGE, httpDate(file.getUploadedAt())));
+
+        assertEquals(206, byEtag.getStatus());
+        assertEquals("01", byEtag.getContentAsString());
+        assertEquals(206, byDate.getStatus());
+    }
+
+    @Test
+    void staleIfRangeFallsBackToTheWholeFile() throws Exception {
+        MockHttpServletResponse byEtag = perform(get(URL)
+                .header(HttpHeaders.RANGE, "bytes=0-1")
+                .header(HttpHeaders.IF_RANGE, "\"an-older-file\""));
+        MockHttpServletResponse byDate = perform(get(URL)
+                .header(HttpHeaders.RANGE, "bytes=0-1")
+                .header(HttpHeaders.IF_RANGE, httpDate(file.getUploadedAt().minusDays(1))));
+
+        assertEquals(200, byEtag.getStatus());
+        assertEquals(CONTENT, byEtag.getContentAsString());
+        assertNull(byEtag.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(200, byDate.getStatus());
+        assertEquals(CONTENT, byDate.getContentAsString());
+    }
+
+    @Test
+    void unsatisfiableRangeIs416WithTheLength() throws Exception {
+        MockHttpServletResponse beyondEnd = perform(get(URL).header(HttpHeaders.RANGE, "bytes=20-"));
+        MockHttpServletResponse malformed = perform(get(URL).header(HttpHeaders.RANGE, "bytes=5-2"));
+
+        assertEquals(416, beyondEnd.getStatus());
+        assertEquals("bytes */20", beyondEnd.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(416, malformed.getStatus());
+        assertEquals("bytes */20", malformed.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void matchingIfNoneMatchIs304() throws Exception {
+        MockHttpServletResponse response = perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag()));
+
+        assertEquals(304, response.getStatus());
+        assertEquals(etag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentLength());
+    }
+
+    @Test
+    void localFilesAreHandedToSendfile() throws Exception {
+        MockHttpServletRequest whole = performForRequest(get(URL).requestAttr(SENDFILE_SUPPORTED, true));
+        MockHttpServletRequest range = performForRequest(get(URL)
+                .requestAttr(SENDFILE_SUPPORTED, true)
+                .header(HttpHeaders.RANGE, "bytes=4-7"));
+
+        Path path = directory.resolve(file.getFileId().substring(0, 2)).resolve(file.getFileId());
+        assertEquals(path.toAbsolutePath().toString(), whole.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, whole.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, whole.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(4L, range.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(8L, range.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void sendfileResponsesCarryHeadersButNoBody() throws Exception {
+        MockHttpServletResponse response = perform(get(URL)
+                .requestAttr(SENDFILE_SUPPORTED, true)
+                .header(HttpHeaders.RANGE, "bytes=4-7"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 4-7/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void downloadDeniedByTheServiceIs403() throws Exception {
+        when(profileFileService.download("p1", "someone-else", ProfileFileType.RESUME))
+                .thenThrow(new ProfileAccessDeniedException("You can only download the resume of your own profile"));
+
+        assertEquals(403, perform(get(URL).header("X-User-Id", "someone-else")).getStatus());
+    }
+
+    @Test
+    void deletePassesTheCallerToTheService() throws Exception {
+        when(profileFileService.delete("p1", "u1", ProfileFileType.PROFILE_PICTURE)).thenReturn(new UserProfile());
+        when(profileFileService.delete("p1", "someone-else", ProfileFileType.RESUME))
+                .thenThrow(new ProfileAccessDeniedException("You can only delete files from your own profile"));
+
+        assertEquals(200, perform(delete("/api/profiles/p1/picture").header("X-User-Id", "u1")).getStatus());
+        assertEquals(403, perform(delete(URL).header("X-User-Id", "someone-else")).getStatus());
+        assertEquals(400, perform(delete(URL)).getStatus());
+    }
+
+    private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private MockHttpServletRequest performForRequest(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getRequest();
+    }
+
+    private String etag() {
+        return "\"" + file.getFileId() + "\"";
+    }
+
+    private static String httpDate(LocalDateTime time) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(time, ZoneId.systemDefault()));
+    }
+}
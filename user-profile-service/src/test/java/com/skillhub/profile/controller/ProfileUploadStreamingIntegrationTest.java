@@ -0,0 +1,168 @@
+package com.skillhub.profile.controller;
+
+import com.skillhub.profile.model.UserProfile;
+import com.skillhub.profile.repository.ProfileRepository;
+import com.skillhub.profile.service.ProfileService;
+import com.skillhub.profile.storage.FileStore;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads through a real Tomcat into the local store, and checks that the heap allocated while
+ * handling an upload does not grow with its size: the part is spooled to disk and copied to the
+ * store through fixed-size buffers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "storage.type=local",
+        "storage.local.directory=target/upload-streaming",
+        // Allocation is counted per platform thread.
+        "spring.threads.virtual.enabled=false"
+})
+class ProfileUploadStreamingIntegrationTest {
+
+    private static final String BOUNDARY = "profile-upload-boundary";
+    private static final long MB = 1024 * 1024;
+
+    private static final AtomicLong lastRequestAllocation = new AtomicLong();
+
+    @TestConfiguration
+    static class AllocationProbe {
+
+        @Bean
+        FilterRegistrationBean<Filter> allocationFilter() {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    lastRequestAllocation.set(threads.getCurrentThreadAllocatedBytes() - before);
+                }
+            });
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    @MockitoBean
+    private ProfileService profileService;
+
+    @MockitoBean
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private FileStore fileStore;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void heapUseDoesNotGrowWithTheUploadSize() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setId("p1");
+        profile.setUserId("owner");
+        when(profileService.getProfileById("p1")).thenReturn(profile);
+        when(profileRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Warms up the request path, so class loading does not count against the first measurement.
+        upload(100 * 1024);
+        long small = upload(100 * 1024);
+        long large = upload(50 * MB);
+
+        assertEquals(50 * MB, profile.getResume().getSize());
+        fileStore.delete(profile.getResume().getFileId());
+        // Buffering the part would allocate at least its 50MB; streaming costs roughly the same either way.
+        assertTrue(large - small < 8 * MB,
+                "100KB upload allocated " + small + " bytes, 50MB upload allocated " + large);
+    }
+
+    /**
+     * Uploads a resume of {@code size} bytes, generated as it is sent, and returns the bytes the
+     * request thread allocated.
+     */
+    private long upload(long size) throws IOException, InterruptedException {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"cv.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/profiles/p1/resume"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .header("X-User-Id", "owner")
+                .POST(HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() ->
+                        new SequenceInputStream(Collections.enumeration(List.of(
+                                new ByteArrayInputStream(head), new FillerInputStream(size),
+                                new ByteArrayInputStream(tail))))),
+                        head.length + size + tail.length))
+                .build();
+
+        lastRequestAllocation.set(-1);
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        // The filter records after the response may already have reached the client.
+        for (int i = 0; i < 100 && lastRequestAllocation.get() < 0; i++) {
+            Thread.sleep(10);
+        }
+        return lastRequestAllocation.get();
+    }
+
+    private static final class FillerInputStream extends InputStream {
+
+        private long remaining;
+
+        FillerInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = (int) Math.min(length, remaining);
+            Arrays.fill(buffer, offset, offset + n, (byte) 'x');
+            remaining -= n;
+            return n;
+        }
+    }
+}
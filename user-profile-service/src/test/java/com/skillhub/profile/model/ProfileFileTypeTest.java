@@ -0,0 +1,39 @@
+package com.skillhub.profile.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileFileTypeTest {
+
+    @Test
+    void resumesAreDocuments() {
+        assertTrue(ProfileFileType.RESUME.accepts("application/pdf"));
+        assertTrue(ProfileFileType.RESUME.accepts("APPLICATION/PDF"));
+        assertTrue(ProfileFileType.RESUME.accepts(
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+
+        assertFalse(ProfileFileType.RESUME.accepts("text/html"));
+        assertFalse(ProfileFileType.RESUME.accepts("image/png"));
+        assertFalse(ProfileFileType.RESUME.accepts("application/octet-stream"));
+        assertFalse(ProfileFileType.RESUME.accepts(null));
+    }
+
+    @Test
+    void picturesAreRasterImages() {
+        assertTrue(ProfileFileType.PROFILE_PICTURE.accepts("image/jpeg"));
+        assertTrue(ProfileFileType.PROFILE_PICTURE.accepts("image/webp"));
+
+        // SVG can carry script, and is served inline.
+        assertFalse(ProfileFileType.PROFILE_PICTURE.accepts("image/svg+xml"));
+        assertFalse(ProfileFileType.PROFILE_PICTURE.accepts("application/pdf"));
+        assertFalse(ProfileFileType.PROFILE_PICTURE.accepts(""));
+    }
+
+    @Test
+    void onlyResumesAreRestrictedToTheirOwner() {
+        assertTrue(ProfileFileType.RESUME.isOwnerOnly());
+        assertFalse(ProfileFileType.PROFILE_PICTURE.isOwnerOnly());
+    }
+}
@@ -0,0 +1,107 @@
+package com.skillhub.profile.service;
+
+import com.skillhub.profile.exception.InvalidFileException;
+import com.skillhub.profile.exception.ProfileAccessDeniedException;
+import com.skillhub.profile.model.ProfileFileType;
+import com.skillhub.profile.model.StoredFile;
+import com.skillhub.profile.model.UserProfile;
+import com.skillhub.profile.repository.ProfileRepository;
+import com.skillhub.profile.storage.FileContent;
+import com.skillhub.profile.storage.FileStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProfileFileServiceImplTest {
+
+    private static final String FILE_ID = "0123456789abcdef0123456789abcdef";
+
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final FileStore fileStore = mock(FileStore.class);
+    private final ProfileFileServiceImpl service = new ProfileFileServiceImpl(profileService, profileRepository, fileStore);
+
+    private final UserProfile profile = new UserProfile();
+
+    ProfileFileServiceImplTest() throws Exception {
+        profile.setId("p1");
+        profile.setUserId("owner");
+        profile.setResume(new StoredFile(FILE_ID, "cv.pdf", "application/pdf", 3, LocalDateTime.now()));
+        profile.setResumeUrl("/api/profiles/p1/resume");
+        profile.setProfilePicture(new StoredFile(FILE_ID, "me.png", "image/png", 3, LocalDateTime.now()));
+        when(profileService.getProfileById("p1")).thenReturn(profile);
+        when(profileService.calculateProfileCompleteness(any())).thenReturn(40);
+        when(profileRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fileStore.open(FILE_ID)).thenReturn(Optional.of(
+                new FileContent(new ByteArrayResource(new byte[3]), 3, null)));
+    }
+
+    @Test
+    void onlyTheOwnerCanUpload() {
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", new byte[3]);
+
+        assertThrows(ProfileAccessDeniedException.class,
+                () -> service.upload("p1", "someone-else", ProfileFileType.RESUME, file));
+        verifyNoInteractions(fileStore, profileRepository);
+    }
+
+    @Test
+    void uploadOfAnUnacceptedTypeStoresNothing() {
+        MockMultipartFile file = new MockMultipartFile("file", "cv.html", "text/html", new byte[3]);
+
+        assertThrows(InvalidFileException.class, () -> service.upload("p1", "owner", ProfileFileType.RESUME, file));
+        verifyNoInteractions(fileStore);
+    }
+
+    @Test
+    void resumeDownloadIsLimitedToTheOwner() {
+        assertThrows(ProfileAccessDeniedException.class,
+                () -> service.download("p1", "someone-else", ProfileFileType.RESUME));
+        assertThrows(ProfileAccessDeniedException.class,
+                () -> service.download("p1", null, ProfileFileType.RESUME));
+
+        assertEquals(FILE_ID, service.download("p1", "owner", ProfileFileType.RESUME).file().getFileId());
+    }
+
+    @Test
+    void pictureDownloadIsOpenToAnyone() {
+        assertEquals("me.png", service.download("p1", "someone-else", ProfileFileType.PROFILE_PICTURE)
+                .file().getFilename());
+    }
+
+    @Test
+    void onlyTheOwnerCanDelete() {
+        assertThrows(ProfileAccessDeniedException.class,
+                () -> service.delete("p1", "someone-else", ProfileFileType.RESUME));
+
+        verify(profileRepository, never()).save(any());
+        verify(fileStore, never()).delete(any());
+    }
+
+    @Test
+    void deleteClearsTheProfileBeforeRemovingTheContent() {
+        UserProfile saved = service.delete("p1", "owner", ProfileFileType.RESUME);
+
+        assertNull(saved.getResume());
+        assertNull(saved.getResumeUrl());
+        assertEquals(40, saved.getProfileCompleteness());
+        InOrder order = inOrder(profileRepository, fileStore);
+        order.verify(profileRepository).save(profile);
+        order.verify(fileStore).delete(FILE_ID);
+    }
+}
@@ -0,0 +1,100 @@
+package com.skillhub.profile.storage;
+
+import com.skillhub.profile.model.StoredFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileStoreTest {
+
+    private static final byte[] CONTENT = "%PDF-1.7 resume".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void storedFilesCanBeOpenedUntilDeleted() throws IOException {
+        LocalFileStore store = new LocalFileStore(root.resolve("files"));
+
+        StoredFile stored = store.store("cv.pdf", "application/pdf", new ByteArrayInputStream(CONTENT));
+
+        assertEquals(CONTENT.length, stored.getSize());
+        assertEquals("cv.pdf", stored.getFilename());
+        FileContent content = store.open(stored.getFileId()).orElseThrow();
+        assertEquals(CONTENT.length, content.length());
+        assertEquals(root.resolve("files").resolve(stored.getFileId().substring(0, 2)).resolve(stored.getFileId()),
+                content.path());
+        try (InputStream in = content.resource().getInputStream()) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+
+        store.delete(stored.getFileId());
+
+        assertTrue(store.open(stored.getFileId()).isEmpty());
+        store.delete(stored.getFileId());
+    }
+
+    @Test
+    void failedUploadLeavesNothingBehind() throws IOException {
+        LocalFileStore store = new LocalFileStore(root.resolve("files"));
+        InputStream broken = new InputStream() {
+            private int remaining = 1000;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0];
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (remaining <= 0) {
+                    throw new IOException("connection reset");
+                }
+                int n = Math.min(length, remaining);
+                Arrays.fill(buffer, offset, offset + n, (byte) 'x');
+                remaining -= n;
+                return n;
+            }
+        };
+
+        try {
+            store.store("cv.pdf", "application/pdf", broken);
+        } catch (IOException expected) {
+            // The client went away mid-upload.
+        }
+
+        try (Stream<Path> files = Files.walk(root.resolve("files"))) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+
+    @Test
+    void idsThatAreNotStoreIdsNeverReachTheFilesystem() throws IOException {
+        LocalFileStore store = new LocalFileStore(root.resolve("files"));
+        Path outside = Files.writeString(root.resolve("secret.txt"), "secret");
+        StoredFile stored = store.store("cv.pdf", "application/pdf", new ByteArrayInputStream(CONTENT));
+        String id = stored.getFileId();
+
+        for (String fileId : new String[] {"../secret.txt", "../../" + root.getFileName() + "/secret.txt",
+                "/etc/passwd", "..", id.toUpperCase(), id + ".part", ""}) {
+            assertTrue(store.open(fileId).isEmpty(), fileId);
+            store.delete(fileId);
+        }
+
+        assertTrue(Files.exists(outside));
+        assertTrue(store.open(id).isPresent());
+    }
+}